@@ -0,0 +1,156 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.javailp.CompiledProblem;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code ModelBenchmark} measures the construction of linear expressions
+ * and problems, the evaluation of linear expressions, and the compilation of
+ * a problem into the sparse format that is passed to the solvers.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+	/**
+	 * The number of variables.
+	 */
+	@Param( { "100", "10000" })
+	public int variables;
+
+	/**
+	 * The number of terms of each constraint.
+	 */
+	@Param( { "10" })
+	public int terms;
+
+	protected Object[] vars;
+	protected double[] coeffs;
+	protected List<Linear> linears;
+	protected Linear objective;
+	protected Map<Object, Number> values;
+	protected Problem problem;
+
+	/**
+	 * Creates the variables, the linear expressions of the constraints (one
+	 * for each variable), the objective, and the problem.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		vars = new Object[variables];
+		coeffs = new double[variables];
+		values = new HashMap<Object, Number>();
+		for (int i = 0; i < variables; i++) {
+			vars[i] = "x" + i;
+			coeffs[i] = 1 + random.nextInt(100);
+			values.put(vars[i], random.nextInt(2));
+		}
+
+		linears = new ArrayList<Linear>();
+		for (int k = 0; k < variables; k++) {
+			Linear linear = new Linear(terms);
+			for (int j = 0; j < terms; j++) {
+				linear.add(coeffs[(k + j) % variables], vars[random.nextInt(variables)]);
+			}
+			linears.add(linear);
+		}
+
+		objective = linearAdd();
+		problem = problemAdd();
+	}
+
+	/**
+	 * Adds one term for each variable to a linear expression.
+	 * 
+	 * @return the linear expression
+	 */
+	@Benchmark
+	public Linear linearAdd() {
+		Linear linear = new Linear();
+		for (int i = 0; i < variables; i++) {
+			linear.add(coeffs[i], vars[i]);
+		}
+		return linear;
+	}
+
+	/**
+	 * Adds the constraints and the objective to a new problem.
+	 * 
+	 * @return the problem
+	 */
+	@Benchmark
+	public Problem problemAdd() {
+		Problem p = new Problem();
+		for (Linear linear : linears) {
+			p.add(linear, "<=", terms * 50);
+		}
+		p.setObjective(objective, OptType.MAX);
+		return p;
+	}
+
+	/**
+	 * Evaluates the objective for an assignment of all variables.
+	 * 
+	 * @return the value
+	 */
+	@Benchmark
+	public Number linearEvaluate() {
+		return objective.evaluate(values);
+	}
+
+	/**
+	 * Compiles the problem into the compressed sparse row and column format.
+	 * The bound change invalidates the cached compilation.
+	 * 
+	 * @return the compiled problem
+	 */
+	@Benchmark
+	public CompiledProblem compile() {
+		problem.setVarUpperBound(vars[0], 1);
+		return problem.compile();
+	}
+
+}
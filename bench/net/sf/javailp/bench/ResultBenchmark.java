@@ -0,0 +1,111 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sf.javailp.Result;
+import net.sf.javailp.ResultImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The {@code ResultBenchmark} measures storing and reading the values of all
+ * variables of a {@link ResultImpl}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultBenchmark {
+
+	/**
+	 * The number of variables.
+	 */
+	@Param( { "100", "10000" })
+	public int variables;
+
+	protected Object[] vars;
+	protected Result result;
+
+	/**
+	 * Creates the variables and a result with a value for each variable.
+	 */
+	@Setup
+	public void setup() {
+		vars = new Object[variables];
+		for (int i = 0; i < variables; i++) {
+			vars[i] = "x" + i;
+		}
+		result = put();
+	}
+
+	/**
+	 * Puts the values of all variables into a new result.
+	 * 
+	 * @return the result
+	 */
+	@Benchmark
+	public Result put() {
+		Result r = new ResultImpl();
+		for (int i = 0; i < variables; i++) {
+			r.putPrimalValue(vars[i], i & 1);
+		}
+		return r;
+	}
+
+	/**
+	 * Gets the values of all variables.
+	 * 
+	 * @param blackhole
+	 *            the blackhole that consumes the values
+	 */
+	@Benchmark
+	public void get(Blackhole blackhole) {
+		for (int i = 0; i < variables; i++) {
+			blackhole.consume(result.get(vars[i]));
+		}
+	}
+
+	/**
+	 * Gets the values of all variables as boolean values.
+	 * 
+	 * @param blackhole
+	 *            the blackhole that consumes the values
+	 */
+	@Benchmark
+	public void getBoolean(Blackhole blackhole) {
+		for (int i = 0; i < variables; i++) {
+			blackhole.consume(result.getBoolean(vars[i]));
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.javailp.Linear;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code SolverBenchmark} measures the translation of a problem into the
+ * model of a solver. The problem is a feasibility problem with binary
+ * variables that every solver solves immediately (all variables are
+ * {@code 0}), such that the time is dominated by the translation and the
+ * extraction of the result. The solver is selected by the name of its
+ * factory, e.g., {@code -p solver=Gurobi} for the
+ * {@code SolverFactoryGurobi}. Solvers with native libraries require the
+ * libraries in the {@code java.library.path} of the benchmark (see the
+ * {@code -jvmArgs} option of JMH).
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+	/**
+	 * The name of the solver.
+	 */
+	@Param( { "SAT4J" })
+	public String solver;
+
+	/**
+	 * The number of variables.
+	 */
+	@Param( { "100", "10000" })
+	public int variables;
+
+	/**
+	 * The number of terms of each constraint.
+	 */
+	@Param( { "10" })
+	public int terms;
+
+	protected SolverFactory factory;
+	protected Problem problem;
+
+	/**
+	 * Creates the factory of the solver and the problem with one constraint
+	 * for each variable.
+	 * 
+	 * @throws Exception
+	 *             if the factory cannot be created
+	 */
+	@Setup
+	public void setup() throws Exception {
+		factory = (SolverFactory) Class.forName("net.sf.javailp.SolverFactory" + solver).getDeclaredConstructor()
+				.newInstance();
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		Random random = new Random(0);
+		problem = new Problem();
+		for (int i = 0; i < variables; i++) {
+			problem.setVarType("x" + i, Boolean.class);
+		}
+		for (int k = 0; k < variables; k++) {
+			Linear linear = new Linear(terms);
+			for (int j = 0; j < terms; j++) {
+				linear.add(1 + random.nextInt(100), "x" + random.nextInt(variables));
+			}
+			problem.add(linear, "<=", terms * 50);
+		}
+	}
+
+	/**
+	 * Solves the problem with a new solver.
+	 * 
+	 * @return the result
+	 */
+	@Benchmark
+	public Result solve() {
+		return factory.get().solve(problem);
+	}
+
+}
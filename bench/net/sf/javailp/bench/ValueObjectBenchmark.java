@@ -0,0 +1,121 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sf.javailp.ValueObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code ValueObjectBenchmark} measures the reflective
+ * {@link ValueObject#hashCode()} and {@link ValueObject#equals(Object)}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueObjectBenchmark {
+
+	/**
+	 * The {@code Value} is a {@link ValueObject} with a few typical fields.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	public static class Value extends ValueObject {
+
+		protected final String name;
+		protected final Integer index;
+		protected final Double weight;
+
+		/**
+		 * Constructs a {@code Value}.
+		 * 
+		 * @param name
+		 *            the name
+		 * @param index
+		 *            the index
+		 * @param weight
+		 *            the weight
+		 */
+		public Value(String name, Integer index, Double weight) {
+			super();
+			this.name = name;
+			this.index = index;
+			this.weight = weight;
+		}
+	}
+
+	protected Value value;
+	protected Value equal;
+	protected Value other;
+
+	/**
+	 * Creates two equal values and a different value.
+	 */
+	@Setup
+	public void setup() {
+		value = new Value("x", 42, 0.5);
+		equal = new Value("x", 42, 0.5);
+		other = new Value("x", 42, 1.5);
+	}
+
+	/**
+	 * Returns the hash code of a value.
+	 * 
+	 * @return the hash code
+	 */
+	@Benchmark
+	public int hashCodeValue() {
+		return value.hashCode();
+	}
+
+	/**
+	 * Compares two equal values.
+	 * 
+	 * @return {@code true}
+	 */
+	@Benchmark
+	public boolean equalsEqual() {
+		return value.equals(equal);
+	}
+
+	/**
+	 * Compares two different values.
+	 * 
+	 * @return {@code false}
+	 */
+	@Benchmark
+	public boolean equalsOther() {
+		return value.equals(other);
+	}
+
+}
@@ -14,8 +14,16 @@
  */
 package net.sf.javailp;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * The {@code AbstractSolver} contains a map for the parameters.
@@ -25,8 +33,17 @@ import java.util.Map;
  */
 public abstract class AbstractSolver implements Solver {
 
+	/**
+	 * The absolute tolerance of the feasibility check of starting values.
+	 */
+	protected static final double TOLERANCE = 1e-9;
+
 	protected final Map<Object, Object> parameters = new HashMap<Object, Object>();
 
+	protected final Map<AbstractSolverSession, Thread> running = new HashMap<AbstractSolverSession, Thread>();
+
+	private static ExecutorService executor = null;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -46,4 +63,509 @@ public abstract class AbstractSolver implements Solver {
 		parameters.put(parameter, value);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem,
+	 * net.sf.javailp.Result)
+	 */
+	public Result solve(Problem problem, Result start) {
+		return solve(problem, getStart(problem, start));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem, java.util.Map)
+	 */
+	public Result solve(Problem problem, Map<Object, ? extends Number> start) {
+		return solve(problem, getStart(problem, start));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solveAsync(net.sf.javailp.Problem)
+	 */
+	public CompletableFuture<Result> solveAsync(Problem problem) {
+		return solveAsync(problem, getDefaultExecutor());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solveAsync(net.sf.javailp.Problem,
+	 * java.util.concurrent.Executor)
+	 */
+	public CompletableFuture<Result> solveAsync(final Problem problem, Executor executor) {
+		final Thread[] worker = new Thread[1];
+		final CompletableFuture<Result> future = new CompletableFuture<Result>() {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				boolean cancelled = super.cancel(mayInterruptIfRunning);
+				if (cancelled && mayInterruptIfRunning) {
+					synchronized (worker) {
+						if (worker[0] != null) {
+							// the interrupt aborts a solve that is not yet
+							// running (see run)
+							worker[0].interrupt();
+							abort(worker[0]);
+						}
+					}
+				}
+				return cancelled;
+			}
+		};
+
+		executor.execute(new Runnable() {
+			public void run() {
+				synchronized (worker) {
+					if (future.isDone()) {
+						return;
+					}
+					worker[0] = Thread.currentThread();
+				}
+				try {
+					future.complete(solve(problem));
+				} catch (Throwable e) {
+					future.completeExceptionally(e);
+				} finally {
+					synchronized (worker) {
+						worker[0] = null;
+					}
+					if (future.isCancelled()) {
+						// clear the interrupt of the cancellation
+						Thread.interrupted();
+					}
+				}
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Solves the problem with the given starting values. Solvers that support
+	 * starting values override this method, by default the values are
+	 * ignored.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param start
+	 *            the starting values indexed by the variable indices of the
+	 *            problem ({@code NaN} for open variables) or {@code null}
+	 * @return the result
+	 */
+	protected Result solve(Problem problem, double[] start) {
+		return solve(problem);
+	}
+
+	/**
+	 * Solves the problem of a session once and closes the session. The session
+	 * is aborted by {@link #abort()} while it is running.
+	 * 
+	 * @param session
+	 *            the session
+	 * @param start
+	 *            the starting values ({@code NaN} for open variables) or
+	 *            {@code null}
+	 * @return the result
+	 */
+	protected Result run(AbstractSolverSession session, double[] start) {
+		synchronized (running) {
+			running.put(session, Thread.currentThread());
+		}
+		if (Thread.currentThread().isInterrupted()) {
+			session.abort();
+		}
+		try {
+			return session.solve(start);
+		} finally {
+			try {
+				session.close();
+			} finally {
+				synchronized (running) {
+					running.remove(session);
+					running.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Aborts all running solves of this solver (see
+	 * {@link SolverSession#abort()}). This method may be called from any
+	 * thread.
+	 */
+	public void abort() {
+		synchronized (running) {
+			for (AbstractSolverSession session : running.keySet()) {
+				session.abort();
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#close()
+	 */
+	public void close() {
+		abort();
+		synchronized (running) {
+			// a solve that closes its own solver cannot wait for itself
+			while (!running.isEmpty() && !running.containsValue(Thread.currentThread())) {
+				try {
+					running.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Aborts the running solves of this solver in the given thread.
+	 * 
+	 * @param thread
+	 *            the thread
+	 */
+	protected void abort(Thread thread) {
+		synchronized (running) {
+			for (Entry<AbstractSolverSession, Thread> entry : running.entrySet()) {
+				if (entry.getValue() == thread) {
+					entry.getKey().abort();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the deadline of a solve that starts now (see
+	 * {@link Solver#TIMEOUT} and {@link Solver#DEADLINE}).
+	 * 
+	 * @return the deadline in milliseconds since the epoch or
+	 *         {@code Long.MAX_VALUE} if the solve is not limited
+	 */
+	protected long getDeadline() {
+		return getDeadline(parameters);
+	}
+
+	/**
+	 * Returns the deadline of a solve with the given parameters that starts
+	 * now (see {@link Solver#TIMEOUT} and {@link Solver#DEADLINE}).
+	 * 
+	 * @param parameters
+	 *            the parameters
+	 * @return the deadline in milliseconds since the epoch or
+	 *         {@code Long.MAX_VALUE} if the solve is not limited
+	 */
+	protected static long getDeadline(Map<Object, Object> parameters) {
+		long now = System.currentTimeMillis();
+		long deadline = Long.MAX_VALUE;
+
+		Object timeout = parameters.get(Solver.TIMEOUT);
+		if (timeout instanceof Duration) {
+			deadline = add(now, ((Duration) timeout).toMillis());
+		} else if (timeout instanceof Number) {
+			double millis = ((Number) timeout).doubleValue() * 1000;
+			deadline = add(now, millis < Long.MAX_VALUE ? (long) millis : Long.MAX_VALUE);
+		}
+
+		Object instant = parameters.get(Solver.DEADLINE);
+		if (instant instanceof Instant) {
+			deadline = Math.min(deadline, ((Instant) instant).toEpochMilli());
+		} else if (instant instanceof Number) {
+			deadline = Math.min(deadline, ((Number) instant).longValue());
+		}
+		return deadline;
+	}
+
+	private static long add(long time, long millis) {
+		return (millis > 0 && time > Long.MAX_VALUE - millis) ? Long.MAX_VALUE : time + Math.max(millis, 0);
+	}
+
+	/**
+	 * Returns the default executor of the asynchronous solves. The executor
+	 * is a pool of daemon threads, one for each available processor, such that
+	 * the (native) solvers never occupy more threads than processors.
+	 * 
+	 * @return the default executor
+	 */
+	protected static synchronized Executor getDefaultExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+					getThreadFactory("javailp-solver"));
+		}
+		return executor;
+	}
+
+	/**
+	 * Returns a factory for daemon threads with the given name.
+	 * 
+	 * @param name
+	 *            the name of the threads
+	 * @return the thread factory
+	 */
+	protected static ThreadFactory getThreadFactory(final String name) {
+		return new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * Returns the starting values for the variables of the problem from a
+	 * result.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param start
+	 *            the result (may be {@code null})
+	 * @return the starting values ({@code NaN} for open variables) or
+	 *         {@code null}
+	 */
+	protected static double[] getStart(Problem problem, Result start) {
+		if (start == null) {
+			return null;
+		}
+		int nvar = problem.getVariablesCount();
+		if (start instanceof ResultArray && ((ResultArray) start).getProblem() == problem) {
+			// the values are already indexed by the variable indices
+			return ((ResultArray) start).toArray(nvar);
+		}
+		double[] values = new double[nvar];
+		for (int i = 0; i < nvar; i++) {
+			Object variable = problem.getVariable(i);
+			Number value = (start.containsVar(variable) ? start.getPrimalValue(variable) : null);
+			values[i] = (value != null ? value.doubleValue() : Double.NaN);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the starting values for the variables of the problem from a
+	 * (partial) assignment.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param start
+	 *            the assignment (may be {@code null})
+	 * @return the starting values ({@code NaN} for open variables) or
+	 *         {@code null}
+	 */
+	protected static double[] getStart(Problem problem, Map<Object, ? extends Number> start) {
+		if (start == null) {
+			return null;
+		}
+		int nvar = problem.getVariablesCount();
+		double[] values = new double[nvar];
+		for (int i = 0; i < nvar; i++) {
+			Number value = start.get(problem.getVariable(i));
+			values[i] = (value != null ? value.doubleValue() : Double.NaN);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the starting value of the {@code i}-th variable or {@code NaN} if
+	 * the variable is open.
+	 * 
+	 * @param start
+	 *            the starting values or {@code null}
+	 * @param i
+	 *            the index of the variable
+	 * @return the starting value
+	 */
+	protected static double getStartValue(double[] start, int i) {
+		return (start != null && i < start.length ? start[i] : Double.NaN);
+	}
+
+	/**
+	 * Returns {@code true} if the starting values assign all variables and
+	 * satisfy all constraints and bounds of the problem. The bounds, the
+	 * constraints, and the integrality may be violated by the feasibility
+	 * tolerance (see {@link #isLess(double, double)}), i.e., the values of
+	 * integer variables are not necessarily integral.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param start
+	 *            the starting values
+	 * @return {@code true} if the starting values are a feasible solution
+	 */
+	protected static boolean isFeasible(Problem problem, double[] start) {
+		int nvar = problem.getVariablesCount();
+		if (start == null || start.length < nvar) {
+			return false;
+		}
+		for (int i = 0; i < nvar; i++) {
+			double value = start[i];
+			if (Double.isNaN(value) || isLess(value, problem.getVarLowerBoundAt(i))
+					|| isLess(problem.getVarUpperBoundAt(i), value)) {
+				return false;
+			}
+			if (problem.getVarTypeAt(i).isInt() && Math.abs(value - Math.rint(value)) > TOLERANCE) {
+				return false;
+			}
+		}
+		for (Constraint constraint : problem.getConstraints()) {
+			Linear linear = constraint.getLhs();
+			double lhs = 0;
+			for (int j = 0; j < linear.size(); j++) {
+				lhs += linear.getCoefficient(j) * start[problem.getVariableIndex(linear.getVariable(j))];
+			}
+			double rhs = constraint.getRhs().doubleValue();
+			switch (constraint.getOperator()) {
+			case LE:
+				if (isLess(rhs, lhs)) {
+					return false;
+				}
+				break;
+			case GE:
+				if (isLess(lhs, rhs)) {
+					return false;
+				}
+				break;
+			default: // EQ
+				if (isLess(lhs, rhs) || isLess(rhs, lhs)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} if the first value is less than the second value
+	 * by more than the feasibility tolerance (scaled by the larger absolute
+	 * value if it is greater than one).
+	 * 
+	 * @param value
+	 *            the first value
+	 * @param other
+	 *            the second value
+	 * @return {@code true} if the first value is less
+	 */
+	protected static boolean isLess(double value, double other) {
+		double scale = Math.max(1, Math.max(Math.abs(value), Math.abs(other)));
+		return value < other - TOLERANCE * scale;
+	}
+
+	/**
+	 * Returns a new session for the given problem. Solvers that can update
+	 * their model incrementally override this method with their own
+	 * {@link AbstractSolverSession} which records the changes of the problem
+	 * while it is open, the default session solves the complete problem each
+	 * time.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the session
+	 */
+	public SolverSession openSession(Problem problem) {
+		return new DefaultSolverSession(this, problem);
+	}
+
+	/**
+	 * Returns the naming value (see {@link Solver#NAMES}).
+	 * 
+	 * @return the naming value
+	 */
+	protected int getNames() {
+		Object names = parameters.get(Solver.NAMES);
+		if (names != null && names instanceof Number) {
+			return ((Number) names).intValue();
+		} else {
+			return 1;
+		}
+	}
+
+	/**
+	 * Returns the name of the {@code k}-th constraint for the given naming
+	 * value (see {@link Solver#NAMES}).
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param k
+	 *            the index of the constraint
+	 * @param names
+	 *            the naming value
+	 * @return the name or {@code null} if no names are used
+	 */
+	protected String getConstraintName(Problem problem, int k, int names) {
+		switch (names) {
+		case 0:
+			return null;
+		case 1:
+			return problem.getConstraintName(k);
+		default: // >= 2
+			return problem.getConstraints().get(k).getName();
+		}
+	}
+
+	/**
+	 * Returns a map from the variables of the problem to their indices plus
+	 * the given offset. The map is only required for hooks, the solvers
+	 * themselves use the indices of the {@code Problem} directly.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param offset
+	 *            the offset that is added to each index
+	 * @return the map of the variables to their indices
+	 */
+	protected Map<Object, Integer> getVarToIndex(Problem problem, int offset) {
+		int nvar = problem.getVariablesCount();
+		Map<Object, Integer> varToIndex = new HashMap<Object, Integer>(nvar * 4 / 3 + 1);
+		for (int i = 0; i < nvar; i++) {
+			varToIndex.put(problem.getVariable(i), i + offset);
+		}
+		return varToIndex;
+	}
+
+	/**
+	 * Writes the variable indices and coefficients of the {@code k}-th
+	 * constraint to the arrays beginning at {@code offset}. The coefficients
+	 * of a variable that occurs several times in the constraint are summed up
+	 * such that each variable is written once (the solvers reject rows with
+	 * duplicate columns).
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param k
+	 *            the index of the constraint
+	 * @param positions
+	 *            the positions of the variables in the arrays, one element
+	 *            per variable (the array is reused for all rows without
+	 *            being cleared)
+	 * @param indices
+	 *            the variable indices
+	 * @param values
+	 *            the coefficients
+	 * @param offset
+	 *            the first position in the arrays
+	 * @return the position behind the last written element
+	 */
+	protected static int getRow(Problem problem, int k, int[] positions, int[] indices, double[] values, int offset) {
+		Linear linear = problem.getConstraints().get(k).getLhs();
+		int n = offset;
+		for (int j = 0; j < linear.size(); j++) {
+			int i = problem.getVariableIndex(linear.getVariable(j));
+			int p = positions[i];
+			if (p >= offset && p < n && indices[p] == i) {
+				values[p] += linear.getCoefficient(j);
+			} else {
+				positions[i] = n;
+				indices[n] = i;
+				values[n] = linear.getCoefficient(j);
+				n++;
+			}
+		}
+		return n;
+	}
+
 }
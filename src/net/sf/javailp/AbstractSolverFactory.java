@@ -17,6 +17,8 @@ package net.sf.javailp;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The {@code AbstractSolverFactory} contains a map for the parameters and sets
@@ -45,6 +47,33 @@ public abstract class AbstractSolverFactory implements SolverFactory {
 		return solver;		
 	}
 
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.SolverFactory#solveAsync(net.sf.javailp.Problem)
+	 */
+	public CompletableFuture<Result> solveAsync(Problem problem) {
+		return get().solveAsync(problem);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.SolverFactory#solveAsync(net.sf.javailp.Problem, java.util.concurrent.Executor)
+	 */
+	public CompletableFuture<Result> solveAsync(Problem problem, Executor executor) {
+		return get().solveAsync(problem, executor);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.SolverFactory#getSession(net.sf.javailp.Problem)
+	 */
+	public SolverSession getSession(Problem problem) {
+		Solver solver = get();
+		
+		if (solver instanceof AbstractSolver) {
+			return ((AbstractSolver) solver).openSession(problem);
+		} else {
+			return new DefaultSolverSession(solver, problem);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.sf.javailp.SolverFactory#getParameters()
 	 */
@@ -58,6 +87,13 @@ public abstract class AbstractSolverFactory implements SolverFactory {
 	public void setParameter(Object parameter, Object value) {
 		parameters.put(parameter, value);
 	}
+
+	/* (non-Javadoc)
+	 * @see net.sf.javailp.SolverFactory#close()
+	 */
+	public void close() {
+		// no shared native objects
+	}
 	
 	/**
 	 * Returns the {@code Solver}
@@ -0,0 +1,491 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.javailp.SolveMetrics.Phase;
+
+/**
+ * The {@code AbstractSolverSession} keeps the model of a solver between the
+ * calls of {@link #solve()}. The changes of the problem since the last call
+ * are read from the change journal of the {@link Problem} (see
+ * {@link Problem#setJournaling(boolean)}) and applied to the model by
+ * {@link #update(Change)}. If the journal is not available or the changes
+ * cannot be applied (see {@link #isIncremental(List)}), the model is rebuilt.
+ * The journal of the problem is enabled while the session is open and
+ * discarded after the last session of the problem is closed. A session that
+ * is not closed keeps recording the changes of its problem.
+ * <p>
+ * Each solve is limited by the deadline of the parameters (see
+ * {@link Solver#TIMEOUT} and {@link Solver#DEADLINE}). The solvers use the
+ * remaining time as their own time limit and a watchdog aborts the solve
+ * (see {@link #abort()}) at the deadline.
+ * <p>
+ * The phases of each solve are measured (see {@link SolveMetrics}). The
+ * translation lasts until {@link #optimize(double[])} enters the optimization
+ * phase right before the solver is called and the extraction phase right
+ * after it.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public abstract class AbstractSolverSession implements SolverSession {
+
+	protected final Problem problem;
+	protected final Map<Object, Object> parameters;
+	protected long version = -1;
+	protected boolean built = false;
+	protected boolean open = false;
+	protected volatile boolean aborted = false;
+	protected long deadline = Long.MAX_VALUE;
+	protected long solves = 0;
+	protected long startTime = 0;
+	protected SolveMetrics metrics = null;
+	protected final List<NativeResource> resources = new ArrayList<NativeResource>();
+
+	private static ScheduledExecutorService watchdog = null;
+
+	/**
+	 * Constructs an {@code AbstractSolverSession} without parameters.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	public AbstractSolverSession(Problem problem) {
+		this(problem, Collections.<Object, Object> emptyMap());
+	}
+
+	/**
+	 * Constructs an {@code AbstractSolverSession}.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param parameters
+	 *            the parameters of the solver
+	 */
+	public AbstractSolverSession(Problem problem, Map<Object, Object> parameters) {
+		super();
+		this.problem = problem;
+		this.parameters = parameters;
+		open();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#solve()
+	 */
+	public Result solve() {
+		return solve((double[]) null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#solve(net.sf.javailp.Result)
+	 */
+	public Result solve(Result start) {
+		return solve(AbstractSolver.getStart(problem, start));
+	}
+
+	/**
+	 * Solves the problem with the given starting values.
+	 * 
+	 * @param start
+	 *            the starting values indexed by the variable indices of the
+	 *            problem ({@code NaN} for open variables) or {@code null}
+	 * @return the result
+	 */
+	public Result solve(double[] start) {
+		boolean success = false;
+		ScheduledFuture<?> expiry = null;
+		try {
+			metrics = new SolveMetrics();
+			metrics.enter(Phase.TRANSLATION);
+			startTime = System.currentTimeMillis();
+			deadline = AbstractSolver.getDeadline(parameters);
+			open();
+			if (deadline != Long.MAX_VALUE) {
+				final long solve;
+				synchronized (this) {
+					solve = solves;
+				}
+				expiry = getWatchdog().schedule(new Runnable() {
+					public void run() {
+						expire(solve);
+					}
+				}, getRemainingMillis(), TimeUnit.MILLISECONDS);
+			}
+
+			long current = problem.getVersion();
+			List<Change> changes = (built ? problem.getChanges(version) : null);
+
+			if (changes != null && isIncremental(changes)) {
+				int added = problem.getVariablesCount();
+				Change objective = null;
+				Change optType = null;
+				for (Change change : changes) {
+					if (change.getType() == ChangeType.VARIABLE_ADDED) {
+						added = Math.min(added, change.getIndex());
+					} else if (change.getType() == ChangeType.VARIABLE_TYPE && change.getIndex() >= added) {
+						// the type of new variables is set when they are added
+						continue;
+					} else if (change.getType() == ChangeType.OBJECTIVE) {
+						// the current objective may contain variables that
+						// are added by later changes
+						objective = change;
+						continue;
+					} else if (change.getType() == ChangeType.OPTIMIZATION_TYPE) {
+						optType = change;
+						continue;
+					}
+					update(change);
+				}
+				if (objective != null) {
+					update(objective);
+				}
+				if (optType != null) {
+					update(optType);
+				}
+			} else {
+				release();
+				// set before building such that a partially built model is
+				// disposed as well
+				built = true;
+				build();
+			}
+			problem.discardChanges(current);
+			version = current;
+
+			metrics.setSize(problem);
+
+			if (aborted) {
+				return null;
+			}
+			Result result = optimize(start);
+			metrics.enter(null);
+			if (result != null) {
+				result.setMetrics(metrics);
+			}
+			success = true;
+			return result;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			if (expiry != null) {
+				expiry.cancel(false);
+			}
+			synchronized (this) {
+				solves++;
+				aborted = false;
+			}
+			if (!success) {
+				release();
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#getProblem()
+	 */
+	public Problem getProblem() {
+		return problem;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#abort()
+	 */
+	public void abort() {
+		aborted = true;
+		interrupt();
+	}
+
+	/**
+	 * Aborts the solve with the given number if it is still running.
+	 * 
+	 * @param solve
+	 *            the number of the solve
+	 */
+	protected synchronized void expire(long solve) {
+		if (solve == solves) {
+			abort();
+		}
+	}
+
+	/**
+	 * Returns the remaining time until the deadline of the current solve.
+	 * 
+	 * @return the remaining time in milliseconds or {@code Long.MAX_VALUE} if
+	 *         the solve is not limited
+	 */
+	protected long getRemainingMillis() {
+		if (deadline == Long.MAX_VALUE) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(deadline - System.currentTimeMillis(), 0);
+	}
+
+	/**
+	 * Returns the remaining time until the deadline of the current solve.
+	 * 
+	 * @return the remaining time in seconds or
+	 *         {@code Double.POSITIVE_INFINITY} if the solve is not limited
+	 */
+	protected double getRemainingSeconds() {
+		if (deadline == Long.MAX_VALUE) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return getRemainingMillis() / 1000.0;
+	}
+
+	/**
+	 * Returns the listener of the improving solutions or {@code null} if no
+	 * listener is set (see {@link Solver#LISTENER}).
+	 * 
+	 * @return the listener
+	 */
+	protected SolveListener getListener() {
+		Object listener = parameters.get(Solver.LISTENER);
+		if (listener != null && listener instanceof SolveListener) {
+			return (SolveListener) listener;
+		}
+		return null;
+	}
+
+	/**
+	 * Passes an improving solution to the listener. The solve is aborted if
+	 * the listener stops it.
+	 * 
+	 * @param result
+	 *            the improving solution
+	 * @param bound
+	 *            the best bound of the objective value or {@code null}
+	 * @return {@code true} if the solve continues
+	 */
+	protected boolean improved(Result result, Number bound) {
+		SolveListener listener = getListener();
+		if (listener != null && !listener.improved(result, bound, System.currentTimeMillis() - startTime)) {
+			abort();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the result for the values of the variables (see
+	 * {@link ResultArray}). The values of integer variables are rounded in
+	 * the given array.
+	 * 
+	 * @param values
+	 *            the values indexed by the variable indices of the problem
+	 * @return the result
+	 */
+	protected ResultArray getResult(double[] values) {
+		for (int i = 0; i < problem.getVariablesCount(); i++) {
+			if (problem.getVarTypeAt(i).isInt()) {
+				values[i] = Math.round(values[i]);
+			}
+		}
+		return new ResultArray(problem, values);
+	}
+
+	/**
+	 * Returns the watchdog that aborts the solves at their deadline.
+	 * 
+	 * @return the watchdog
+	 */
+	protected static synchronized ScheduledExecutorService getWatchdog() {
+		if (watchdog == null) {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+					AbstractSolver.getThreadFactory("javailp-watchdog"));
+			executor.setRemoveOnCancelPolicy(true);
+			watchdog = executor;
+		}
+		return watchdog;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#close()
+	 */
+	public void close() {
+		try {
+			release();
+		} finally {
+			if (open) {
+				open = false;
+				problem.closeSession();
+			}
+		}
+	}
+
+	/**
+	 * Registers the session at the problem such that its changes are
+	 * recorded (see {@link Problem#openSession()}).
+	 */
+	protected void open() {
+		if (!open) {
+			open = true;
+			problem.openSession();
+		}
+	}
+
+	/**
+	 * Releases the model and its native objects (see {@link #dispose()}).
+	 */
+	protected void release() {
+		if (built) {
+			built = false;
+			try {
+				dispose();
+			} finally {
+				synchronized (resources) {
+					for (NativeResource resource : resources) {
+						resource.release();
+					}
+					resources.clear();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Registers a native object of the model. The object is released when
+	 * the session is closed (after {@link #dispose()}) or, at the latest,
+	 * after the session became unreachable.
+	 * 
+	 * @param resource
+	 *            the native object
+	 * @return the native object
+	 */
+	protected <R extends NativeResource> R register(R resource) {
+		synchronized (resources) {
+			resources.add(resource);
+		}
+		return resource;
+	}
+
+	/**
+	 * Returns {@code true} if all changes can be applied to the model. New
+	 * variables may change their type before they are added to the model.
+	 * <p>
+	 * The changes are applied with the current values of the problem. A
+	 * removed constraint shifts the indices of the following constraints such
+	 * that added constraints or right-hand-side changes at or behind it are no
+	 * longer found at their recorded index. In this case the model is rebuilt.
+	 * 
+	 * @param changes
+	 *            the changes
+	 * @return {@code true} if the model can be updated
+	 */
+	protected boolean isIncremental(List<Change> changes) {
+		int added = problem.getVariablesCount();
+		// the end of the constraints that are read by the previous changes
+		int read = 0;
+		for (Change change : changes) {
+			ChangeType type = change.getType();
+			if (type == ChangeType.VARIABLE_ADDED) {
+				added = Math.min(added, change.getIndex());
+			} else if (type == ChangeType.CONSTRAINT_ADDED || type == ChangeType.CONSTRAINT_RHS) {
+				read = Math.max(read, change.getIndex() + change.getCount());
+			} else if (type == ChangeType.CONSTRAINT_REMOVED && change.getIndex() < read) {
+				return false;
+			}
+			if (!isIncremental(type) && !(type == ChangeType.VARIABLE_TYPE && change.getIndex() >= added)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} if changes of the given type can be applied to the
+	 * model.
+	 * 
+	 * @param type
+	 *            the type of the change
+	 * @return {@code true} if the model can be updated
+	 */
+	protected abstract boolean isIncremental(ChangeType type);
+
+	/**
+	 * Builds the model from the complete problem.
+	 * 
+	 * @throws Exception
+	 *             if the solver fails
+	 */
+	protected abstract void build() throws Exception;
+
+	/**
+	 * Applies a change to the model. The values of the change are read from
+	 * the current state of the problem. The changes are applied in the order
+	 * of the journal except the last {@link ChangeType#OBJECTIVE} and
+	 * {@link ChangeType#OPTIMIZATION_TYPE} changes, which are applied after
+	 * all other changes such that all variables of the objective are known.
+	 * 
+	 * @param change
+	 *            the change
+	 * @throws Exception
+	 *             if the solver fails
+	 */
+	protected abstract void update(Change change) throws Exception;
+
+	/**
+	 * Optimizes the model and returns the result or {@code null} if the problem
+	 * is not solvable. The call of the solver is enclosed by the optimization
+	 * and extraction phase of the metrics.
+	 * 
+	 * @param start
+	 *            the starting values ({@code NaN} for open variables) or
+	 *            {@code null}
+	 * @return the result
+	 * @throws Exception
+	 *             if the solver fails
+	 */
+	protected abstract Result optimize(double[] start) throws Exception;
+
+	/**
+	 * Releases the model. This method is also called for partially built
+	 * models. The native objects of the model (see
+	 * {@link #register(NativeResource)}) are released afterwards.
+	 */
+	protected abstract void dispose();
+
+	/**
+	 * Interrupts the running optimization of the model. This method is called
+	 * from the thread that aborts the session, also if no model is built or
+	 * no optimization is running. Does nothing by default.
+	 */
+	protected void interrupt() {
+		// not supported
+	}
+
+}
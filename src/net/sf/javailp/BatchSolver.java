@@ -0,0 +1,269 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The {@code BatchSolver} solves many independent problems with a fixed
+ * number of worker threads. Each worker gets its own {@code Solver} from the
+ * {@code SolverFactory} and reuses it for all problems it takes from the
+ * batch. The solvers are closed when the batch is finished.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class BatchSolver {
+
+	/**
+	 * The {@code Handler} receives the results of a batch as they are
+	 * completed. The calls are serialized, i.e., the handler does not need to
+	 * be thread-safe.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	public interface Handler {
+
+		/**
+		 * This method is called once for each solved problem.
+		 * 
+		 * @param index
+		 *            the index of the problem in the batch
+		 * @param problem
+		 *            the problem
+		 * @param result
+		 *            the result or {@code null} if the problem is not
+		 *            solvable
+		 */
+		public void handle(int index, Problem problem, Result result);
+	}
+
+	protected final SolverFactory factory;
+	protected final int threads;
+
+	/**
+	 * Constructs a {@code BatchSolver} with one worker for each available
+	 * processor.
+	 * 
+	 * @param factory
+	 *            the factory of the solvers
+	 */
+	public BatchSolver(SolverFactory factory) {
+		this(factory, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a {@code BatchSolver}.
+	 * 
+	 * @param factory
+	 *            the factory of the solvers
+	 * @param threads
+	 *            the number of worker threads
+	 */
+	public BatchSolver(SolverFactory factory, int threads) {
+		super();
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of threads has to be positive, found: " + threads);
+		}
+		this.factory = factory;
+		this.threads = threads;
+	}
+
+	/**
+	 * Solves the problems and returns the results in the order of the
+	 * problems ({@code null} for problems that are not solvable).
+	 * 
+	 * @param problems
+	 *            the problems
+	 * @return the results
+	 */
+	public List<Result> solve(Collection<? extends Problem> problems) {
+		return solve(problems.iterator());
+	}
+
+	/**
+	 * Solves the problems of a stream and returns the results in the order of
+	 * the problems ({@code null} for problems that are not solvable). The
+	 * stream is consumed by the workers as they become idle.
+	 * 
+	 * @param problems
+	 *            the problems
+	 * @return the results
+	 */
+	public List<Result> solve(Stream<? extends Problem> problems) {
+		return solve(problems.iterator());
+	}
+
+	/**
+	 * Solves the problems and passes the results to the handler as they are
+	 * completed.
+	 * 
+	 * @param problems
+	 *            the problems
+	 * @param handler
+	 *            the handler
+	 */
+	public void solve(Collection<? extends Problem> problems, Handler handler) {
+		solve(problems.iterator(), handler);
+	}
+
+	/**
+	 * Solves the problems of a stream and passes the results to the handler
+	 * as they are completed.
+	 * 
+	 * @param problems
+	 *            the problems
+	 * @param handler
+	 *            the handler
+	 */
+	public void solve(Stream<? extends Problem> problems, Handler handler) {
+		solve(problems.iterator(), handler);
+	}
+
+	/**
+	 * Solves the problems and returns the results in the order of the
+	 * problems.
+	 * 
+	 * @param problems
+	 *            the problems
+	 * @return the results
+	 */
+	protected List<Result> solve(Iterator<? extends Problem> problems) {
+		final List<Result> results = new ArrayList<Result>();
+		solve(problems, new Handler() {
+			public void handle(int index, Problem problem, Result result) {
+				while (results.size() <= index) {
+					results.add(null);
+				}
+				results.set(index, result);
+			}
+		});
+		return results;
+	}
+
+	/**
+	 * Solves the problems and passes the results to the handler. A
+	 * {@code RuntimeException} of a solver stops the batch and is thrown
+	 * after the running solves are finished. If the calling thread is
+	 * interrupted, the running solves are aborted. In any case, this method
+	 * returns after all workers are finished and their solvers are closed.
+	 * 
+	 * @param problems
+	 *            the problems
+	 * @param handler
+	 *            the handler
+	 */
+	protected void solve(final Iterator<? extends Problem> problems, final Handler handler) {
+		ExecutorService executor = Executors.newFixedThreadPool(threads, AbstractSolver.getThreadFactory("javailp-batch"));
+		final List<Solver> solvers = new ArrayList<Solver>();
+		final int[] count = new int[1];
+		final boolean[] stop = new boolean[1];
+
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int t = 0; t < threads; t++) {
+				final Solver solver = factory.get();
+				solvers.add(solver);
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						try {
+							while (true) {
+								final int index;
+								final Problem problem;
+								synchronized (problems) {
+									if (stop[0] || !problems.hasNext()) {
+										return;
+									}
+									index = count[0]++;
+									problem = problems.next();
+								}
+
+								try {
+									Result result = solver.solve(problem);
+									synchronized (handler) {
+										handler.handle(index, problem, result);
+									}
+								} catch (RuntimeException e) {
+									synchronized (problems) {
+										stop[0] = true;
+									}
+									throw e;
+								}
+							}
+						} finally {
+							// returns the native objects to the factory
+							solver.close();
+						}
+					}
+				}));
+			}
+
+			RuntimeException exception = null;
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					} else if (exception == null) {
+						exception = (RuntimeException) cause;
+					}
+				}
+			}
+			if (exception != null) {
+				throw exception;
+			}
+		} catch (InterruptedException e) {
+			synchronized (problems) {
+				stop[0] = true;
+			}
+			for (Solver solver : solvers) {
+				if (solver instanceof AbstractSolver) {
+					((AbstractSolver) solver).abort();
+				}
+			}
+			Thread.currentThread().interrupt();
+		} finally {
+			synchronized (problems) {
+				stop[0] = true;
+			}
+			executor.shutdown();
+			// the handler must not be called after this method returned
+			boolean interrupted = false;
+			while (!executor.isTerminated()) {
+				try {
+					executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
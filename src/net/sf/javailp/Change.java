@@ -0,0 +1,100 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The class {@code Change} is an entry of the change journal of a
+ * {@link Problem}. A change affects the variables or constraints with the
+ * indices from {@code index} (inclusive) to {@code index+count} (exclusive).
+ * Changes that do not refer to a variable or constraint have the index
+ * {@code -1} and the count {@code 0}. A {@code Change} is immutable.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class Change {
+
+	protected final ChangeType type;
+	protected final long version;
+	protected final int index;
+	protected final int count;
+
+	/**
+	 * Constructs a {@code Change}.
+	 * 
+	 * @param type
+	 *            the type
+	 * @param version
+	 *            the version of the problem after the change
+	 * @param index
+	 *            the first affected index
+	 * @param count
+	 *            the number of affected indices
+	 */
+	public Change(ChangeType type, long version, int index, int count) {
+		super();
+		this.type = type;
+		this.version = version;
+		this.index = index;
+		this.count = count;
+	}
+
+	/**
+	 * Returns the type.
+	 * 
+	 * @return the type
+	 */
+	public ChangeType getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the version of the problem after the change.
+	 * 
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the first affected index.
+	 * 
+	 * @return the index
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the number of affected indices.
+	 * 
+	 * @return the count
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return type + "[" + index + "," + count + "]@" + version;
+	}
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The type of a {@link Change} of a {@link Problem}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public enum ChangeType {
+
+	/**
+	 * Variables were added (registered).
+	 */
+	VARIABLE_ADDED,
+	/**
+	 * The type of a variable was changed.
+	 */
+	VARIABLE_TYPE,
+	/**
+	 * The bounds of a variable were changed.
+	 */
+	VARIABLE_BOUNDS,
+	/**
+	 * Constraints were added.
+	 */
+	CONSTRAINT_ADDED,
+	/**
+	 * A constraint was removed. The indices of all following constraints are
+	 * decreased by one.
+	 */
+	CONSTRAINT_REMOVED,
+	/**
+	 * The right-hand-side of a constraint was changed.
+	 */
+	CONSTRAINT_RHS,
+	/**
+	 * The objective function was replaced.
+	 */
+	OBJECTIVE,
+	/**
+	 * The optimization type was changed.
+	 */
+	OPTIMIZATION_TYPE;
+
+}
@@ -0,0 +1,431 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The class {@code CompiledProblem} is an immutable snapshot of a
+ * {@link Problem} in compressed sparse row (CSR) and compressed sparse column
+ * (CSC) format. Rows and columns are addressed by the indices of the
+ * constraints and variables in the {@code Problem}. A column occurs at most
+ * once in each row, the coefficients of a variable that occurs several times
+ * in a constraint are summed up. All arrays are shared and must not be
+ * modified.
+ * <p>
+ * A {@code CompiledProblem} is obtained by {@link Problem#compile()}, which
+ * caches the instance until the {@code Problem} is changed.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class CompiledProblem {
+
+	/**
+	 * The minimal number of non-zero elements for filling the rows in
+	 * parallel.
+	 */
+	protected static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	protected final long version;
+
+	protected final int nrows;
+	protected final int ncols;
+
+	protected final int[] rowStarts;
+	protected final int[] rowIndices;
+	protected final double[] rowValues;
+
+	protected final int[] colStarts;
+	protected final int[] colIndices;
+	protected final double[] colValues;
+
+	protected final double[] rhs;
+	protected final Operator[] operators;
+
+	protected final VarType[] varTypes;
+	protected final double[] lowerBounds;
+	protected final double[] upperBounds;
+
+	protected final double[] objective;
+	protected final OptType optType;
+
+	/**
+	 * Constructs a {@code CompiledProblem}.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	protected CompiledProblem(final Problem problem) {
+		this.version = problem.version;
+
+		final List<Constraint> constraints = problem.getConstraints();
+		nrows = constraints.size();
+		ncols = problem.getVariablesCount();
+
+		rowStarts = new int[nrows + 1];
+		rhs = new double[nrows];
+		operators = new Operator[nrows];
+		for (int k = 0; k < nrows; k++) {
+			Constraint constraint = constraints.get(k);
+			rowStarts[k + 1] = rowStarts[k] + constraint.size();
+			rhs[k] = constraint.getRhs().doubleValue();
+			operators[k] = constraint.getOperator();
+		}
+
+		int nnz = rowStarts[nrows];
+		int[] indices = new int[nnz];
+		double[] values = new double[nnz];
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (nnz < PARALLEL_THRESHOLD || threads < 2) {
+			fillRows(problem, constraints, indices, values, 0, nrows);
+		} else {
+			fillRowsParallel(problem, constraints, indices, values, threads);
+		}
+
+		int merged = merge(indices, values);
+		if (merged < nnz) {
+			nnz = merged;
+			indices = Arrays.copyOf(indices, nnz);
+			values = Arrays.copyOf(values, nnz);
+		}
+		rowIndices = indices;
+		rowValues = values;
+
+		colStarts = new int[ncols + 1];
+		colIndices = new int[nnz];
+		colValues = new double[nnz];
+		transpose();
+
+		varTypes = new VarType[ncols];
+		lowerBounds = new double[ncols];
+		upperBounds = new double[ncols];
+		for (int i = 0; i < ncols; i++) {
+			varTypes[i] = problem.getVarTypeAt(i);
+			lowerBounds[i] = problem.getVarLowerBoundAt(i);
+			upperBounds[i] = problem.getVarUpperBoundAt(i);
+		}
+
+		objective = new double[ncols];
+		if (problem.getObjective() != null) {
+			Linear linear = problem.getObjective();
+			for (int j = 0; j < linear.size(); j++) {
+				int i = problem.getVariableIndex(linear.getVariable(j));
+				objective[i] += linear.getCoefficient(j);
+			}
+		}
+		optType = problem.getOptType();
+	}
+
+	/**
+	 * Fills the column indices and values of the rows {@code from} (inclusive)
+	 * to {@code to} (exclusive).
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param constraints
+	 *            the constraints
+	 * @param indices
+	 *            the column indices
+	 * @param values
+	 *            the values
+	 * @param from
+	 *            the first row
+	 * @param to
+	 *            the last row (exclusive)
+	 */
+	protected void fillRows(Problem problem, List<Constraint> constraints, int[] indices, double[] values,
+			int from, int to) {
+		for (int k = from; k < to; k++) {
+			int start = rowStarts[k];
+			Linear linear = constraints.get(k).getLhs();
+			for (int j = 0; j < linear.size(); j++) {
+				indices[start + j] = problem.getVariableIndex(linear.getVariable(j));
+				values[start + j] = linear.getCoefficient(j);
+			}
+		}
+	}
+
+	/**
+	 * Fills the rows in parallel. The rows are split into blocks of roughly
+	 * equal numbers of non-zero elements.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param constraints
+	 *            the constraints
+	 * @param indices
+	 *            the column indices
+	 * @param values
+	 *            the values
+	 * @param threads
+	 *            the number of threads
+	 */
+	protected void fillRowsParallel(final Problem problem, final List<Constraint> constraints,
+			final int[] indices, final double[] values, int threads) {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			int nnz = rowStarts[nrows];
+			int from = 0;
+			for (int t = 1; t <= threads && from < nrows; t++) {
+				long limit = (long) nnz * t / threads;
+				int to = from;
+				while (to < nrows && (rowStarts[to] < limit || to == from)) {
+					to++;
+				}
+				if (t == threads) {
+					to = nrows;
+				}
+				final int blockFrom = from;
+				final int blockTo = to;
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						fillRows(problem, constraints, indices, values, blockFrom, blockTo);
+					}
+				}));
+				from = to;
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Compilation of the problem was interrupted.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Compilation of the problem failed.", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Merges the columns that occur several times in a row by summing up
+	 * their values. The rows are compacted in place and the row starts are
+	 * updated.
+	 * 
+	 * @param indices
+	 *            the column indices
+	 * @param values
+	 *            the values
+	 * @return the number of non-zero elements after merging
+	 */
+	protected int merge(int[] indices, double[] values) {
+		// the position of each column in the current row
+		int[] positions = new int[ncols];
+		Arrays.fill(positions, -1);
+		int n = 0;
+		for (int k = 0; k < nrows; k++) {
+			int start = n;
+			for (int j = rowStarts[k]; j < rowStarts[k + 1]; j++) {
+				int column = indices[j];
+				int p = positions[column];
+				if (p >= start) {
+					values[p] += values[j];
+				} else {
+					positions[column] = n;
+					indices[n] = column;
+					values[n] = values[j];
+					n++;
+				}
+			}
+			rowStarts[k] = start;
+		}
+		rowStarts[nrows] = n;
+		return n;
+	}
+
+	/**
+	 * Builds the CSC arrays from the CSR arrays (counting sort by column, the
+	 * row indices of each column are in ascending order).
+	 */
+	protected void transpose() {
+		int nnz = rowStarts[nrows];
+		for (int j = 0; j < nnz; j++) {
+			colStarts[rowIndices[j] + 1]++;
+		}
+		for (int i = 0; i < ncols; i++) {
+			colStarts[i + 1] += colStarts[i];
+		}
+		int[] next = new int[ncols];
+		System.arraycopy(colStarts, 0, next, 0, ncols);
+		for (int k = 0; k < nrows; k++) {
+			for (int j = rowStarts[k]; j < rowStarts[k + 1]; j++) {
+				int p = next[rowIndices[j]]++;
+				colIndices[p] = k;
+				colValues[p] = rowValues[j];
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of rows (constraints).
+	 * 
+	 * @return the number of rows
+	 */
+	public int getRowsCount() {
+		return nrows;
+	}
+
+	/**
+	 * Returns the number of columns (variables).
+	 * 
+	 * @return the number of columns
+	 */
+	public int getColumnsCount() {
+		return ncols;
+	}
+
+	/**
+	 * Returns the number of non-zero elements.
+	 * 
+	 * @return the number of non-zero elements
+	 */
+	public int getNonZerosCount() {
+		return rowStarts[nrows];
+	}
+
+	/**
+	 * Returns the row starts (CSR). The elements of row {@code k} are stored
+	 * from {@code rowStarts[k]} (inclusive) to {@code rowStarts[k+1]}
+	 * (exclusive).
+	 * 
+	 * @return the row starts of length {@code rows+1}
+	 */
+	public int[] getRowStarts() {
+		return rowStarts;
+	}
+
+	/**
+	 * Returns the column indices of the elements (CSR).
+	 * 
+	 * @return the column indices
+	 */
+	public int[] getRowIndices() {
+		return rowIndices;
+	}
+
+	/**
+	 * Returns the values of the elements (CSR).
+	 * 
+	 * @return the values
+	 */
+	public double[] getRowValues() {
+		return rowValues;
+	}
+
+	/**
+	 * Returns the column starts (CSC). The elements of column {@code i} are
+	 * stored from {@code colStarts[i]} (inclusive) to {@code colStarts[i+1]}
+	 * (exclusive).
+	 * 
+	 * @return the column starts of length {@code columns+1}
+	 */
+	public int[] getColStarts() {
+		return colStarts;
+	}
+
+	/**
+	 * Returns the row indices of the elements (CSC).
+	 * 
+	 * @return the row indices
+	 */
+	public int[] getColIndices() {
+		return colIndices;
+	}
+
+	/**
+	 * Returns the values of the elements (CSC).
+	 * 
+	 * @return the values
+	 */
+	public double[] getColValues() {
+		return colValues;
+	}
+
+	/**
+	 * Returns the right-hand-side values of the rows.
+	 * 
+	 * @return the right-hand-side values
+	 */
+	public double[] getRhs() {
+		return rhs;
+	}
+
+	/**
+	 * Returns the operators of the rows.
+	 * 
+	 * @return the operators
+	 */
+	public Operator[] getOperators() {
+		return operators;
+	}
+
+	/**
+	 * Returns the types of the columns.
+	 * 
+	 * @return the variable types
+	 */
+	public VarType[] getVarTypes() {
+		return varTypes;
+	}
+
+	/**
+	 * Returns the lower bounds of the columns ({@link Double#NEGATIVE_INFINITY}
+	 * if no lower bound exists).
+	 * 
+	 * @return the lower bounds
+	 */
+	public double[] getLowerBounds() {
+		return lowerBounds;
+	}
+
+	/**
+	 * Returns the upper bounds of the columns ({@link Double#POSITIVE_INFINITY}
+	 * if no upper bound exists).
+	 * 
+	 * @return the upper bounds
+	 */
+	public double[] getUpperBounds() {
+		return upperBounds;
+	}
+
+	/**
+	 * Returns the dense objective coefficients of the columns (all {@code 0}
+	 * if the problem has no objective).
+	 * 
+	 * @return the objective coefficients
+	 */
+	public double[] getObjective() {
+		return objective;
+	}
+
+	/**
+	 * Returns the optimization type.
+	 * 
+	 * @return the optimization type
+	 */
+	public OptType getOptType() {
+		return optType;
+	}
+
+}
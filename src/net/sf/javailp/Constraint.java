@@ -15,7 +15,8 @@
 package net.sf.javailp;
 
 /**
- * The class {@code Constraint} represent a linear constraint.
+ * The class {@code Constraint} represent a linear constraint. If no name is
+ * given, the name is generated on demand from the string representation.
  * 
  * @author lukasiewycz
  * 
@@ -41,7 +42,7 @@ public class Constraint {
 		this.lhs = lhs;
 		this.operator = operator;
 		this.rhs = rhs;
-		this.name = this.toString();
+		this.name = null;
 	}
 
 	/**
@@ -67,7 +68,7 @@ public class Constraint {
 		}
 		this.lhs = lhs;
 		this.rhs = rhs;
-		this.name = this.toString();
+		this.name = null;
 	}
 	
 	/**
@@ -165,12 +166,27 @@ public class Constraint {
 	}
 	
 	/**
-	 * Returns the name of the constraint.
+	 * Returns the name of the constraint. If no name was given, the string
+	 * representation of the constraint is returned, which is created on each
+	 * call.
 	 * 
 	 * @return the name
 	 */
 	public String getName() {
-		return this.name;
+		if (name != null) {
+			return name;
+		} else {
+			return toString();
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the constraint was constructed with a name.
+	 * 
+	 * @return {@code true} if the constraint has an explicit name
+	 */
+	public boolean hasName() {
+		return name != null;
 	}
 
 }
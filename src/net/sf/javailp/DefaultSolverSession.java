@@ -0,0 +1,91 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code DefaultSolverSession} is the {@code SolverSession} for solvers
+ * without incremental support. Each call of {@link #solve()} solves the
+ * complete problem.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class DefaultSolverSession implements SolverSession {
+
+	protected final Solver solver;
+	protected final Problem problem;
+
+	/**
+	 * Constructs a {@code DefaultSolverSession}.
+	 * 
+	 * @param solver
+	 *            the solver
+	 * @param problem
+	 *            the problem
+	 */
+	public DefaultSolverSession(Solver solver, Problem problem) {
+		super();
+		this.solver = solver;
+		this.problem = problem;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#solve()
+	 */
+	public Result solve() {
+		return solver.solve(problem);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#solve(net.sf.javailp.Result)
+	 */
+	public Result solve(Result start) {
+		return solver.solve(problem, start);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#getProblem()
+	 */
+	public Problem getProblem() {
+		return problem;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#abort()
+	 */
+	public void abort() {
+		if (solver instanceof AbstractSolver) {
+			((AbstractSolver) solver).abort();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.SolverSession#close()
+	 */
+	public void close() {
+		// nothing to release
+	}
+
+}
@@ -14,27 +14,72 @@
  */
 package net.sf.javailp;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * The class {@code Linear} is a linear expression consisting of variables and
  * their coefficients.
+ * <p>
+ * The variables and coefficients are stored in growable arrays, adding an
+ * element with {@link #addTerm(double, Object)} does not allocate any
+ * objects.
+ * The {@link Term}s are only created on demand when iterating over the
+ * expression. Coefficients with integral values are treated as integers
+ * unless a floating point {@code Number} was added or a coefficient has a
+ * fractional part.
  * 
  * @author lukasiewycz
  * 
  */
 public class Linear implements Iterable<Term> {
 
-	protected final List<Term> terms = new ArrayList<Term>();
+	protected Object[] variables;
+	protected double[] coefficients;
+	protected int size = 0;
+	protected boolean asDouble = false;
 
 	/**
 	 * Constructs an empty linear expression.
 	 */
 	public Linear() {
+		this(4);
+	}
+
+	/**
+	 * Constructs an empty linear expression with the given initial capacity.
+	 * 
+	 * @param capacity
+	 *            the initial capacity
+	 */
+	public Linear(int capacity) {
 		super();
+		variables = new Object[Math.max(capacity, 1)];
+		coefficients = new double[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Constructs a linear expression that takes ownership of the given arrays.
+	 * 
+	 * @param variables
+	 *            the variables
+	 * @param coefficients
+	 *            the coefficients
+	 * @param size
+	 *            the number of elements
+	 */
+	protected Linear(Object[] variables, double[] coefficients, int size) {
+		super();
+		this.variables = variables;
+		this.coefficients = coefficients;
+		this.size = size;
+		for (int i = 0; i < size && !asDouble; i++) {
+			asDouble = coefficients[i] != Math.rint(coefficients[i]);
+		}
 	}
 
 	/**
@@ -47,7 +92,7 @@ public class Linear implements Iterable<Term> {
 	 *            the variables
 	 */
 	public Linear(List<Number> coefficients, List<Object> variables) {
-		this();
+		this(variables.size());
 		if (coefficients.size() != variables.size()) {
 			throw new IllegalArgumentException(
 					"The size of the varibales and coefficients must be equal.");
@@ -55,8 +100,7 @@ public class Linear implements Iterable<Term> {
 			for (int i = 0; i < variables.size(); i++) {
 				Object variable = variables.get(i);
 				Number coefficient = coefficients.get(i);
-				Term term = new Term(variable, coefficient);
-				add(term);
+				add(coefficient, variable);
 			}
 		}
 	}
@@ -68,35 +112,81 @@ public class Linear implements Iterable<Term> {
 	 *            the terms to be added
 	 */
 	public Linear(Iterable<Term> terms) {
-		for (Term term : terms) {
-			add(term);
+		this();
+		if (terms instanceof Linear) {
+			Linear linear = (Linear) terms;
+			ensureCapacity(linear.size);
+			System.arraycopy(linear.variables, 0, variables, 0, linear.size);
+			System.arraycopy(linear.coefficients, 0, coefficients, 0, linear.size);
+			size = linear.size;
+			asDouble = linear.asDouble;
+		} else {
+			for (Term term : terms) {
+				add(term);
+			}
 		}
 	}
 
 	/**
-	 * Returns the coefficients.
+	 * Returns the coefficients. The returned list is an unmodifiable view.
 	 * 
 	 * @return the coefficients
 	 */
 	public List<Number> getCoefficients() {
-		List<Number> coefficients = new ArrayList<Number>();
-		for (Term term : terms) {
-			coefficients.add(term.getCoefficient());
-		}
-		return coefficients;
+		return new AbstractList<Number>() {
+			@Override
+			public Number get(int index) {
+				return toNumber(getCoefficient(index));
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
 	}
 
 	/**
-	 * Returns the variables.
+	 * Returns the variables. The returned list is an unmodifiable view.
 	 * 
 	 * @return the variables
 	 */
 	public List<Object> getVariables() {
-		List<Object> variables = new ArrayList<Object>();
-		for (Term term : terms) {
-			variables.add(term.getVariable());
-		}
-		return variables;
+		return new AbstractList<Object>() {
+			@Override
+			public Object get(int index) {
+				return getVariable(index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Returns the {@code i}-th coefficient.
+	 * 
+	 * @param i
+	 *            the index
+	 * @return the coefficient
+	 */
+	public double getCoefficient(int i) {
+		checkIndex(i);
+		return coefficients[i];
+	}
+
+	/**
+	 * Returns the {@code i}-th variable.
+	 * 
+	 * @param i
+	 *            the index
+	 * @return the variable
+	 */
+	public Object getVariable(int i) {
+		checkIndex(i);
+		return variables[i];
 	}
 
 	/**
@@ -108,8 +198,31 @@ public class Linear implements Iterable<Term> {
 	 *            the variable
 	 */
 	public void add(Number coefficient, Object variable) {
-		Term term = new Term(variable, coefficient);
-		add(term);
+		if (coefficient instanceof Double || coefficient instanceof Float) {
+			asDouble = true;
+		}
+		addTerm(coefficient.doubleValue(), variable);
+	}
+
+	/**
+	 * Adds an element to the linear expression without boxing the
+	 * coefficient.
+	 * 
+	 * @param coefficient
+	 *            the coefficient
+	 * @param variable
+	 *            the variable
+	 */
+	public void addTerm(double coefficient, Object variable) {
+		if (size == variables.length) {
+			ensureCapacity(size + 1);
+		}
+		if (!asDouble && coefficient != Math.rint(coefficient)) {
+			asDouble = true;
+		}
+		variables[size] = variable;
+		coefficients[size] = coefficient;
+		size++;
 	}
 
 	/**
@@ -119,8 +232,28 @@ public class Linear implements Iterable<Term> {
 	 *            the terms to be added
 	 */
 	public void add(Term... terms) {
+		ensureCapacity(size + terms.length);
 		for (Term term : terms) {
-			this.terms.add(term);
+			add(term.getCoefficient(), term.getVariable());
+		}
+	}
+
+	/**
+	 * Ensures that the given number of elements can be stored without growing
+	 * the internal arrays.
+	 * 
+	 * @param capacity
+	 *            the number of elements
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > variables.length) {
+			int length = Math.max(capacity, variables.length + (variables.length >> 1) + 1);
+			Object[] vars = new Object[length];
+			double[] coeffs = new double[length];
+			System.arraycopy(variables, 0, vars, 0, size);
+			System.arraycopy(coefficients, 0, coeffs, 0, size);
+			variables = vars;
+			coefficients = coeffs;
 		}
 	}
 
@@ -130,14 +263,130 @@ public class Linear implements Iterable<Term> {
 	 * @return the size
 	 */
 	public int size() {
-		return terms.size();
+		return size;
 	}
 
 	/**
 	 * Removes all elements.
 	 */
 	public void clear() {
-		terms.clear();
+		for (int i = 0; i < size; i++) {
+			variables[i] = null;
+		}
+		size = 0;
+		asDouble = false;
+	}
+
+	/**
+	 * Canonicalizes the linear expression in place: the coefficients of
+	 * repeated variables are summed up and elements with a zero coefficient
+	 * are removed. The order of the first occurrences of the variables is
+	 * preserved.
+	 */
+	public void canonicalize() {
+		int[] keys = new int[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = variables[i].hashCode();
+		}
+		canonicalize(keys, false, false);
+	}
+
+	/**
+	 * Canonicalizes the linear expression in place based on the variable
+	 * indices of a problem: the coefficients of repeated variables are summed
+	 * up and elements with a zero coefficient are removed.
+	 * 
+	 * @param problem
+	 *            the problem that contains all variables of this expression
+	 * @param sort
+	 *            if {@code true}, the elements are sorted by the variable
+	 *            indices, otherwise the order of the first occurrences is
+	 *            preserved
+	 */
+	public void canonicalize(Problem problem, boolean sort) {
+		int[] keys = new int[size];
+		for (int i = 0; i < size; i++) {
+			int index = problem.getVariableIndex(variables[i]);
+			if (index < 0) {
+				throw new IllegalArgumentException("The variable " + variables[i]
+						+ " is unknown to the given problem.");
+			}
+			keys[i] = index;
+		}
+		canonicalize(keys, true, sort);
+	}
+
+	/**
+	 * Canonicalizes the linear expression in place. The elements are sorted by
+	 * their keys (and positions) such that repeated variables are adjacent,
+	 * which takes {@code O(n log n)} without hashing.
+	 * 
+	 * @param keys
+	 *            the keys of the elements
+	 * @param unique
+	 *            {@code true} if equal keys imply equal variables (indices),
+	 *            {@code false} if equal keys have to be checked with
+	 *            {@code equals} (hash codes)
+	 * @param sort
+	 *            if {@code true}, the elements are ordered by their keys
+	 */
+	protected void canonicalize(int[] keys, boolean unique, boolean sort) {
+		final int n = size;
+		long[] order = new long[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = ((long) keys[i] << 32) | i;
+		}
+		Arrays.sort(order);
+
+		boolean[] removed = new boolean[n];
+		int from = 0;
+		while (from < n) {
+			int to = from + 1;
+			while (to < n && (order[to] >> 32) == (order[from] >> 32)) {
+				to++;
+			}
+			for (int a = from; a < to; a++) {
+				int i = (int) order[a];
+				if (!removed[i]) {
+					for (int b = a + 1; b < to; b++) {
+						int j = (int) order[b];
+						if (!removed[j] && (unique || variables[i].equals(variables[j]))) {
+							coefficients[i] += coefficients[j];
+							removed[j] = true;
+						}
+					}
+				}
+			}
+			from = to;
+		}
+
+		int k = 0;
+		if (sort) {
+			Object[] vars = new Object[variables.length];
+			double[] coeffs = new double[coefficients.length];
+			for (int a = 0; a < n; a++) {
+				int i = (int) order[a];
+				if (!removed[i] && coefficients[i] != 0) {
+					vars[k] = variables[i];
+					coeffs[k] = coefficients[i];
+					k++;
+				}
+			}
+			variables = vars;
+			coefficients = coeffs;
+		} else {
+			for (int i = 0; i < n; i++) {
+				if (!removed[i] && coefficients[i] != 0) {
+					variables[k] = variables[i];
+					coefficients[k] = coefficients[i];
+					k++;
+				}
+			}
+			for (int i = k; i < n; i++) {
+				variables[i] = null;
+			}
+		}
+		size = k;
 	}
 
 	/*
@@ -148,10 +397,9 @@ public class Linear implements Iterable<Term> {
 	@Override
 	public String toString() {
 		StringBuffer s = new StringBuffer();
-		for (int i = 0; i < terms.size(); i++) {
-			Term term = terms.get(i);
-			Number coeff = term.getCoefficient();
-			Object variable = term.getVariable();
+		for (int i = 0; i < size; i++) {
+			Number coeff = toNumber(coefficients[i]);
+			Object variable = variables[i];
 
 			s.append(coeff).append("*").append(variable);
 			if (i < size() - 1) {
@@ -186,19 +434,18 @@ public class Linear implements Iterable<Term> {
 	 */
 	public Number evaluate(Map<Object, Number> result, boolean ignoreMissingValues) {
 		double d = 0.0;
-		boolean asDouble = false;
+		boolean asDouble = this.asDouble;
 
-		for (Term term : terms) {
-			Object variable = term.getVariable();
+		for (int i = 0; i < size; i++) {
+			Object variable = variables[i];
 
-			Number coeff = term.getCoefficient();
 			Number value = result.get(variable);
-			if (coeff instanceof Double || value instanceof Double) {
+			if (value instanceof Double) {
 				asDouble = true;
 			}
 
 			if (value != null) {
-				d += coeff.doubleValue() * value.doubleValue();
+				d += coefficients[i] * value.doubleValue();
 			} else {
 				if (!ignoreMissingValues) {
 					throw new IllegalArgumentException("The variable " + variable
@@ -219,18 +466,89 @@ public class Linear implements Iterable<Term> {
 	 * @see java.lang.Iterable#iterator()
 	 */
 	public Iterator<Term> iterator() {
-		return terms.iterator();
+		return new Iterator<Term>() {
+			int i = 0;
+			int last = -1;
+
+			public boolean hasNext() {
+				return i < size;
+			}
+
+			public Term next() {
+				if (i >= size) {
+					throw new NoSuchElementException();
+				}
+				last = i;
+				return get(i++);
+			}
+
+			public void remove() {
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+				Linear.this.remove(last);
+				i = last;
+				last = -1;
+			}
+		};
+	}
+
+	/**
+	 * Removes the {@code i}-th element.
+	 * 
+	 * @param i
+	 *            the index
+	 */
+	protected void remove(int i) {
+		checkIndex(i);
+		int moved = size - i - 1;
+		System.arraycopy(variables, i + 1, variables, i, moved);
+		System.arraycopy(coefficients, i + 1, coefficients, i, moved);
+		size--;
+		variables[size] = null;
 	}
 
 	/**
-	 * Returns the {@code i}-th {@code Term}.
+	 * Returns the {@code i}-th {@code Term}. The term is created on demand.
 	 * 
 	 * @param i
 	 *            the index
 	 * @return the term
 	 */
 	public Term get(int i) {
-		return terms.get(i);
+		checkIndex(i);
+		return new Term(variables[i], toNumber(coefficients[i]));
+	}
+
+	/**
+	 * Returns the coefficient as a {@code Number}. Integral coefficients are
+	 * returned as {@code Integer} or {@code Long} unless the linear expression
+	 * contains floating point coefficients.
+	 * 
+	 * @param coefficient
+	 *            the coefficient
+	 * @return the coefficient as a {@code Number}
+	 */
+	protected Number toNumber(double coefficient) {
+		if (asDouble) {
+			return coefficient;
+		} else if (coefficient >= Integer.MIN_VALUE && coefficient <= Integer.MAX_VALUE) {
+			return (int) coefficient;
+		} else {
+			return (long) coefficient;
+		}
+	}
+
+	/**
+	 * Checks the index.
+	 * 
+	 * @param i
+	 *            the index
+	 */
+	protected void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
 	}
 
 }
@@ -0,0 +1,170 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code NativeResource} releases a native object of a solver. The object
+ * is released by {@link #release()} as soon as it is no longer used. As a
+ * safety net, a daemon thread releases the object after its owner became
+ * unreachable.
+ * <p>
+ * A subclass keeps only the references that are required to free the object.
+ * If it references the owner (directly or by a callback of the native
+ * object), the owner never becomes unreachable.
+ * <p>
+ * The live objects are counted per kind for monitoring (see
+ * {@link #getLiveCounts()}).
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public abstract class NativeResource extends PhantomReference<Object> {
+
+	private static final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+	private static final Set<NativeResource> live = Collections
+			.newSetFromMap(new ConcurrentHashMap<NativeResource, Boolean>());
+	private static final ConcurrentMap<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+	private static Thread cleaner = null;
+
+	protected final String kind;
+	private final AtomicBoolean released = new AtomicBoolean(false);
+
+	/**
+	 * Constructs a {@code NativeResource}.
+	 * 
+	 * @param owner
+	 *            the owner of the native object
+	 * @param kind
+	 *            the kind of the native object
+	 */
+	public NativeResource(Object owner, String kind) {
+		super(owner, queue);
+		this.kind = kind;
+		live.add(this);
+		getCounter(kind).incrementAndGet();
+		startCleaner();
+	}
+
+	/**
+	 * Returns the kind of the native object.
+	 * 
+	 * @return the kind
+	 */
+	public String getKind() {
+		return kind;
+	}
+
+	/**
+	 * Returns {@code true} if the native object is released.
+	 * 
+	 * @return {@code true} if the native object is released
+	 */
+	public boolean isReleased() {
+		return released.get();
+	}
+
+	/**
+	 * Releases the native object. Only the first call has an effect.
+	 */
+	public final void release() {
+		if (released.compareAndSet(false, true)) {
+			clear();
+			live.remove(this);
+			getCounter(kind).decrementAndGet();
+			free();
+		}
+	}
+
+	/**
+	 * Frees the native object. This method is called once.
+	 */
+	protected abstract void free();
+
+	/**
+	 * Returns the number of live native objects of the given kind.
+	 * 
+	 * @param kind
+	 *            the kind
+	 * @return the number of live native objects
+	 */
+	public static int getLiveCount(String kind) {
+		AtomicInteger counter = counts.get(kind);
+		return (counter != null ? counter.get() : 0);
+	}
+
+	/**
+	 * Returns the number of live native objects for all kinds.
+	 * 
+	 * @return the map of the kinds to the numbers of live native objects
+	 */
+	public static Map<String, Integer> getLiveCounts() {
+		Map<String, Integer> map = new TreeMap<String, Integer>();
+		for (Map.Entry<String, AtomicInteger> entry : counts.entrySet()) {
+			map.put(entry.getKey(), entry.getValue().get());
+		}
+		return map;
+	}
+
+	/**
+	 * Returns the counter of the given kind.
+	 * 
+	 * @param kind
+	 *            the kind
+	 * @return the counter
+	 */
+	private static AtomicInteger getCounter(String kind) {
+		AtomicInteger counter = counts.get(kind);
+		if (counter == null) {
+			counts.putIfAbsent(kind, new AtomicInteger());
+			counter = counts.get(kind);
+		}
+		return counter;
+	}
+
+	/**
+	 * Starts the thread that releases the native objects of unreachable
+	 * owners.
+	 */
+	private static synchronized void startCleaner() {
+		if (cleaner == null) {
+			cleaner = AbstractSolver.getThreadFactory("javailp-cleaner").newThread(new Runnable() {
+				public void run() {
+					while (true) {
+						try {
+							((NativeResource) queue.remove()).release();
+						} catch (InterruptedException e) {
+							return;
+						} catch (RuntimeException e) {
+							e.printStackTrace();
+						}
+					}
+				}
+			});
+			cleaner.start();
+		}
+	}
+
+}
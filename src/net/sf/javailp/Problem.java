@@ -14,17 +14,34 @@
  */
 package net.sf.javailp;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * The class {@code Problem} represents a linear problem consisting of multiple
  * constraints and up to one objective function.
+ * <p>
+ * Each variable is assigned a dense index (starting from {@code 0}) when it is
+ * seen for the first time, i.e., when it is used in a constraint, in the
+ * objective, or when its type or bounds are set. The indices are stable and
+ * follow the order of insertion such that solvers can address the variables,
+ * their types, and their bounds directly without hashing.
+ * <p>
+ * Each change of the problem increases its version. If journaling is enabled,
+ * the changes are recorded as {@link Change} entries such that solvers can
+ * apply them incrementally instead of rebuilding the whole model. The
+ * journal is enabled explicitly (see {@link #setJournaling(boolean)}) or
+ * while sessions of the problem are open (see {@link SolverSession}); it is
+ * discarded when the last session is closed.
+ * <p>
+ * A {@code Problem} has a single writer: it must not be changed concurrently
+ * or while it is solved. The methods of the journal are synchronized such
+ * that several solvers may read and discard the changes concurrently.
  * 
  * @author lukasiewycz
  * 
@@ -33,12 +50,27 @@ public class Problem {
 
 	protected Linear objective = null;
 	protected OptType optType = OptType.MIN;
-	protected final List<Constraint> constraints = new ArrayList<Constraint>();
+	protected final ArrayList<Constraint> constraints = new ArrayList<Constraint>();
 
-	protected final Set<Object> variables = new HashSet<Object>();
-	protected final Map<Object, VarType> varType = new HashMap<Object, VarType>();
-	protected final Map<Object, Number> varLowerBound = new HashMap<Object, Number>();
-	protected final Map<Object, Number> varUpperBound = new HashMap<Object, Number>();
+	protected static final VarType[] varTypeValues = VarType.values();
+
+	protected final Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
+	protected Object[] indexToVar = new Object[16];
+	protected byte[] varTypes = new byte[16];
+	protected double[] varLowerBounds = new double[16];
+	protected double[] varUpperBounds = new double[16];
+	protected int variablesCount = 0;
+
+	protected boolean canonicalize = false;
+	protected boolean sortTerms = false;
+
+	protected long version = 0;
+	protected CompiledProblem compiled = null;
+
+	protected List<Change> journal = null;
+	protected long journalStart = 0;
+	protected boolean journaling = false;
+	protected int sessions = 0;
 
 	/**
 	 * Constructs a {@code Problem}.
@@ -63,11 +95,20 @@ public class Problem {
 	 *            the objective function
 	 */
 	public void setObjective(Linear objective) {
-		for (Term term : objective) {
-			variables.add(term.getVariable());
+		version++;
+		int[] keys = (canonicalize ? new int[objective.size()] : null);
+		for (int i = 0; i < objective.size(); i++) {
+			int index = register(objective.getVariable(i));
+			if (keys != null) {
+				keys[i] = index;
+			}
 		}
 		Linear linear = new Linear(objective);
+		if (canonicalize) {
+			linear.canonicalize(keys, true, sortTerms);
+		}
 		this.objective = linear;
+		record(ChangeType.OBJECTIVE, -1, 0);
 	}
 
 	/**
@@ -111,7 +152,9 @@ public class Problem {
 	 *            the optimization type to be set
 	 */
 	public void setOptimizationType(OptType optType) {
+		version++;
 		this.optType = optType;
+		record(ChangeType.OPTIMIZATION_TYPE, -1, 0);
 	}
 
 	/**
@@ -142,12 +185,40 @@ public class Problem {
 	}
 
 	/**
-	 * Returns the variables.
+	 * Returns the name of the {@code k}-th constraint. For a constraint without
+	 * an explicit name, a compact synthetic name {@code "c<k>"} is returned.
+	 * 
+	 * @param k
+	 *            the index of the constraint
+	 * @return the name
+	 */
+	public String getConstraintName(int k) {
+		Constraint constraint = constraints.get(k);
+		if (constraint.hasName()) {
+			return constraint.getName();
+		} else {
+			return "c" + k;
+		}
+	}
+
+	/**
+	 * Returns the variables ordered by their index. The returned list is an
+	 * unmodifiable view.
 	 * 
 	 * @return the variables
 	 */
 	public Collection<Object> getVariables() {
-		return variables;
+		return new AbstractList<Object>() {
+			@Override
+			public Object get(int index) {
+				return getVariable(index);
+			}
+
+			@Override
+			public int size() {
+				return variablesCount;
+			}
+		};
 	}
 
 	/**
@@ -156,7 +227,149 @@ public class Problem {
 	 * @return the number of variables
 	 */
 	public int getVariablesCount() {
-		return variables.size();
+		return variablesCount;
+	}
+
+	/**
+	 * Returns the index of a variable.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @return the index or {@code -1} if the variable is unknown
+	 */
+	public int getVariableIndex(Object variable) {
+		Integer index = varToIndex.get(variable);
+		if (index != null) {
+			return index;
+		} else {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the variable with the given index.
+	 * 
+	 * @param index
+	 *            the index
+	 * @return the variable
+	 */
+	public Object getVariable(int index) {
+		if (index < 0 || index >= variablesCount) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + variablesCount);
+		}
+		return indexToVar[index];
+	}
+
+	/**
+	 * Returns the type of the variable with the given index.
+	 * 
+	 * @param index
+	 *            the index
+	 * @return the type
+	 */
+	public VarType getVarTypeAt(int index) {
+		return varTypeValues[varTypes[index]];
+	}
+
+	/**
+	 * Returns the lower bound of the variable with the given index.
+	 * 
+	 * @param index
+	 *            the index
+	 * @return the lower bound or {@link Double#NEGATIVE_INFINITY} if no lower
+	 *         bound exists
+	 */
+	public double getVarLowerBoundAt(int index) {
+		return varLowerBounds[index];
+	}
+
+	/**
+	 * Returns the upper bound of the variable with the given index.
+	 * 
+	 * @param index
+	 *            the index
+	 * @return the upper bound or {@link Double#POSITIVE_INFINITY} if no upper
+	 *         bound exists
+	 */
+	public double getVarUpperBoundAt(int index) {
+		return varUpperBounds[index];
+	}
+
+	/**
+	 * Ensures that the given number of variables can be registered without
+	 * growing the internal arrays.
+	 * 
+	 * @param capacity
+	 *            the number of variables
+	 */
+	public void ensureVariablesCapacity(int capacity) {
+		if (capacity > indexToVar.length) {
+			int length = Math.max(capacity, indexToVar.length + (indexToVar.length >> 1));
+			Object[] vars = new Object[length];
+			byte[] types = new byte[length];
+			double[] lbs = new double[length];
+			double[] ubs = new double[length];
+			System.arraycopy(indexToVar, 0, vars, 0, variablesCount);
+			System.arraycopy(varTypes, 0, types, 0, variablesCount);
+			System.arraycopy(varLowerBounds, 0, lbs, 0, variablesCount);
+			System.arraycopy(varUpperBounds, 0, ubs, 0, variablesCount);
+			indexToVar = vars;
+			varTypes = types;
+			varLowerBounds = lbs;
+			varUpperBounds = ubs;
+		}
+	}
+
+	/**
+	 * Returns the index of a variable and registers the variable if it is
+	 * unknown.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @return the index
+	 */
+	protected int register(Object variable) {
+		Integer index = varToIndex.get(variable);
+		if (index != null) {
+			return index;
+		}
+		int i = variablesCount;
+		ensureVariablesCapacity(i + 1);
+		indexToVar[i] = variable;
+		varTypes[i] = (byte) VarType.REAL.ordinal();
+		varLowerBounds[i] = Double.NEGATIVE_INFINITY;
+		varUpperBounds[i] = Double.POSITIVE_INFINITY;
+		varToIndex.put(variable, i);
+		variablesCount++;
+		record(ChangeType.VARIABLE_ADDED, i, 1);
+		return i;
+	}
+
+	/**
+	 * Sets whether the linear expressions of the constraints and the objective
+	 * are canonicalized when they are added, i.e., repeated variables are
+	 * merged and zero coefficients are removed (see
+	 * {@link Linear#canonicalize(Problem, boolean)}). The left-hand side of a
+	 * constraint added by {@link #add(Constraint)} is canonicalized in place.
+	 * 
+	 * @param canonicalize
+	 *            {@code true} if the expressions are canonicalized
+	 * @param sort
+	 *            {@code true} if the elements are additionally sorted by the
+	 *            variable indices
+	 */
+	public void setCanonicalize(boolean canonicalize, boolean sort) {
+		this.canonicalize = canonicalize;
+		this.sortTerms = sort;
+	}
+
+	/**
+	 * Returns {@code true} if added linear expressions are canonicalized.
+	 * 
+	 * @return {@code true} if added linear expressions are canonicalized
+	 */
+	public boolean isCanonicalize() {
+		return canonicalize;
 	}
 
 	/**
@@ -166,10 +379,206 @@ public class Problem {
 	 *            the constraint to be added
 	 */
 	public void add(Constraint constraint) {
-		for (Term term : constraint.getLhs()) {
-			variables.add(term.getVariable());
+		version++;
+		Linear lhs = constraint.getLhs();
+		int[] keys = (canonicalize ? new int[lhs.size()] : null);
+		for (int i = 0; i < lhs.size(); i++) {
+			int index = register(lhs.getVariable(i));
+			if (keys != null) {
+				keys[i] = index;
+			}
+		}
+		if (canonicalize) {
+			lhs.canonicalize(keys, true, sortTerms);
 		}
 		constraints.add(constraint);
+		record(ChangeType.CONSTRAINT_ADDED, constraints.size() - 1, 1);
+	}
+
+	/**
+	 * Ensures that the given number of constraints can be stored without
+	 * growing the internal list.
+	 * 
+	 * @param capacity
+	 *            the number of constraints
+	 */
+	public void ensureConstraintsCapacity(int capacity) {
+		constraints.ensureCapacity(capacity);
+	}
+
+	/**
+	 * Adds a block of constraints given in compressed sparse row format. The
+	 * elements of row {@code k} are stored from {@code rowStarts[k]}
+	 * (inclusive) to {@code rowStarts[k+1]} (exclusive) in the
+	 * {@code variables} and {@code coefficients} arrays. Unknown variables are
+	 * registered.
+	 * 
+	 * @param rowStarts
+	 *            the row starts (length is the number of rows plus one)
+	 * @param variables
+	 *            the variables of the elements
+	 * @param coefficients
+	 *            the coefficients of the elements
+	 * @param operators
+	 *            the operators of the rows
+	 * @param rhs
+	 *            the right-hand-side values of the rows
+	 */
+	public void addRows(int[] rowStarts, Object[] variables, double[] coefficients, Operator[] operators,
+			double[] rhs) {
+		int nrows = checkRows(rowStarts, variables.length, coefficients.length, operators, rhs);
+		constraints.ensureCapacity(constraints.size() + nrows);
+		int from = constraints.size();
+		version++;
+
+		try {
+			for (int k = 0; k < nrows; k++) {
+				int start = rowStarts[k];
+				int size = rowStarts[k + 1] - start;
+
+				Object[] vars = new Object[size];
+				double[] coeffs = new double[size];
+				System.arraycopy(variables, start, vars, 0, size);
+				System.arraycopy(coefficients, start, coeffs, 0, size);
+
+				int[] keys = (canonicalize ? new int[size] : null);
+				for (int j = 0; j < size; j++) {
+					int index = register(vars[j]);
+					if (keys != null) {
+						keys[j] = index;
+					}
+				}
+
+				addRow(new Linear(vars, coeffs, size), keys, operators[k], rhs[k]);
+			}
+		} finally {
+			recordRows(from);
+		}
+	}
+
+	/**
+	 * Adds a block of constraints given in compressed sparse row format with
+	 * the indices of already known variables (see
+	 * {@link #getVariableIndex(Object)}). The elements of row {@code k} are
+	 * stored from {@code rowStarts[k]} (inclusive) to {@code rowStarts[k+1]}
+	 * (exclusive) in the {@code indices} and {@code coefficients} arrays.
+	 * 
+	 * @param rowStarts
+	 *            the row starts (length is the number of rows plus one)
+	 * @param indices
+	 *            the variable indices of the elements
+	 * @param coefficients
+	 *            the coefficients of the elements
+	 * @param operators
+	 *            the operators of the rows
+	 * @param rhs
+	 *            the right-hand-side values of the rows
+	 */
+	public void addRows(int[] rowStarts, int[] indices, double[] coefficients, Operator[] operators, double[] rhs) {
+		int nrows = checkRows(rowStarts, indices.length, coefficients.length, operators, rhs);
+		int nvar = getVariablesCount();
+		for (int j = 0; j < rowStarts[nrows]; j++) {
+			if (indices[j] < 0 || indices[j] >= nvar) {
+				throw new IllegalArgumentException("Unknown variable index: " + indices[j]);
+			}
+		}
+		constraints.ensureCapacity(constraints.size() + nrows);
+		int from = constraints.size();
+		version++;
+
+		try {
+			for (int k = 0; k < nrows; k++) {
+				int start = rowStarts[k];
+				int size = rowStarts[k + 1] - start;
+
+				Object[] vars = new Object[size];
+				double[] coeffs = new double[size];
+				for (int j = 0; j < size; j++) {
+					vars[j] = getVariable(indices[start + j]);
+				}
+				System.arraycopy(coefficients, start, coeffs, 0, size);
+
+				int[] keys = null;
+				if (canonicalize) {
+					keys = new int[size];
+					System.arraycopy(indices, start, keys, 0, size);
+				}
+
+				addRow(new Linear(vars, coeffs, size), keys, operators[k], rhs[k]);
+			}
+		} finally {
+			recordRows(from);
+		}
+	}
+
+	/**
+	 * Records the constraints that were added from the given index on. The
+	 * rows that were added before a failure are recorded as well such that
+	 * open sessions see them.
+	 * 
+	 * @param from
+	 *            the index of the first added constraint
+	 */
+	protected void recordRows(int from) {
+		int count = constraints.size() - from;
+		if (count > 0) {
+			record(ChangeType.CONSTRAINT_ADDED, from, count);
+		}
+	}
+
+	/**
+	 * Checks the arrays of a block of constraints and returns the number of
+	 * rows.
+	 * 
+	 * @param rowStarts
+	 *            the row starts
+	 * @param elements
+	 *            the number of given variables
+	 * @param coefficients
+	 *            the number of given coefficients
+	 * @param operators
+	 *            the operators
+	 * @param rhs
+	 *            the right-hand-side values
+	 * @return the number of rows
+	 */
+	protected int checkRows(int[] rowStarts, int elements, int coefficients, Operator[] operators, double[] rhs) {
+		int nrows = rowStarts.length - 1;
+		if (nrows < 0 || operators.length < nrows || rhs.length < nrows) {
+			throw new IllegalArgumentException("The number of row starts, operators, and right-hand-side values do not match.");
+		}
+		for (int k = 0; k < nrows; k++) {
+			if (rowStarts[k] < 0 || rowStarts[k] > rowStarts[k + 1]) {
+				throw new IllegalArgumentException("The row starts have to be non-negative and ascending.");
+			}
+			if (operators[k] == null) {
+				throw new IllegalArgumentException("The operator of row " + k + " is missing.");
+			}
+		}
+		if (rowStarts[nrows] > elements || rowStarts[nrows] > coefficients) {
+			throw new IllegalArgumentException("The row starts exceed the number of variables or coefficients.");
+		}
+		return nrows;
+	}
+
+	/**
+	 * Adds a constraint whose variables are already registered.
+	 * 
+	 * @param linear
+	 *            the left-hand-side linear expression (owned by the problem)
+	 * @param keys
+	 *            the variable indices if the expression is canonicalized,
+	 *            otherwise {@code null}
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side value
+	 */
+	protected void addRow(Linear linear, int[] keys, Operator operator, double rhs) {
+		if (keys != null) {
+			linear.canonicalize(keys, true, sortTerms);
+		}
+		constraints.add(new Constraint(linear, operator, rhs));
 	}
 
 	/**
@@ -264,9 +673,9 @@ public class Problem {
 	 * @return the type
 	 */
 	public VarType getVarType(Object variable) {
-		VarType type = varType.get(variable);
-		if (type != null) {
-			return type;
+		int index = getVariableIndex(variable);
+		if (index >= 0) {
+			return getVarTypeAt(index);
 		} else {
 			return VarType.REAL;
 		}
@@ -281,7 +690,10 @@ public class Problem {
 	 *            the type
 	 */
 	public void setVarType(Object variable, VarType type) {
-		varType.put(variable, type);
+		version++;
+		int index = register(variable);
+		varTypes[index] = (byte) type.ordinal();
+		record(ChangeType.VARIABLE_TYPE, index, 1);
 	}
 
 	/**
@@ -305,7 +717,7 @@ public class Problem {
 			} else {
 				throw new IllegalArgumentException();
 			}
-			varType.put(variable, t);
+			setVarType(variable, t);
 		} catch (IllegalArgumentException e) {
 			System.err.println(type + " is an unknown type");
 		}
@@ -319,7 +731,12 @@ public class Problem {
 	 * @return the variable or {@code null} if no lower bound exists
 	 */
 	public Number getVarLowerBound(Object variable) {
-		return varLowerBound.get(variable);
+		int index = getVariableIndex(variable);
+		if (index >= 0 && varLowerBounds[index] != Double.NEGATIVE_INFINITY) {
+			return varLowerBounds[index];
+		} else {
+			return null;
+		}
 	}
 
 	/**
@@ -330,7 +747,12 @@ public class Problem {
 	 * @return the variable or {@code null} if no upper bound exists
 	 */
 	public Number getVarUpperBound(Object variable) {
-		return varUpperBound.get(variable);
+		int index = getVariableIndex(variable);
+		if (index >= 0 && varUpperBounds[index] != Double.POSITIVE_INFINITY) {
+			return varUpperBounds[index];
+		} else {
+			return null;
+		}
 	}
 
 	/**
@@ -339,10 +761,13 @@ public class Problem {
 	 * @param variable
 	 *            the variable
 	 * @param value
-	 *            the lower bound value
+	 *            the lower bound value or {@code null} to remove the bound
 	 */
 	public void setVarLowerBound(Object variable, Number value) {
-		varLowerBound.put(variable, value);
+		version++;
+		int index = register(variable);
+		varLowerBounds[index] = (value != null ? value.doubleValue() : Double.NEGATIVE_INFINITY);
+		record(ChangeType.VARIABLE_BOUNDS, index, 1);
 	}
 
 	/**
@@ -351,10 +776,13 @@ public class Problem {
 	 * @param variable
 	 *            the variable
 	 * @param value
-	 *            the upper bound value
+	 *            the upper bound value or {@code null} to remove the bound
 	 */
 	public void setVarUpperBound(Object variable, Number value) {
-		varUpperBound.put(variable, value);
+		version++;
+		int index = register(variable);
+		varUpperBounds[index] = (value != null ? value.doubleValue() : Double.POSITIVE_INFINITY);
+		record(ChangeType.VARIABLE_BOUNDS, index, 1);
 	}
 
 	/**
@@ -390,6 +818,191 @@ public class Problem {
 		setVarType(variable, type);
 	}
 
+	/**
+	 * Removes the {@code k}-th constraint. The indices of all following
+	 * constraints are decreased by one.
+	 * 
+	 * @param k
+	 *            the index of the constraint
+	 * @return the removed constraint
+	 */
+	public Constraint removeConstraint(int k) {
+		version++;
+		Constraint constraint = constraints.remove(k);
+		record(ChangeType.CONSTRAINT_REMOVED, k, 1);
+		return constraint;
+	}
+
+	/**
+	 * Sets the right-hand-side of the {@code k}-th constraint. The constraint is
+	 * replaced by a constraint with the same name, left-hand-side, and
+	 * operator.
+	 * 
+	 * @param k
+	 *            the index of the constraint
+	 * @param rhs
+	 *            the new right-hand-side
+	 */
+	public void setRhs(int k, Number rhs) {
+		version++;
+		Constraint constraint = constraints.get(k);
+		constraints.set(k, new Constraint(constraint.name, constraint.getLhs(), constraint.getOperator(), rhs));
+		record(ChangeType.CONSTRAINT_RHS, k, 1);
+	}
+
+	/**
+	 * Returns the version of the problem. The version is increased by each
+	 * change of the problem.
+	 * 
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Enables or disables the change journal. Enabling the journal starts
+	 * recording at the current version, disabling it discards all recorded
+	 * changes. While sessions are open, the journal stays enabled and starts
+	 * again at the current version.
+	 * 
+	 * @param journaling
+	 *            {@code true} if the changes are recorded
+	 */
+	public synchronized void setJournaling(boolean journaling) {
+		this.journaling = journaling;
+		if (!journaling) {
+			journal = null;
+		}
+		updateJournal();
+	}
+
+	/**
+	 * Registers an open session. The journal is enabled until all sessions
+	 * are closed (see {@link #closeSession()}).
+	 */
+	protected synchronized void openSession() {
+		sessions++;
+		updateJournal();
+	}
+
+	/**
+	 * Unregisters a closed session. The journal is discarded when the last
+	 * session is closed unless it was enabled explicitly.
+	 */
+	protected synchronized void closeSession() {
+		sessions--;
+		updateJournal();
+	}
+
+	/**
+	 * Enables the journal if it is enabled explicitly or sessions are open
+	 * and discards it otherwise.
+	 */
+	protected void updateJournal() {
+		if (journaling || sessions > 0) {
+			if (journal == null) {
+				journal = new ArrayList<Change>();
+				journalStart = version;
+			}
+		} else {
+			journal = null;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the change journal is enabled.
+	 * 
+	 * @return {@code true} if the changes are recorded
+	 */
+	public synchronized boolean isJournaling() {
+		return journal != null;
+	}
+
+	/**
+	 * Returns the changes after the given version in the order in which they
+	 * were applied. Returns {@code null} if the changes since this version are
+	 * not known (journaling disabled or changes discarded), i.e., the complete
+	 * problem has to be considered as changed.
+	 * 
+	 * @param since
+	 *            the version
+	 * @return the list of changes or {@code null}
+	 */
+	public synchronized List<Change> getChanges(long since) {
+		if (journal == null || since < journalStart) {
+			return null;
+		}
+		int i = journal.size();
+		while (i > 0 && journal.get(i - 1).getVersion() > since) {
+			i--;
+		}
+		return Collections.unmodifiableList(new ArrayList<Change>(journal.subList(i, journal.size())));
+	}
+
+	/**
+	 * Discards all recorded changes up to (including) the given version.
+	 * 
+	 * @param until
+	 *            the version
+	 */
+	public synchronized void discardChanges(long until) {
+		if (journal != null && until > journalStart) {
+			int i = 0;
+			while (i < journal.size() && journal.get(i).getVersion() <= until) {
+				i++;
+			}
+			journal.subList(0, i).clear();
+			journalStart = Math.min(until, version);
+		}
+	}
+
+	/**
+	 * Records a change with the current version if journaling is enabled.
+	 * Changes of the same type and version with consecutive indices are
+	 * merged.
+	 * 
+	 * @param type
+	 *            the type
+	 * @param index
+	 *            the first affected index
+	 * @param count
+	 *            the number of affected indices
+	 */
+	protected synchronized void record(ChangeType type, int index, int count) {
+		if (journal != null) {
+			if (!journal.isEmpty()) {
+				int last = journal.size() - 1;
+				Change change = journal.get(last);
+				if (change.type == type && change.version == version && index >= 0
+						&& change.index + change.count == index) {
+					// the changes are immutable, returned lists keep the old
+					// entry
+					journal.set(last, new Change(type, version, change.index, change.count + count));
+					return;
+				}
+			}
+			journal.add(new Change(type, version, index, count));
+		}
+	}
+
+	/**
+	 * Returns the problem in compressed sparse row and column format. The
+	 * {@link CompiledProblem} is cached until the problem is changed by one of
+	 * its methods. Changes applied directly to the constraints or their linear
+	 * expressions are not detected.
+	 * 
+	 * @return the compiled problem
+	 */
+	public CompiledProblem compile() {
+		CompiledProblem c = compiled;
+		if (c == null || c.version != version) {
+			c = new CompiledProblem(this);
+			compiled = c;
+		}
+		return c;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
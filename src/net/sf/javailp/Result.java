@@ -104,4 +104,25 @@ public interface Result {
 	 */
 	public Boolean containsVar(Object var);
 
+	/**
+	 * Returns the metrics of the solve that found this result or {@code null}
+	 * if the solver does not measure the solve. Returns {@code null} by
+	 * default.
+	 * 
+	 * @return the metrics
+	 */
+	public default SolveMetrics getMetrics() {
+		return null;
+	}
+
+	/**
+	 * Sets the metrics of the solve. Does nothing by default.
+	 * 
+	 * @param metrics
+	 *            the metrics
+	 */
+	public default void setMetrics(SolveMetrics metrics) {
+		// the metrics are not kept
+	}
+
 }
@@ -0,0 +1,650 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The class {@code ResultArray} is an array based implementation of the
+ * {@link Result}. The values of the variables are stored as primitive values
+ * indexed by the variable indices of the {@link Problem}, either dense or
+ * sparse (only the non-zero values). The values of integer variables are
+ * returned as {@code Integer}, all other values as {@code Double}. The values
+ * of the constraints are stored indexed by the constraint indices, their
+ * names (see {@link Constraint#getName()}) are only resolved when a value is
+ * looked up. Values of other keys that are not variables of the problem are
+ * kept in maps.
+ * <p>
+ * The variables of the problem at the time of the construction belong to the
+ * result, variables that are added later are not contained. The result keeps
+ * a reference to the problem.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class ResultArray implements Result {
+
+	protected final Problem problem;
+	protected final int count;
+
+	protected double[] primalValues;
+	protected int[] indices = null;
+	protected int size = 0;
+	protected double[] dualValues = null;
+
+	protected Map<Object, Number> primalExtras = null;
+	protected Map<Object, Number> dualExtras = null;
+
+	protected Constraint[] constraints = null;
+	protected double[] rowPrimalValues = null;
+	protected double[] rowDualValues = null;
+	protected Map<Object, Integer> rowIndices = null;
+
+	protected Number objectiveValue = null;
+	protected Linear objectiveFunction = null;
+	protected SolveMetrics metrics = null;
+
+	/**
+	 * Constructs a {@code ResultArray} with the primal values of all
+	 * variables. The values are stored sparse if most of them are zero.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param primalValues
+	 *            the primal values indexed by the variable indices
+	 */
+	public ResultArray(Problem problem, double[] primalValues) {
+		this(problem, primalValues, countNonZeros(primalValues) * 2 < primalValues.length);
+	}
+
+	/**
+	 * Constructs a {@code ResultArray} with the primal values of all
+	 * variables.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param primalValues
+	 *            the primal values indexed by the variable indices
+	 * @param sparse
+	 *            {@code true} if only the non-zero values are stored
+	 */
+	public ResultArray(Problem problem, double[] primalValues, boolean sparse) {
+		super();
+		this.problem = problem;
+		this.count = problem.getVariablesCount();
+		this.objectiveFunction = problem.getObjective();
+		if (primalValues.length < count) {
+			throw new IllegalArgumentException("The result requires " + count + " values.");
+		}
+
+		if (sparse) {
+			size = countNonZeros(primalValues);
+			indices = new int[size];
+			this.primalValues = new double[size];
+			int j = 0;
+			for (int i = 0; i < count; i++) {
+				if (primalValues[i] != 0) {
+					indices[j] = i;
+					this.primalValues[j] = primalValues[i];
+					j++;
+				}
+			}
+		} else {
+			this.primalValues = Arrays.copyOf(primalValues, count);
+		}
+	}
+
+	/**
+	 * Returns the problem.
+	 * 
+	 * @return the problem
+	 */
+	public Problem getProblem() {
+		return problem;
+	}
+
+	/**
+	 * Returns {@code true} if only the non-zero values are stored.
+	 * 
+	 * @return {@code true} if the values are stored sparse
+	 */
+	public boolean isSparse() {
+		return indices != null;
+	}
+
+	/**
+	 * Sets the dual values of all variables.
+	 * 
+	 * @param dualValues
+	 *            the dual values indexed by the variable indices
+	 */
+	public void setDualValues(double[] dualValues) {
+		this.dualValues = Arrays.copyOf(dualValues, count);
+	}
+
+	/**
+	 * Sets the primal and dual values of all constraints of the problem. The
+	 * values are returned for the names of the constraints, which are
+	 * resolved at the first lookup.
+	 * 
+	 * @param primalValues
+	 *            the primal values indexed by the constraint indices
+	 * @param dualValues
+	 *            the dual values indexed by the constraint indices or
+	 *            {@code null}
+	 */
+	public void setRowValues(double[] primalValues, double[] dualValues) {
+		List<Constraint> list = problem.getConstraints();
+		this.constraints = list.toArray(new Constraint[list.size()]);
+		this.rowPrimalValues = Arrays.copyOf(primalValues, constraints.length);
+		this.rowDualValues = dualValues != null ? Arrays.copyOf(dualValues, constraints.length) : null;
+		this.rowIndices = null;
+	}
+
+	/**
+	 * Returns the primal values as an array indexed by the variable indices
+	 * of the problem. Variables that are not contained in the result are
+	 * {@code NaN}.
+	 * 
+	 * @param length
+	 *            the length of the array
+	 * @return the primal values
+	 */
+	public double[] toArray(int length) {
+		double[] values = new double[length];
+		if (indices == null) {
+			System.arraycopy(primalValues, 0, values, 0, Math.min(count, length));
+		} else {
+			for (int j = 0; j < size && indices[j] < length; j++) {
+				values[indices[j]] = primalValues[j];
+			}
+		}
+		for (int i = count; i < length; i++) {
+			values[i] = Double.NaN;
+		}
+		return values;
+	}
+
+	/**
+	 * Returns a map view of the primal values. The view reads the values of
+	 * the result and does not copy them.
+	 * 
+	 * @return the map view of the primal values
+	 */
+	public Map<Object, Number> getPrimalValues() {
+		return new Values(false);
+	}
+
+	/**
+	 * Returns a map view of the dual values. The view reads the values of the
+	 * result and does not copy them.
+	 * 
+	 * @return the map view of the dual values
+	 */
+	public Map<Object, Number> getDualValues() {
+		return new Values(true);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getObjective()
+	 */
+	public Number getObjective() {
+		if (objectiveValue == null && objectiveFunction != null) {
+			objectiveValue = objectiveFunction.evaluate(getPrimalValues());
+		}
+		return objectiveValue;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getBoolean(java.lang.Object)
+	 */
+	public boolean getBoolean(Object var) {
+		int i = getIndex(var);
+		if (i >= 0) {
+			return getPrimal(i) != 0;
+		}
+		Number number = getPrimalValue(var);
+		return number.doubleValue() != 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#get(java.lang.Object)
+	 */
+	public Number get(Object var) {
+		return getPrimalValue(var);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#put(java.lang.Object, java.lang.Number)
+	 */
+	public void put(Object var, Number value) {
+		putPrimalValue(var, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getPrimalValue(java.lang.Object)
+	 */
+	public Number getPrimalValue(Object var) {
+		int i = getIndex(var);
+		if (i >= 0) {
+			return toNumber(i, getPrimal(i));
+		}
+		return getExtra(false, var);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#putPrimalValue(java.lang.Object,
+	 * java.lang.Number)
+	 */
+	public void putPrimalValue(Object var, Number value) {
+		int i = getIndex(var);
+		if (i >= 0) {
+			setPrimal(i, value.doubleValue());
+		} else {
+			putExtra(false, var, value);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getDualValue(java.lang.Object)
+	 */
+	public Number getDualValue(Object var) {
+		int i = getIndex(var);
+		if (i >= 0) {
+			if (dualValues == null || Double.isNaN(dualValues[i])) {
+				return null;
+			}
+			return dualValues[i];
+		}
+		return getExtra(true, var);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#putDualValue(java.lang.Object,
+	 * java.lang.Number)
+	 */
+	public void putDualValue(Object var, Number value) {
+		int i = getIndex(var);
+		if (i >= 0) {
+			if (dualValues == null) {
+				dualValues = new double[count];
+				Arrays.fill(dualValues, Double.NaN);
+			}
+			dualValues[i] = value.doubleValue();
+		} else {
+			putExtra(true, var, value);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#containsVar(java.lang.Object)
+	 */
+	public Boolean containsVar(Object var) {
+		return getIndex(var) >= 0 || getExtra(false, var) != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getMetrics()
+	 */
+	public SolveMetrics getMetrics() {
+		return metrics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#setMetrics(net.sf.javailp.SolveMetrics)
+	 */
+	public void setMetrics(SolveMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Objective: " + getObjective() + " " + getPrimalValues().toString();
+	}
+
+	/**
+	 * Returns the index of a variable of the result or {@code -1} if the key
+	 * is not a variable of the result.
+	 * 
+	 * @param var
+	 *            the key
+	 * @return the index
+	 */
+	protected int getIndex(Object var) {
+		int i = problem.getVariableIndex(var);
+		return i < count ? i : -1;
+	}
+
+	/**
+	 * Returns the primal value of the {@code i}-th variable.
+	 * 
+	 * @param i
+	 *            the index
+	 * @return the primal value
+	 */
+	protected double getPrimal(int i) {
+		if (indices == null) {
+			return primalValues[i];
+		}
+		int j = Arrays.binarySearch(indices, 0, size, i);
+		return j >= 0 ? primalValues[j] : 0;
+	}
+
+	/**
+	 * Sets the primal value of the {@code i}-th variable.
+	 * 
+	 * @param i
+	 *            the index
+	 * @param value
+	 *            the primal value
+	 */
+	protected void setPrimal(int i, double value) {
+		objectiveValue = null;
+		if (indices == null) {
+			primalValues[i] = value;
+			return;
+		}
+		int j = Arrays.binarySearch(indices, 0, size, i);
+		if (j >= 0) {
+			primalValues[j] = value;
+		} else if (value != 0) {
+			j = -j - 1;
+			if (size == indices.length) {
+				int capacity = Math.max(2 * size, 8);
+				indices = Arrays.copyOf(indices, capacity);
+				primalValues = Arrays.copyOf(primalValues, capacity);
+			}
+			System.arraycopy(indices, j, indices, j + 1, size - j);
+			System.arraycopy(primalValues, j, primalValues, j + 1, size - j);
+			indices[j] = i;
+			primalValues[j] = value;
+			size++;
+		}
+	}
+
+	/**
+	 * Returns the value of the {@code i}-th variable as {@code Integer} for
+	 * integer variables and as {@code Double} otherwise.
+	 * 
+	 * @param i
+	 *            the index
+	 * @param value
+	 *            the value
+	 * @return the number
+	 */
+	protected Number toNumber(int i, double value) {
+		if (problem.getVarTypeAt(i).isInt() && value == Math.rint(value) && Math.abs(value) <= Integer.MAX_VALUE) {
+			return (int) value;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the primal or dual values of the keys that are not variables.
+	 * 
+	 * @param dual
+	 *            {@code true} for the dual values
+	 * @return the values
+	 */
+	protected Map<Object, Number> getExtras(boolean dual) {
+		Map<Object, Number> extras = dual ? dualExtras : primalExtras;
+		return extras != null ? extras : Collections.<Object, Number> emptyMap();
+	}
+
+	/**
+	 * Returns the primal or dual value of a key that is not a variable or
+	 * {@code null} if the key has no value. Values that are put explicitly
+	 * take precedence over the values of the constraints.
+	 * 
+	 * @param dual
+	 *            {@code true} for the dual value
+	 * @param key
+	 *            the key
+	 * @return the value
+	 */
+	protected Number getExtra(boolean dual, Object key) {
+		Number value = getExtras(dual).get(key);
+		if (value == null) {
+			Integer k = getRowIndices().get(key);
+			double[] values = dual ? rowDualValues : rowPrimalValues;
+			if (k != null && values != null) {
+				value = values[k];
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the indices of the constraints by their names. The names are
+	 * resolved once on the first call.
+	 * 
+	 * @return the indices of the constraints
+	 */
+	protected Map<Object, Integer> getRowIndices() {
+		if (constraints == null) {
+			return Collections.<Object, Integer> emptyMap();
+		} else if (rowIndices == null) {
+			Map<Object, Integer> map = new HashMap<Object, Integer>(constraints.length * 4 / 3 + 1);
+			for (int k = 0; k < constraints.length; k++) {
+				map.put(constraints[k].getName(), k);
+			}
+			rowIndices = map;
+		}
+		return rowIndices;
+	}
+
+	/**
+	 * Puts a primal or dual value of a key that is not a variable.
+	 * 
+	 * @param dual
+	 *            {@code true} for a dual value
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 */
+	protected void putExtra(boolean dual, Object key, Number value) {
+		if (dual) {
+			if (dualExtras == null) {
+				dualExtras = new HashMap<Object, Number>();
+			}
+			dualExtras.put(key, value);
+		} else {
+			if (primalExtras == null) {
+				primalExtras = new HashMap<Object, Number>();
+			}
+			primalExtras.put(key, value);
+		}
+	}
+
+	/**
+	 * Returns the number of non-zero values of the variables.
+	 * 
+	 * @param values
+	 *            the values
+	 * @return the number of non-zero values
+	 */
+	protected static int countNonZeros(double[] values) {
+		int n = 0;
+		for (double value : values) {
+			if (value != 0) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * The {@code Values} is the unmodifiable map view of the primal or dual
+	 * values.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Values extends AbstractMap<Object, Number> {
+
+		protected final boolean dual;
+
+		/**
+		 * Constructs a {@code Values}.
+		 * 
+		 * @param dual
+		 *            {@code true} for the dual values
+		 */
+		public Values(boolean dual) {
+			super();
+			this.dual = dual;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#get(java.lang.Object)
+		 */
+		@Override
+		public Number get(Object key) {
+			return dual ? getDualValue(key) : getPrimalValue(key);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+		 */
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		/**
+		 * Returns the names and indices of the constraints that have a value
+		 * and are not overridden by an explicitly put value.
+		 * 
+		 * @return the names and indices of the constraints
+		 */
+		protected List<Entry<Object, Integer>> getRows() {
+			List<Entry<Object, Integer>> rows = new ArrayList<Entry<Object, Integer>>();
+			if ((dual ? rowDualValues : rowPrimalValues) != null) {
+				Map<Object, Number> extras = getExtras(dual);
+				for (Entry<Object, Integer> row : getRowIndices().entrySet()) {
+					if (!extras.containsKey(row.getKey())) {
+						rows.add(row);
+					}
+				}
+			}
+			return rows;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractMap#entrySet()
+		 */
+		@Override
+		public Set<Entry<Object, Number>> entrySet() {
+			return new AbstractSet<Entry<Object, Number>>() {
+				@Override
+				public Iterator<Entry<Object, Number>> iterator() {
+					return new Iterator<Entry<Object, Number>>() {
+						Iterator<Entry<Object, Number>> extras = getExtras(dual).entrySet().iterator();
+						Iterator<Entry<Object, Integer>> rows = getRows().iterator();
+						int i = advance(0);
+
+						int advance(int index) {
+							while (dual && index < count && (dualValues == null || Double.isNaN(dualValues[index]))) {
+								index++;
+							}
+							return index;
+						}
+
+						public boolean hasNext() {
+							return i < count || extras.hasNext() || rows.hasNext();
+						}
+
+						public Entry<Object, Number> next() {
+							if (i < count) {
+								Object var = problem.getVariable(i);
+								Number value = dual ? (Number) dualValues[i] : toNumber(i, getPrimal(i));
+								i = advance(i + 1);
+								return new SimpleImmutableEntry<Object, Number>(var, value);
+							} else if (extras.hasNext()) {
+								return extras.next();
+							} else if (rows.hasNext()) {
+								Entry<Object, Integer> row = rows.next();
+								double[] values = dual ? rowDualValues : rowPrimalValues;
+								Number value = values[row.getValue()];
+								return new SimpleImmutableEntry<Object, Number>(row.getKey(), value);
+							}
+							throw new NoSuchElementException();
+						}
+
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					int n = getExtras(dual).size() + getRows().size();
+					for (int i = 0; i < count; i++) {
+						if (!dual || (dualValues != null && !Double.isNaN(dualValues[i]))) {
+							n++;
+						}
+					}
+					return n;
+				}
+			};
+		}
+	}
+
+}
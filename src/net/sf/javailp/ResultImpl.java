@@ -30,6 +30,7 @@ public class ResultImpl implements Result {
 	protected Map<Object,Number> dualValues;
 	protected Number objectiveValue = null;
 	protected Linear objectiveFunction = null;
+	protected SolveMetrics metrics = null;
 
 	/**
 	 * Constructs a {@code ResultImpl} for a {@code Problem} without objective
@@ -157,6 +158,24 @@ public class ResultImpl implements Result {
 		return primalValues.containsKey(var);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#getMetrics()
+	 */
+	public SolveMetrics getMetrics() {
+		return metrics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Result#setMetrics(net.sf.javailp.SolveMetrics)
+	 */
+	public void setMetrics(SolveMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,44 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code SolveListener} receives the improving solutions (incumbents) of
+ * a solve as soon as the solver finds them (see {@link Solver#LISTENER}). The
+ * listener is called in the thread of the solver, possibly from a callback of
+ * a native library, and should return quickly. If the same listener is used
+ * by several solvers at once, it has to be thread-safe.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public interface SolveListener {
+
+	/**
+	 * Is called for each improving solution. Returning {@code false} stops the
+	 * solve, which then returns this (or an equally good) solution.
+	 * 
+	 * @param result
+	 *            the improving solution
+	 * @param bound
+	 *            the best proven bound of the objective value or {@code null}
+	 *            if the solver does not provide a bound
+	 * @param time
+	 *            the elapsed time since the start of the solve in milliseconds
+	 * @return {@code true} if the solve continues
+	 */
+	public boolean improved(Result result, Number bound, long time);
+
+}
@@ -0,0 +1,275 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The {@code SolveMetrics} break a solve down into its phases: the
+ * translation of the problem into the model of the solver, the optimization
+ * by the solver, and the extraction of the result. The wall and CPU time of
+ * each phase are measured in nanoseconds. The CPU time is the time of the
+ * solving thread only (threads of the solver are not included) and
+ * {@code -1} if the virtual machine does not measure it.
+ * <p>
+ * The size of the problem is given by the number of rows, columns, and
+ * non-zero coefficients, the effort of the solver by the number of
+ * iterations and nodes if the solver reports them ({@code -1} otherwise).
+ * The meaning of iterations and nodes depends on the solver, e.g., simplex
+ * iterations and branch-and-bound nodes.
+ * <p>
+ * A result is optimal if the solver proved its optimality. A result of a
+ * solve that was interrupted or hit the time limit is only the best solution
+ * found so far.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolveMetrics {
+
+	/**
+	 * The phases of a solve.
+	 */
+	public enum Phase {
+		/**
+		 * The translation of the problem into the model of the solver.
+		 */
+		TRANSLATION,
+		/**
+		 * The optimization by the solver.
+		 */
+		OPTIMIZATION,
+		/**
+		 * The extraction of the result from the solver.
+		 */
+		EXTRACTION;
+	}
+
+	protected static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	protected final long[] times = new long[Phase.values().length];
+	protected final long[] cpuTimes = new long[Phase.values().length];
+
+	protected int rows = 0;
+	protected int columns = 0;
+	protected long nonZeros = 0;
+	protected long iterations = -1;
+	protected long nodes = -1;
+	protected boolean optimal = false;
+
+	protected Phase phase = null;
+	protected long time = 0;
+	protected long cpuTime = 0;
+
+	/**
+	 * Constructs a {@code SolveMetrics}.
+	 */
+	public SolveMetrics() {
+		super();
+	}
+
+	/**
+	 * Returns the wall time of a phase.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the wall time in nanoseconds
+	 */
+	public long getTime(Phase phase) {
+		return times[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the CPU time of a phase.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the CPU time in nanoseconds or {@code -1} if not measured
+	 */
+	public long getCpuTime(Phase phase) {
+		return cpuTimes[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the wall time of all phases.
+	 * 
+	 * @return the wall time in nanoseconds
+	 */
+	public long getTotalTime() {
+		long sum = 0;
+		for (long t : times) {
+			sum += t;
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the number of rows (constraints).
+	 * 
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of columns (variables).
+	 * 
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Returns the number of non-zero coefficients of the constraints.
+	 * 
+	 * @return the number of non-zero coefficients
+	 */
+	public long getNonZeros() {
+		return nonZeros;
+	}
+
+	/**
+	 * Returns the number of iterations of the solver.
+	 * 
+	 * @return the number of iterations or {@code -1} if not reported
+	 */
+	public long getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Returns the number of nodes of the solver.
+	 * 
+	 * @return the number of nodes or {@code -1} if not reported
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns {@code true} if the solver proved the result optimal (or
+	 * feasible if the problem has no objective).
+	 * 
+	 * @return {@code true} if the result is optimal
+	 */
+	public boolean isOptimal() {
+		return optimal;
+	}
+
+	/**
+	 * Sets the size of the problem.
+	 * 
+	 * @param problem
+	 *            the problem
+	 */
+	protected void setSize(Problem problem) {
+		rows = problem.getConstraintsCount();
+		columns = problem.getVariablesCount();
+		nonZeros = 0;
+		for (Constraint constraint : problem.getConstraints()) {
+			nonZeros += constraint.size();
+		}
+	}
+
+	/**
+	 * Sets the number of iterations.
+	 * 
+	 * @param iterations
+	 *            the number of iterations
+	 */
+	protected void setIterations(long iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Sets the number of nodes.
+	 * 
+	 * @param nodes
+	 *            the number of nodes
+	 */
+	protected void setNodes(long nodes) {
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Sets whether the solver proved the result optimal.
+	 * 
+	 * @param optimal
+	 *            {@code true} if the result is optimal
+	 */
+	protected void setOptimal(boolean optimal) {
+		this.optimal = optimal;
+	}
+
+	/**
+	 * Ends the current phase (if any) and starts the given phase. The time
+	 * of a phase that is entered several times is summed up.
+	 * 
+	 * @param phase
+	 *            the phase or {@code null} to end the measurement
+	 */
+	protected void enter(Phase phase) {
+		long t = System.nanoTime();
+		long c = getThreadCpuTime();
+		if (this.phase != null) {
+			int i = this.phase.ordinal();
+			times[i] += t - time;
+			cpuTimes[i] = (c < 0 || cpuTimes[i] < 0) ? -1 : cpuTimes[i] + c - cpuTime;
+		}
+		this.phase = phase;
+		this.time = t;
+		this.cpuTime = c;
+	}
+
+	/**
+	 * Returns the CPU time of the current thread.
+	 * 
+	 * @return the CPU time in nanoseconds or {@code -1} if not supported
+	 */
+	protected static long getThreadCpuTime() {
+		if (threads.isCurrentThreadCpuTimeSupported()) {
+			return threads.getCurrentThreadCpuTime();
+		}
+		return -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Phase p : Phase.values()) {
+			sb.append(p.name().toLowerCase()).append("=").append(times[p.ordinal()] / 1000000.0).append("ms ");
+		}
+		sb.append("rows=").append(rows).append(" columns=").append(columns).append(" nonzeros=").append(nonZeros);
+		if (iterations >= 0) {
+			sb.append(" iterations=").append(iterations);
+		}
+		if (nodes >= 0) {
+			sb.append(" nodes=").append(nodes);
+		}
+		if (optimal) {
+			sb.append(" optimal");
+		}
+		return sb.toString();
+	}
+
+}
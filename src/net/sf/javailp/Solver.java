@@ -15,17 +15,23 @@
 package net.sf.javailp;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
- * The {@code Solver}.
+ * The {@code Solver}. Implementations have to provide
+ * {@link #solve(Problem)}, the other methods delegate to it by default.
  * 
  * @author lukasiewycz
  * 
  */
-public interface Solver {
+public interface Solver extends AutoCloseable {
 
 	/**
-	 * Identifier for the timeout value.
+	 * Identifier for the timeout value in seconds (fractional values for a
+	 * millisecond precision) or as {@link java.time.Duration}. The timeout
+	 * starts with each solve (see {@link #DEADLINE}).
 	 */
 	public static final int TIMEOUT = 0;
 
@@ -39,6 +45,39 @@ public interface Solver {
 	 */
 	public static final int POSTSOLVE = 2;
 
+	/**
+	 * Identifier for the naming value. {@code 0}: no names are passed to the
+	 * solver, {@code 1} (default): constraints without a name get a compact
+	 * synthetic name (see {@link Problem#getConstraintName(int)}), {@code 2}:
+	 * constraints without a name are named by their string representation.
+	 * The values of the constraints in the results are always stored with
+	 * the name that the constraint reports (see {@link Constraint#getName()}).
+	 */
+	public static final int NAMES = 3;
+
+	/**
+	 * Identifier for the search strategy of the optimization. Only used by
+	 * the solvers that optimize by a sequence of satisfiability problems
+	 * (see {@link SolverSAT4J#LINEAR}, {@link SolverSAT4J#BINARY}, and
+	 * {@link SolverSAT4J#CORE}).
+	 */
+	public static final int SEARCH = 4;
+
+	/**
+	 * Identifier for the deadline value, an absolute point in time as
+	 * {@link java.time.Instant} or in milliseconds since the epoch. A solve
+	 * is aborted at the deadline or after the timeout (see {@link #TIMEOUT}),
+	 * whichever comes first, and returns the best solution found so far.
+	 */
+	public static final int DEADLINE = 5;
+
+	/**
+	 * Identifier for the listener of the improving solutions, a
+	 * {@link SolveListener}. Supported by the solvers that find a sequence of
+	 * improving solutions and report them (SAT4J, Gurobi, and CPLEX).
+	 */
+	public static final int LISTENER = 6;
+
 	/**
 	 * Sets a parameter.
 	 * 
@@ -66,4 +105,83 @@ public interface Solver {
 	 */
 	public Result solve(Problem problem);
 
+	/**
+	 * Solve the optimization problem starting from a previous result, e.g.,
+	 * the result of a similar problem. The values of the result are passed to
+	 * the solver as initial solution (integer problems) or initial guess
+	 * (linear problems) if the solver supports this. Variables that are not
+	 * contained in the result are left open. Returns {@code null} if there
+	 * exists no feasible solution for the problem.
+	 * 
+	 * @param problem
+	 *            the optimization problem
+	 * @param start
+	 *            the starting point (may be {@code null})
+	 * @return the result
+	 */
+	public default Result solve(Problem problem, Result start) {
+		return solve(problem);
+	}
+
+	/**
+	 * Solve the optimization problem starting from a (partial) assignment of
+	 * the variables (see {@link #solve(Problem, Result)}).
+	 * 
+	 * @param problem
+	 *            the optimization problem
+	 * @param start
+	 *            the starting point (may be {@code null})
+	 * @return the result
+	 */
+	public default Result solve(Problem problem, Map<Object, ? extends Number> start) {
+		return solve(problem);
+	}
+
+	/**
+	 * Solves the optimization problem asynchronously on the default executor,
+	 * a pool with one thread for each available processor (see
+	 * {@link #solveAsync(Problem, Executor)}).
+	 * 
+	 * @param problem
+	 *            the optimization problem
+	 * @return the future of the result
+	 */
+	public default CompletableFuture<Result> solveAsync(Problem problem) {
+		return solveAsync(problem, AbstractSolver.getDefaultExecutor());
+	}
+
+	/**
+	 * Solves the optimization problem asynchronously on the given executor.
+	 * The future completes with the result or {@code null} if there exists no
+	 * feasible solution for the problem. A solve that has not started yet is
+	 * skipped if the future is cancelled. By default, a running solve is not
+	 * aborted by the cancellation: it runs to its end and its result is
+	 * discarded. The {@link AbstractSolver} aborts the running solve (see
+	 * {@link AbstractSolver#abort()}) and interrupts its thread if the future
+	 * is cancelled with {@code mayInterruptIfRunning} set. The problem must
+	 * not be changed until the solve has finished.
+	 * 
+	 * @param problem
+	 *            the optimization problem
+	 * @param executor
+	 *            the executor that runs the solve
+	 * @return the future of the result
+	 */
+	public default CompletableFuture<Result> solveAsync(final Problem problem, Executor executor) {
+		return CompletableFuture.supplyAsync(new Supplier<Result>() {
+			public Result get() {
+				return solve(problem);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Aborts all running solves of this solver and waits until their native
+	 * models are released. The solver may still be used afterwards. Does
+	 * nothing by default.
+	 */
+	public default void close() {
+		// no native models
+	}
+
 }
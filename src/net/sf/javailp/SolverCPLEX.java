@@ -15,17 +15,27 @@
 package net.sf.javailp;
 
 import ilog.concert.IloException;
+import ilog.concert.IloLPMatrix;
 import ilog.concert.IloLinearNumExpr;
 import ilog.concert.IloNumVar;
 import ilog.concert.IloNumVarType;
+import ilog.concert.IloObjective;
+import ilog.concert.IloObjectiveSense;
+import ilog.concert.IloRange;
 import ilog.cplex.IloCplex;
+import ilog.cplex.IloCplex.ContinuousCallback;
 import ilog.cplex.IloCplex.DoubleParam;
+import ilog.cplex.IloCplex.IncumbentCallback;
+import ilog.cplex.IloCplex.MIPCallback;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.Map.Entry;
+
+import net.sf.javailp.SolveMetrics.Phase;
 
 /**
  * The {@code SolverCPLEX} is the {@code Solver} CPLEX.
@@ -83,123 +93,558 @@ public class SolverCPLEX extends AbstractSolver {
 	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
 	 */
 	public Result solve(Problem problem) {
-		Map<IloNumVar, Object> numToVar = new HashMap<IloNumVar, Object>();
-		Map<Object, IloNumVar> varToNum = new HashMap<Object, IloNumVar>();
+		return solve(problem, (double[]) null);
+	}
 
-		try {
-			IloCplex cplex = new IloCplex();
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solve(net.sf.javailp.Problem,
+	 * double[])
+	 */
+	@Override
+	protected Result solve(Problem problem, double[] start) {
+		return run(new Session(problem), start);
+	}
 
-			initWithParameters(cplex);
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#openSession(net.sf.javailp.Problem)
+	 */
+	@Override
+	public SolverSession openSession(Problem problem) {
+		return new Session(problem);
+	}
 
-			for (Object variable : problem.getVariables()) {
-				VarType varType = problem.getVarType(variable);
-				Number lowerBound = problem.getVarLowerBound(variable);
-				Number upperBound = problem.getVarUpperBound(variable);
+	/**
+	 * The {@code Session} keeps the CPLEX model. Changes of the variable types
+	 * require a rebuild, all other changes are applied incrementally.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Session extends AbstractSolverSession {
 
-				double lb = (lowerBound != null ? lowerBound.doubleValue() : Double.NEGATIVE_INFINITY);
-				double ub = (upperBound != null ? upperBound.doubleValue() : Double.POSITIVE_INFINITY);
+		protected IloCplex cplex = null;
+		protected IloLPMatrix matrix = null;
+		protected IloNumVar[] nums = null;
+		protected IloObjective objective = null;
+		protected final int names = getNames();
 
-				final IloNumVarType type;
-				switch (varType) {
-				case BOOL:
-					type = IloNumVarType.Bool;
-					break;
-				case INT:
-					type = IloNumVarType.Int;
-					break;
-				default: // REAL
-					type = IloNumVarType.Float;
-					break;
-				}
+		/**
+		 * Constructs a {@code Session}.
+		 * 
+		 * @param problem
+		 *            the problem
+		 */
+		public Session(Problem problem) {
+			super(problem, SolverCPLEX.this.parameters);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#isIncremental(net.sf.javailp
+		 * .ChangeType)
+		 */
+		@Override
+		protected boolean isIncremental(ChangeType type) {
+			return type != ChangeType.VARIABLE_TYPE;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#build()
+		 */
+		@Override
+		protected void build() throws IloException {
+			CompiledProblem compiled = problem.compile();
+			int nvar = compiled.getColumnsCount();
 
-				IloNumVar num = cplex.numVar(lb, ub, type);
+			cplex = new IloCplex();
+			register(new Model(this, cplex));
 
-				numToVar.put(num, variable);
-				varToNum.put(variable, num);
+			initWithParameters(cplex);
+			cplex.use(new ContinuousAbort(this));
+			cplex.use(new MIPAbort(this));
+			cplex.use(new Incumbents(this));
+
+			// all rows and columns are kept in one matrix such that they are
+			// added and read with single calls
+			matrix = cplex.addLPMatrix();
+			nums = addVariables(cplex, problem, 0, nvar);
+			matrix.addCols(nums);
+			addRows(matrix, compiled);
+
+			objective = null;
+			if (problem.getObjective() != null) {
+				setObjective();
 			}
 
-			for (Constraint constraint : problem.getConstraints()) {
-				IloLinearNumExpr lin = cplex.linearNumExpr();
-				Linear linear = constraint.getLhs();
-				convert(linear, lin, varToNum);
+			if (!hooks.isEmpty()) {
+				Map<Object, IloNumVar> varToNum = new HashMap<Object, IloNumVar>();
+				for (int i = 0; i < nvar; i++) {
+					varToNum.put(problem.getVariable(i), nums[i]);
+				}
+				for (Hook hook : hooks) {
+					hook.call(cplex, varToNum);
+				}
+			}
+		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#update(net.sf.javailp.Change)
+		 */
+		@Override
+		protected void update(Change change) throws IloException {
+			int index = change.getIndex();
+			int count = change.getCount();
+
+			switch (change.getType()) {
+			case VARIABLE_ADDED:
+				IloNumVar[] added = addVariables(cplex, problem, index, index + count);
+				IloNumVar[] tmp = new IloNumVar[index + count];
+				System.arraycopy(nums, 0, tmp, 0, index);
+				System.arraycopy(added, 0, tmp, index, count);
+				nums = tmp;
+				matrix.addCols(added);
+				break;
+			case VARIABLE_BOUNDS:
+				nums[index].setLB(problem.getVarLowerBoundAt(index));
+				nums[index].setUB(problem.getVarUpperBoundAt(index));
+				break;
+			case CONSTRAINT_ADDED:
+				addRows(matrix, problem, index, index + count);
+				break;
+			case CONSTRAINT_REMOVED:
+				matrix.removeRow(index);
+				break;
+			case CONSTRAINT_RHS:
+				Constraint constraint = problem.getConstraints().get(index);
 				double rhs = constraint.getRhs().doubleValue();
-
+				IloRange range = matrix.getRange(index);
 				switch (constraint.getOperator()) {
 				case LE:
-					cplex.addLe(lin, rhs);
+					range.setUB(rhs);
 					break;
 				case GE:
-					cplex.addGe(lin, rhs);
+					range.setLB(rhs);
 					break;
 				default: // EQ
-					cplex.addEq(lin, rhs);
+					range.setBounds(rhs, rhs);
 				}
+				break;
+			default: // OBJECTIVE, OPTIMIZATION_TYPE
+				setObjective();
 			}
+		}
 
-			if (problem.getObjective() != null) {
-				IloLinearNumExpr lin = cplex.linearNumExpr();
-				Linear objective = problem.getObjective();
-				convert(objective, lin, varToNum);
-
-				if (problem.getOptType() == OptType.MIN) {
-					cplex.addMinimize(lin);
-				} else {
-					cplex.addMaximize(lin);
+		/**
+		 * Sets the objective function and the optimization direction. A
+		 * missing objective function is set to zero.
+		 * 
+		 * @throws IloException
+		 */
+		protected void setObjective() throws IloException {
+			double[] coeffs = new double[nums.length];
+			Linear linear = problem.getObjective();
+			if (linear != null) {
+				for (int j = 0; j < linear.size(); j++) {
+					coeffs[problem.getVariableIndex(linear.getVariable(j))] += linear.getCoefficient(j);
 				}
 			}
+			IloLinearNumExpr lin = cplex.scalProd(coeffs, nums);
 
-			for (Hook hook : hooks) {
-				hook.call(cplex, varToNum);
+			IloObjectiveSense sense = (problem.getOptType() == OptType.MIN ? IloObjectiveSense.Minimize
+					: IloObjectiveSense.Maximize);
+
+			if (objective == null) {
+				objective = cplex.addObjective(sense, lin);
+			} else {
+				objective.setExpr(lin);
+				objective.setSense(sense);
 			}
+		}
 
-			if (!cplex.solve()) {
-				cplex.end();
-				return null;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#optimize(double[])
+		 */
+		@Override
+		protected Result optimize(double[] start) throws IloException {
+			int nvar = problem.getVariablesCount();
+
+			if (start != null) {
+				int count = 0;
+				for (int i = 0; i < nvar; i++) {
+					if (!Double.isNaN(getStartValue(start, i))) {
+						count++;
+					}
+				}
+				IloNumVar[] vars = new IloNumVar[count];
+				double[] values = new double[count];
+				count = 0;
+				for (int i = 0; i < nvar; i++) {
+					double value = getStartValue(start, i);
+					if (!Double.isNaN(value)) {
+						vars[count] = nums[i];
+						values[count] = value;
+						count++;
+					}
+				}
+				cplex.setVectors(values, null, vars, null, null, null);
 			}
 
-			final Result result;
-			if (problem.getObjective() != null) {
-				Linear objective = problem.getObjective();
-				result = new ResultImpl(objective);
-			} else {
-				result = new ResultImpl();
+			cplex.setParam(DoubleParam.TiLim, Math.min(getRemainingSeconds(), 1e75));
+			metrics.enter(Phase.OPTIMIZATION);
+			boolean solved = cplex.solve();
+			metrics.enter(Phase.EXTRACTION);
+			metrics.setIterations(cplex.getNiterations());
+			metrics.setNodes(cplex.getNnodes());
+			if (!solved) {
+				return null;
 			}
+			metrics.setOptimal(cplex.getStatus() == IloCplex.Status.Optimal);
 
-			for (Entry<Object, IloNumVar> entry : varToNum.entrySet()) {
-				Object variable = entry.getKey();
-				IloNumVar num = entry.getValue();
-				VarType varType = problem.getVarType(variable);
-
-				double value = cplex.getValue(num);
-				if (varType.isInt()) {
-					int v = (int) Math.round(value);
-					result.putPrimalValue(variable, v);
-				} else {
-					result.putPrimalValue(variable, value);
+			ResultArray result = getResult(cplex.getValues(matrix));
+
+			// the dual values are only available for continuous models
+			if (!cplex.isMIP()) {
+				double[] reducedCosts = cplex.getReducedCosts(matrix);
+				for (int i = 0; i < nvar; i++) {
+					result.putDualValue(problem.getVariable(i), reducedCosts[i]);
+				}
+				if (matrix.getNrows() > 0) {
+					result.setRowValues(cplex.getAX(matrix), cplex.getDuals(matrix));
 				}
 			}
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#dispose()
+		 */
+		@Override
+		protected void dispose() {
+			cplex = null;
+			matrix = null;
+			nums = null;
+			objective = null;
+		}
+	}
+
+	/**
+	 * The {@code ContinuousAbort} aborts the continuous optimization of a
+	 * session. Like all callbacks of the session, it only weakly references
+	 * the session such that the cplex instance does not keep the session
+	 * reachable (see {@link NativeResource}).
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class ContinuousAbort extends ContinuousCallback {
+
+		protected final WeakReference<Session> session;
+
+		/**
+		 * Constructs a {@code ContinuousAbort}.
+		 * 
+		 * @param session
+		 *            the session
+		 */
+		public ContinuousAbort(Session session) {
+			this.session = new WeakReference<Session>(session);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see ilog.cplex.IloCplex.Callback#main()
+		 */
+		@Override
+		protected void main() {
+			Session s = session.get();
+			if (s == null || s.aborted) {
+				abort();
+			}
+		}
+	}
+
+	/**
+	 * The {@code MIPAbort} aborts the branch and bound of a session.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class MIPAbort extends MIPCallback {
+
+		protected final WeakReference<Session> session;
+
+		/**
+		 * Constructs a {@code MIPAbort}.
+		 * 
+		 * @param session
+		 *            the session
+		 */
+		public MIPAbort(Session session) {
+			this.session = new WeakReference<Session>(session);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see ilog.cplex.IloCplex.Callback#main()
+		 */
+		@Override
+		protected void main() {
+			Session s = session.get();
+			if (s == null || s.aborted) {
+				abort();
+			}
+		}
+	}
+
+	/**
+	 * The {@code Incumbents} passes each new incumbent of a session to its
+	 * listener.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Incumbents extends IncumbentCallback {
+
+		protected final WeakReference<Session> session;
+
+		/**
+		 * Constructs an {@code Incumbents}.
+		 * 
+		 * @param session
+		 *            the session
+		 */
+		public Incumbents(Session session) {
+			this.session = new WeakReference<Session>(session);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see ilog.cplex.IloCplex.Callback#main()
+		 */
+		@Override
+		protected void main() throws IloException {
+			Session s = session.get();
+			if (s != null && s.getListener() != null) {
+				s.improved(s.getResult(getValues(s.nums)), getBestObjValue());
+			}
+		}
+	}
+
+	/**
+	 * The {@code Model} ends a cplex instance.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Model extends NativeResource {
+
+		protected final IloCplex cplex;
+
+		/**
+		 * Constructs a {@code Model}.
+		 * 
+		 * @param owner
+		 *            the owner
+		 * @param cplex
+		 *            the cplex instance
+		 */
+		public Model(Object owner, IloCplex cplex) {
+			super(owner, "CPLEX instance");
+			this.cplex = cplex;
+		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.NativeResource#free()
+		 */
+		@Override
+		protected void free() {
 			cplex.end();
+		}
+	}
 
-			return result;
+	/**
+	 * Returns new variables for the variables {@code from} (inclusive) to
+	 * {@code to} (exclusive), created with one call.
+	 * 
+	 * @param cplex
+	 *            the cplex instance
+	 * @param problem
+	 *            the problem
+	 * @param from
+	 *            the first variable
+	 * @param to
+	 *            the last variable (exclusive)
+	 * @return the new variables
+	 * @throws IloException
+	 */
+	protected IloNumVar[] addVariables(IloCplex cplex, Problem problem, int from, int to) throws IloException {
+		int count = to - from;
+		double[] lb = new double[count];
+		double[] ub = new double[count];
+		IloNumVarType[] types = new IloNumVarType[count];
+
+		for (int i = from; i < to; i++) {
+			lb[i - from] = problem.getVarLowerBoundAt(i);
+			ub[i - from] = problem.getVarUpperBoundAt(i);
+			switch (problem.getVarTypeAt(i)) {
+			case BOOL:
+				types[i - from] = IloNumVarType.Bool;
+				break;
+			case INT:
+				types[i - from] = IloNumVarType.Int;
+				break;
+			default: // REAL
+				types[i - from] = IloNumVarType.Float;
+			}
+		}
+
+		return cplex.numVarArray(count, lb, ub, types);
+	}
+
+	/**
+	 * Adds all rows of the compiled problem to the matrix. The rows are added
+	 * empty with one call and the non-zero elements are set with one call
+	 * from the shared arrays of the compiled problem (a column occurs at most
+	 * once in each row).
+	 * 
+	 * @param matrix
+	 *            the matrix
+	 * @param compiled
+	 *            the compiled problem
+	 * @throws IloException
+	 */
+	protected void addRows(IloLPMatrix matrix, CompiledProblem compiled) throws IloException {
+		int ncon = compiled.getRowsCount();
+		int[] rowStarts = compiled.getRowStarts();
+		double[] rhs = compiled.getRhs();
+		Operator[] operators = compiled.getOperators();
+
+		double[] lb = new double[ncon];
+		double[] ub = new double[ncon];
+		int[][] ind = new int[ncon][];
+		double[][] val = new double[ncon][];
+		int[] noIndices = new int[0];
+		double[] noValues = new double[0];
+
+		// the row of each non-zero element
+		int[] rows = new int[compiled.getNonZerosCount()];
+
+		for (int k = 0; k < ncon; k++) {
+			ind[k] = noIndices;
+			val[k] = noValues;
+			lb[k] = getLowerBound(operators[k], rhs[k]);
+			ub[k] = getUpperBound(operators[k], rhs[k]);
+			Arrays.fill(rows, rowStarts[k], rowStarts[k + 1], k);
+		}
+
+		if (ncon > 0) {
+			int first = matrix.addRows(lb, ub, ind, val);
+			if (first != 0) {
+				for (int j = 0; j < rows.length; j++) {
+					rows[j] += first;
+				}
+			}
+			if (rows.length > 0) {
+				matrix.setNZs(rows, compiled.getRowIndices(), compiled.getRowValues());
+			}
+		}
+	}
 
-		} catch (IloException e) {
-			e.printStackTrace();
+	/**
+	 * Adds the constraints {@code from} (inclusive) to {@code to} (exclusive)
+	 * to the matrix with one call. The coefficients of a variable that occurs
+	 * several times in a constraint are summed up.
+	 * 
+	 * @param matrix
+	 *            the matrix
+	 * @param problem
+	 *            the problem
+	 * @param from
+	 *            the first constraint
+	 * @param to
+	 *            the last constraint (exclusive)
+	 * @throws IloException
+	 */
+	protected void addRows(IloLPMatrix matrix, Problem problem, int from, int to) throws IloException {
+		int count = to - from;
+		double[] lb = new double[count];
+		double[] ub = new double[count];
+		int[][] ind = new int[count][];
+		double[][] val = new double[count][];
+
+		int[] positions = new int[problem.getVariablesCount()];
+
+		for (int k = 0; k < count; k++) {
+			Constraint constraint = problem.getConstraints().get(from + k);
+			int size = constraint.size();
+
+			int[] indices = new int[size];
+			double[] values = new double[size];
+			int n = getRow(problem, from + k, positions, indices, values, 0);
+			ind[k] = n < size ? Arrays.copyOf(indices, n) : indices;
+			val[k] = n < size ? Arrays.copyOf(values, n) : values;
+
+			double rhs = constraint.getRhs().doubleValue();
+			lb[k] = getLowerBound(constraint.getOperator(), rhs);
+			ub[k] = getUpperBound(constraint.getOperator(), rhs);
 		}
 
-		return null;
+		if (count > 0) {
+			matrix.addRows(lb, ub, ind, val);
+		}
+	}
+
+	/**
+	 * Returns the lower bound of a row with the given operator and
+	 * right-hand-side.
+	 * 
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side
+	 * @return the lower bound
+	 */
+	protected double getLowerBound(Operator operator, double rhs) {
+		return (operator == Operator.LE ? -Double.MAX_VALUE : rhs);
+	}
+
+	/**
+	 * Returns the upper bound of a row with the given operator and
+	 * right-hand-side.
+	 * 
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right-hand-side
+	 * @return the upper bound
+	 */
+	protected double getUpperBound(Operator operator, double rhs) {
+		return (operator == Operator.GE ? Double.MAX_VALUE : rhs);
 	}
 
 	protected void initWithParameters(IloCplex cplex) throws IloException {
-		Object timeout = parameters.get(Solver.TIMEOUT);
 		Object verbose = parameters.get(Solver.VERBOSE);
 
-		if (timeout != null && timeout instanceof Number) {
-			Number number = (Number) timeout;
-			double value = number.doubleValue();
-			cplex.setParam(DoubleParam.TiLim, value);
-		}
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
 			int value = number.intValue();
@@ -211,14 +656,4 @@ public class SolverCPLEX extends AbstractSolver {
 
 	}
 
-	protected void convert(Linear linear, IloLinearNumExpr lin, Map<Object, IloNumVar> varToNum) throws IloException {
-		for (Term term : linear) {
-			Number coeff = term.getCoefficient();
-			Object variable = term.getVariable();
-
-			IloNumVar num = varToNum.get(variable);
-			lin.addTerm(coeff.doubleValue(), num);
-		}
-	}
-
 }
@@ -15,14 +15,18 @@
 package net.sf.javailp;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The class {@code SolverFactory} is used to create {@code Solver} instances.
+ * Implementations have to provide {@link #get()} and the parameters, the
+ * other methods use new solvers by default.
  * 
  * @author lukasiewycz
  * 
  */
-public interface SolverFactory {
+public interface SolverFactory extends AutoCloseable {
 
 	/**
 	 * Sets a parameter.
@@ -48,4 +52,52 @@ public interface SolverFactory {
 	 */
 	public Solver get();
 
+	/**
+	 * Solves the problem asynchronously with a new solver instance on the
+	 * default executor (see {@link Solver#solveAsync(Problem)}).
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the future of the result
+	 */
+	public default CompletableFuture<Result> solveAsync(Problem problem) {
+		return get().solveAsync(problem);
+	}
+
+	/**
+	 * Solves the problem asynchronously with a new solver instance on the
+	 * given executor (see {@link Solver#solveAsync(Problem, Executor)}).
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param executor
+	 *            the executor that runs the solve
+	 * @return the future of the result
+	 */
+	public default CompletableFuture<Result> solveAsync(Problem problem, Executor executor) {
+		return get().solveAsync(problem, executor);
+	}
+
+	/**
+	 * Returns a new session for the given problem. The session keeps the model
+	 * of the solver alive between the solves and applies only the changes of
+	 * the problem if the solver supports this.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return a new session
+	 */
+	public default SolverSession getSession(Problem problem) {
+		return new DefaultSolverSession(get(), problem);
+	}
+
+	/**
+	 * Releases the native objects that are shared by the solvers of this
+	 * factory. The solvers that are still running release them when they
+	 * return. Does nothing by default.
+	 */
+	public default void close() {
+		// no shared native objects
+	}
+
 }
@@ -14,14 +14,29 @@
  */
 package net.sf.javailp;
 
+import gurobi.GRBEnv;
+import gurobi.GRBException;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import net.sf.javailp.SolverGurobi.Environment;
+
 /**
- * The {@code SolverFactoryGurobi} is a {@code SolverFactory} for Gurobi.
+ * The {@code SolverFactoryGurobi} is a {@code SolverFactory} for Gurobi. The
+ * factory keeps the Gurobi environments of finished solves and hands them to
+ * the next solves such that the license is only checked out once per
+ * environment. An environment is used by one solve at a time. The
+ * environments are released with {@link #close()}.
  * 
- * @author fabiogenoese
+ * @author fabiogenoese, lukasiewycz
  * 
  */
 public class SolverFactoryGurobi extends AbstractSolverFactory {
 
+	protected final Queue<Environment> envs = new ConcurrentLinkedQueue<Environment>();
+	protected volatile boolean closed = false;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -29,7 +44,57 @@ public class SolverFactoryGurobi extends AbstractSolverFactory {
 	 */
 	@Override
 	protected Solver getInternal() {
-		return new SolverGurobi();
+		return new SolverGurobi(this);
+	}
+
+	/**
+	 * Returns an idle environment or a new one if all environments are in use.
+	 * 
+	 * @return the environment
+	 * @throws GRBException
+	 *             if a new environment cannot be created
+	 * @throws IllegalStateException
+	 *             if the factory is closed
+	 */
+	protected Environment acquire() throws GRBException {
+		if (closed) {
+			throw new IllegalStateException("The factory is closed.");
+		}
+		Environment env = envs.poll();
+		return (env != null ? env : new Environment(this, new GRBEnv("gurobi.log")));
+	}
+
+	/**
+	 * Returns an environment that is no longer used to the factory. The
+	 * environment is released if the factory is closed.
+	 * 
+	 * @param env
+	 *            the environment
+	 */
+	protected void release(Environment env) {
+		if (closed) {
+			env.release();
+		} else {
+			envs.offer(env);
+			// the factory may have been closed in the meantime
+			if (closed) {
+				close();
+			}
+		}
+	}
+
+	/**
+	 * Releases all idle environments. Environments that are still in use are
+	 * released as soon as their solve is finished. No solve can be started
+	 * afterwards.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		Environment env;
+		while ((env = envs.poll()) != null) {
+			env.release();
+		}
 	}
 
 }
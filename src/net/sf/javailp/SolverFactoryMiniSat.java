@@ -14,14 +14,26 @@
  */
 package net.sf.javailp;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import net.sf.javailp.minisat.MiniSat;
+
 /**
- * The {@code SolverFactoryMiniSat} is a {@code SolverFactory} for MiniSat+.
+ * The {@code SolverFactoryMiniSat} is a {@code SolverFactory} for MiniSat+. The
+ * factory keeps the MiniSat+ instances of finished solves and hands them to
+ * the next solves. An instance is used by one solve at a time and cleared
+ * before it is returned to the factory. The instances are freed with
+ * {@link #close()}.
  * 
  * @author lukasiewycz
  * 
  */
 public class SolverFactoryMiniSat extends AbstractSolverFactory {
 
+	protected final Queue<MiniSat> instances = new ConcurrentLinkedQueue<MiniSat>();
+	protected volatile boolean closed = false;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -29,7 +41,45 @@ public class SolverFactoryMiniSat extends AbstractSolverFactory {
 	 */
 	@Override
 	protected Solver getInternal() {
-		return new SolverMiniSat();
+		return new SolverMiniSat(this);
+	}
+
+	/**
+	 * Returns an idle instance or a new one if all instances are in use.
+	 * 
+	 * @return the instance
+	 */
+	protected MiniSat acquire() {
+		MiniSat minisat = instances.poll();
+		return (minisat != null ? minisat : new MiniSat());
+	}
+
+	/**
+	 * Returns an instance that is no longer used to the factory. The instance
+	 * is freed if the factory is closed.
+	 * 
+	 * @param minisat
+	 *            the instance
+	 */
+	protected void release(MiniSat minisat) {
+		minisat.clear();
+		instances.offer(minisat);
+		if (closed) {
+			close();
+		}
+	}
+
+	/**
+	 * Frees all idle instances. Instances that are still in use are freed as
+	 * soon as their solve is finished.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		MiniSat minisat;
+		while ((minisat = instances.poll()) != null) {
+			minisat.close();
+		}
 	}
 
 }
@@ -19,7 +19,10 @@ import mosek.Error;
 import mosek.Warning;
 
 /**
- * The {@code SolverFactoryCPLEX} is a {@code SolverFactory} for Mosek.
+ * The {@code SolverFactoryMosek} is a {@code SolverFactory} for Mosek. The
+ * solvers of the factory share one environment. The environment is released
+ * with {@link #close()} or once the factory and all its solvers are no longer
+ * reachable.
  * 
  * @author lukasiewycz
  * 
@@ -27,12 +30,16 @@ import mosek.Warning;
 public class SolverFactoryMosek extends AbstractSolverFactory {
 
 	protected final Env env;
+	protected final Environment environment;
 
 	/**
 	 * Constructs a {@code SolverFactoryMosek}.
 	 */
 	public SolverFactoryMosek() {
 		env = new Env();
+		// the factory owns the environment, the solvers keep the factory
+		// reachable
+		environment = new Environment(this, env);
 		try {
 			env.init();
 		} catch (Error e) {
@@ -49,7 +56,50 @@ public class SolverFactoryMosek extends AbstractSolverFactory {
 	 */
 	@Override
 	protected Solver getInternal() {
-		return new SolverMosek(env);
+		return new SolverMosek(env, this);
+	}
+
+	/**
+	 * Disposes the environment. The solvers of this factory must not be used
+	 * afterwards.
+	 */
+	@Override
+	public void close() {
+		environment.release();
+	}
+
+	/**
+	 * The {@code Environment} disposes a Mosek environment.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Environment extends NativeResource {
+
+		protected final Env env;
+
+		/**
+		 * Constructs an {@code Environment}.
+		 * 
+		 * @param owner
+		 *            the owner
+		 * @param env
+		 *            the environment
+		 */
+		public Environment(Object owner, Env env) {
+			super(owner, "Mosek environment");
+			this.env = env;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.NativeResource#free()
+		 */
+		@Override
+		protected void free() {
+			env.dispose();
+		}
 	}
 
 }
@@ -0,0 +1,74 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The {@code SolverFactoryPortfolio} is a {@code SolverFactory} for the
+ * {@link SolverPortfolio} that races the solvers of the given factories.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolverFactoryPortfolio extends AbstractSolverFactory {
+
+	protected final List<SolverFactory> factories = new ArrayList<SolverFactory>();
+
+	/**
+	 * Constructs a {@code SolverFactoryPortfolio}.
+	 * 
+	 * @param factories
+	 *            the factories of the solvers
+	 */
+	public SolverFactoryPortfolio(SolverFactory... factories) {
+		this(Arrays.asList(factories));
+	}
+
+	/**
+	 * Constructs a {@code SolverFactoryPortfolio}.
+	 * 
+	 * @param factories
+	 *            the factories of the solvers
+	 */
+	public SolverFactoryPortfolio(Collection<? extends SolverFactory> factories) {
+		super();
+		this.factories.addAll(factories);
+	}
+
+	/**
+	 * Adds the factory of a further solver.
+	 * 
+	 * @param factory
+	 *            the factory
+	 */
+	public void add(SolverFactory factory) {
+		factories.add(factory);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolverFactory#getInternal()
+	 */
+	@Override
+	protected Solver getInternal() {
+		return new SolverPortfolio(factories);
+	}
+
+}
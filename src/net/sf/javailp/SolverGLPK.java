@@ -14,11 +14,12 @@
  */
 package net.sf.javailp;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import net.sf.javailp.SolveMetrics.Phase;
+
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
 import org.gnu.glpk.SWIGTYPE_p_double;
@@ -88,197 +89,116 @@ public class SolverGLPK extends AbstractSolver {
 	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
 	 */
 	public Result solve(Problem problem) {
+		return solve(problem, (double[]) null);
+	}
 
-		Map<Integer, Object> indexToVar = new HashMap<Integer, Object>();
-		Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
-		Map<Integer, Constraint> indexToCon = new HashMap<Integer, Constraint>();
-		int numberOfIntegerVariables = 0;
-		//Map<Constraint, Integer> conToIndex = new HashMap<Constraint, Integer>();
-
-		int i = 1;
-		for (Object variable : problem.getVariables()) {
-			indexToVar.put(i, variable);
-			varToIndex.put(variable, i);
-			i++;
-		}
-		int k = 1;
-		for (Constraint constraint : problem.getConstraints()) {
-			indexToCon.put(k, constraint);
-			//conToIndex.put(constraint, k);
-			k++;
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solve(net.sf.javailp.Problem,
+	 * double[])
+	 */
+	@Override
+	protected Result solve(Problem problem, double[] start) {
+		return run(new Session(problem), start);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#openSession(net.sf.javailp.Problem)
+	 */
+	@Override
+	public SolverSession openSession(Problem problem) {
+		return new Session(problem);
+	}
+
+	/**
+	 * The {@code Session} keeps the GLPK problem. All changes of the problem
+	 * are applied incrementally.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Session extends AbstractSolverSession {
+
+		protected glp_prob lp = null;
+		protected glp_smcp simplexParameters = null;
+		protected glp_iocp integerParameters = null;
+		protected final int names = getNames();
+		protected boolean warm = false;
+
+		/**
+		 * Constructs a {@code Session}.
+		 * 
+		 * @param problem
+		 *            the problem
+		 */
+		public Session(Problem problem) {
+			super(problem, SolverGLPK.this.parameters);
 		}
 
-		int ncon = problem.getConstraintsCount();
-		int nvar = problem.getVariablesCount();
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#isIncremental(net.sf.javailp
+		 * .ChangeType)
+		 */
+		@Override
+		protected boolean isIncremental(ChangeType type) {
+			return true;
+		}
 
-		glp_prob lp = null;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#build()
+		 */
+		@Override
+		protected void build() {
+			CompiledProblem compiled = problem.compile();
+			int ncon = compiled.getRowsCount();
+			int nvar = compiled.getColumnsCount();
 
-		lp = GLPK.glp_create_prob();
+			lp = GLPK.glp_create_prob();
+			register(new Model(this, lp));
+			warm = false;
 
-		try {
 			GLPK.glp_set_prob_name(lp, "myProblem");
 
-			{
-				GLPK.glp_add_cols(lp, nvar);
-				for (i = 1; i <= nvar; i++) {
-					Object variable = indexToVar.get(i);
-
-					VarType varType = problem.getVarType(variable);
-					Number lowerBound = problem.getVarLowerBound(variable);
-					Number upperBound = problem.getVarUpperBound(variable);
-
-					final String name = variable.toString();
-					final int kind;
-					
-					switch (varType) {
-					case BOOL:
-					case INT:
-						kind = GLPKConstants.GLP_IV;
-						numberOfIntegerVariables++;
-						break;
-					default: // REAL
-						kind = GLPKConstants.GLP_CV;
-					}
-
-					Double lb = null;
-					Double ub = null;
-
-					if (varType == VarType.BOOL) {
-						lb = 0.0;
-						ub = 1.0;
-						if (lowerBound != null && lowerBound.doubleValue() > 0) {
-							lb = 1.0;
-						}
-						if (upperBound != null && upperBound.doubleValue() < 1) {
-							ub = 0.0;
-						}
-					} else {
-						if (lowerBound != null) {
-							lb = lowerBound.doubleValue();
-						}
-						if (upperBound != null) {
-							ub = upperBound.doubleValue();
-						}
-					}
-
-					final int bounds;
-					if (lb != null && ub != null) {
-						bounds = GLPKConstants.GLP_DB;
-					} else if (lb != null) {
-						bounds = GLPKConstants.GLP_LO;
-					} else if (ub != null) {
-						bounds = GLPKConstants.GLP_UP;
-					} else {
-						bounds = GLPKConstants.GLP_FR;
-					}
-
-					if (lb == null) {
-						lb = 0.0;
-					}
-					if (ub == null) {
-						ub = 0.0;
-					}
-
-					GLPK.glp_set_col_name(lp, i, name);
-					GLPK.glp_set_col_kind(lp, i, kind);
-					GLPK.glp_set_col_bnds(lp, i, bounds, lb, ub);
-				}
+			GLPK.glp_add_cols(lp, nvar);
+			for (int i = 1; i <= nvar; i++) {
+				setColumn(lp, problem, i, names);
 			}
 
-			{
-				GLPK.glp_add_rows(lp, ncon);
-
-				k = 1;
-				for (k = 1; k <= ncon; k++) {
-					Constraint constraint = indexToCon.get(k);
-
-					Linear linear = constraint.getLhs();
-					double rhs = constraint.getRhs().doubleValue();
-					int size = linear.size();
-					final String name = constraint.getName();
-
-					SWIGTYPE_p_int vars = GLPK.new_intArray(size + 1);
-					SWIGTYPE_p_double coeffs = GLPK.new_doubleArray(size + 1);
-
-					int j = 1;
-					for (Term term : linear) {
-						Object variable = term.getVariable();
-						int var = varToIndex.get(variable);
-						double coeff = term.getCoefficient().doubleValue();
-
-						GLPK.intArray_setitem(vars, j, var);
-						GLPK.doubleArray_setitem(coeffs, j, coeff);
-						j++;
-					}
-
-					final int comp;
-					switch (constraint.getOperator()) {
-					case LE:
-						comp = GLPKConstants.GLP_UP;
-						break;
-					case GE:
-						comp = GLPKConstants.GLP_LO;
-						break;
-					default: // EQ
-						comp = GLPKConstants.GLP_FX;
-					}
-
+			GLPK.glp_add_rows(lp, ncon);
+			for (int k = 1; k <= ncon; k++) {
+				final String name = getConstraintName(problem, k - 1, names);
+				if (name != null) {
 					GLPK.glp_set_row_name(lp, k, name);
-					GLPK.glp_set_mat_row(lp, k, size, vars, coeffs);
-					GLPK.glp_set_row_bnds(lp, k, comp, rhs, rhs);
-					
 				}
+				setRowBounds(lp, problem.getConstraints().get(k - 1), k);
 			}
+			loadMatrix(lp, compiled);
 
-			if (problem.getObjective() != null) {
-				Linear objective = problem.getObjective();
-
-				if (problem.getOptType() == OptType.MAX) {
-					GLPK.glp_set_obj_dir(lp, GLPKConstants.GLP_MAX);
-				} else {
-					GLPK.glp_set_obj_dir(lp, GLPKConstants.GLP_MIN);
-				}
-
-				GLPK.glp_set_obj_coef(lp, 0, 0);
-
-				final Map<Object, Double> obj = new HashMap<Object, Double>();
-				for (Term term : objective) {
-					Object variable = term.getVariable();
-					double coeff = term.getCoefficient().doubleValue();
-					obj.put(variable, coeff);
-				}
-
-				for (i = 1; i <= nvar; i++) {
-					Object variable = indexToVar.get(i);
-					if (obj.containsKey(variable)) {
-						double coeff = obj.get(variable);
-						GLPK.glp_set_obj_coef(lp, i, coeff);
-					} else {
-						GLPK.glp_set_obj_coef(lp, i, 0);
-					}
-				}
-			}
+			setObjective(lp, problem);
 
-			Object timeout = parameters.get(Solver.TIMEOUT);
 			Object verbose = parameters.get(Solver.VERBOSE);
 
-			glp_smcp simplexParameters = new glp_smcp();
-			glp_iocp integerParameters = new glp_iocp();
+			simplexParameters = new glp_smcp();
+			integerParameters = new glp_iocp();
 
-			for (Hook hook : hooks) {
-				hook.call(lp, simplexParameters, integerParameters, varToIndex);
+			if (!hooks.isEmpty()) {
+				Map<Object, Integer> varToIndex = getVarToIndex(problem, 1);
+				for (Hook hook : hooks) {
+					hook.call(lp, simplexParameters, integerParameters, varToIndex);
+				}
 			}
 
 			GLPK.glp_init_smcp(simplexParameters);
 			GLPK.glp_init_iocp(integerParameters);
 
-			if (timeout != null) {
-				int v = ((Number) timeout).intValue() * 1000;
-
-				integerParameters.setTm_lim(v);
-				simplexParameters.setTm_lim(v);
-			}
-
 			if (verbose != null && verbose instanceof Number) {
 				Number number = (Number) verbose;
 				int value = number.intValue();
@@ -300,47 +220,407 @@ public class SolverGLPK extends AbstractSolver {
 				simplexParameters.setMsg_lev(msgLevel);
 				integerParameters.setMsg_lev(msgLevel);
 			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#update(net.sf.javailp.Change)
+		 */
+		@Override
+		protected void update(Change change) {
+			int index = change.getIndex();
+			int count = change.getCount();
+
+			switch (change.getType()) {
+			case VARIABLE_ADDED:
+				GLPK.glp_add_cols(lp, count);
+				for (int i = index + 1; i <= index + count; i++) {
+					setColumn(lp, problem, i, names);
+				}
+				break;
+			case VARIABLE_TYPE:
+			case VARIABLE_BOUNDS:
+				setColumn(lp, problem, index + 1, names);
+				break;
+			case CONSTRAINT_ADDED:
+				GLPK.glp_add_rows(lp, count);
+				int[] positions = new int[problem.getVariablesCount()];
+				for (int k = index + 1; k <= index + count; k++) {
+					setRow(lp, problem, k, names, positions);
+				}
+				break;
+			case CONSTRAINT_REMOVED:
+				SWIGTYPE_p_int rows = GLPK.new_intArray(2);
+				try {
+					GLPK.intArray_setitem(rows, 1, index + 1);
+					GLPK.glp_del_rows(lp, 1, rows);
+				} finally {
+					GLPK.delete_intArray(rows);
+				}
+				break;
+			case CONSTRAINT_RHS:
+				setRowBounds(lp, problem.getConstraints().get(index), index + 1);
+				break;
+			default: // OBJECTIVE, OPTIMIZATION_TYPE
+				setObjective(lp, problem);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#optimize(double[])
+		 */
+		@Override
+		protected Result optimize(double[] start) {
+			int ncon = problem.getConstraintsCount();
+			int nvar = problem.getVariablesCount();
+
+			// starting values are not supported, the simplex starts from the
+			// basis of the last solve of the session
+
+			int numberOfIntegerVariables = 0;
+			for (int i = 0; i < nvar; i++) {
+				if (problem.getVarTypeAt(i).isInt()) {
+					numberOfIntegerVariables++;
+				}
+			}
+
+			// the first solve is presolved, the following solves start from
+			// the last optimal basis
+			simplexParameters.setPresolve(warm ? GLPKConstants.GLP_OFF : GLPKConstants.GLP_ON);
+			simplexParameters.setTm_lim(getTimeLimit());
+			metrics.enter(Phase.OPTIMIZATION);
+			int ret = GLPK.glp_simplex(lp, simplexParameters);
+			boolean optimal = (ret == 0 && GLPK.glp_get_status(lp) == GLPKConstants.GLP_OPT);
+			warm = warm || optimal;
+			metrics.setOptimal(optimal);
 
 			if (numberOfIntegerVariables == 0) {
-				
-				GLPK.glp_simplex(lp, simplexParameters);
-				
-				Result result;
-				if (problem.getObjective() != null) {
-					result = new ResultImpl(problem.getObjective());
-				} else {
-					result = new ResultImpl();
+				metrics.enter(Phase.EXTRACTION);
+
+				double[] primalValues = new double[nvar];
+				double[] dualValues = new double[nvar];
+				for (int i = 1; i <= nvar; i++) {
+					primalValues[i - 1] = GLPK.glp_get_col_prim(lp, i);
+					dualValues[i - 1] = GLPK.glp_get_col_dual(lp, i);
 				}
-				
-				for (i = 1; i <= nvar; i++) {
-					Object variable = indexToVar.get(i);
-					double primalValue = GLPK.glp_get_col_prim(lp, i);
-					double dualValue = GLPK.glp_get_col_dual(lp, i);
-
-					if (problem.getVarType(variable).isInt()) {
-						int v = (int) Math.round(primalValue);
-						result.putPrimalValue(variable, v);
-					} else {
-						result.putPrimalValue(variable, primalValue);
-					}
-					result.putDualValue(variable, dualValue);
+
+				ResultArray result = new ResultArray(problem, primalValues, false);
+				result.setDualValues(dualValues);
+
+				double[] rowPrimalValues = new double[ncon];
+				double[] rowDualValues = new double[ncon];
+				for (int i = 1; i <= ncon; i++) {
+					rowPrimalValues[i - 1] = GLPK.glp_get_row_prim(lp, i);
+					rowDualValues[i - 1] = GLPK.glp_get_row_dual(lp, i);
+				}
+				result.setRowValues(rowPrimalValues, rowDualValues);
+
+				return result;
+			} else if (optimal) {
+				// the branch and bound starts from the optimal basis of the LP
+				// relaxation
+				integerParameters.setPresolve(GLPKConstants.GLP_OFF);
+				integerParameters.setTm_lim(getTimeLimit());
+				GLPK.glp_intopt(lp, integerParameters);
+				metrics.enter(Phase.EXTRACTION);
+
+				int status = GLPK.glp_mip_status(lp);
+				if (status != GLPKConstants.GLP_OPT && status != GLPKConstants.GLP_FEAS) {
+					return null;
 				}
+				metrics.setOptimal(status == GLPKConstants.GLP_OPT);
 
-				for (i = 1; i <= ncon; i++) {
-					Constraint constraint = indexToCon.get(i);
-					double primalValue = GLPK.glp_get_row_prim(lp, i);
-					double dualValue = GLPK.glp_get_row_dual(lp, i);
-					result.putPrimalValue(constraint.getName(), primalValue);
-					result.putDualValue(constraint.getName(), dualValue);
+				double[] values = new double[nvar];
+				for (int i = 1; i <= nvar; i++) {
+					values[i - 1] = GLPK.glp_mip_col_val(lp, i);
 				}
-				
+				ResultArray result = getResult(values);
+
+				double[] rowValues = new double[ncon];
+				for (int i = 1; i <= ncon; i++) {
+					rowValues[i - 1] = GLPK.glp_mip_row_val(lp, i);
+				}
+				result.setRowValues(rowValues, null);
+
 				return result;
 			} else {
+				// the LP relaxation is infeasible or unbounded
 				return null;
 			}
+		}
 
-		} finally {
+		/**
+		 * Returns the remaining time in milliseconds as GLPK time limit.
+		 * 
+		 * @return the time limit
+		 */
+		protected int getTimeLimit() {
+			return (int) Math.max(Math.min(getRemainingMillis(), Integer.MAX_VALUE), 1);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#dispose()
+		 */
+		@Override
+		protected void dispose() {
+			lp = null;
+		}
+	}
+
+	/**
+	 * The {@code Model} deletes a GLPK problem.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Model extends NativeResource {
+
+		protected final glp_prob lp;
+
+		/**
+		 * Constructs a {@code Model}.
+		 * 
+		 * @param owner
+		 *            the owner
+		 * @param lp
+		 *            the glpk problem
+		 */
+		public Model(Object owner, glp_prob lp) {
+			super(owner, "GLPK problem");
+			this.lp = lp;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.NativeResource#free()
+		 */
+		@Override
+		protected void free() {
 			GLPK.glp_delete_prob(lp);
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Sets the name, kind, and bounds of the {@code i}-th column (starting
+	 * with 1).
+	 * 
+	 * @param lp
+	 *            the glpk problem
+	 * @param problem
+	 *            the problem
+	 * @param i
+	 *            the column
+	 * @param names
+	 *            the naming value
+	 */
+	protected void setColumn(glp_prob lp, Problem problem, int i, int names) {
+		Object variable = problem.getVariable(i - 1);
+
+		VarType varType = problem.getVarTypeAt(i - 1);
+		double lowerBound = problem.getVarLowerBoundAt(i - 1);
+		double upperBound = problem.getVarUpperBoundAt(i - 1);
+
+		final int kind;
+
+		switch (varType) {
+		case BOOL:
+		case INT:
+			kind = GLPKConstants.GLP_IV;
+			break;
+		default: // REAL
+			kind = GLPKConstants.GLP_CV;
+		}
+
+		Double lb = null;
+		Double ub = null;
+
+		if (varType == VarType.BOOL) {
+			lb = 0.0;
+			ub = 1.0;
+			if (lowerBound > 0) {
+				lb = 1.0;
+			}
+			if (upperBound < 1) {
+				ub = 0.0;
+			}
+		} else {
+			if (lowerBound != Double.NEGATIVE_INFINITY) {
+				lb = lowerBound;
+			}
+			if (upperBound != Double.POSITIVE_INFINITY) {
+				ub = upperBound;
+			}
+		}
+
+		final int bounds;
+		if (lb != null && ub != null) {
+			bounds = GLPKConstants.GLP_DB;
+		} else if (lb != null) {
+			bounds = GLPKConstants.GLP_LO;
+		} else if (ub != null) {
+			bounds = GLPKConstants.GLP_UP;
+		} else {
+			bounds = GLPKConstants.GLP_FR;
+		}
+
+		if (lb == null) {
+			lb = 0.0;
+		}
+		if (ub == null) {
+			ub = 0.0;
+		}
+
+		if (names > 0) {
+			GLPK.glp_set_col_name(lp, i, variable.toString());
+		}
+		GLPK.glp_set_col_kind(lp, i, kind);
+		GLPK.glp_set_col_bnds(lp, i, bounds, lb, ub);
+	}
+
+	/**
+	 * Sets the name, coefficients, and bounds of the {@code k}-th row
+	 * (starting with 1). Duplicate columns are merged since
+	 * {@code glp_set_mat_row} rejects them.
+	 * 
+	 * @param lp
+	 *            the glpk problem
+	 * @param problem
+	 *            the problem
+	 * @param k
+	 *            the row
+	 * @param names
+	 *            the naming value
+	 * @param positions
+	 *            the work array of {@link #getRow}
+	 */
+	protected void setRow(glp_prob lp, Problem problem, int k, int names, int[] positions) {
+		Constraint constraint = problem.getConstraints().get(k - 1);
+
+		int size = constraint.size();
+		final String name = getConstraintName(problem, k - 1, names);
+
+		int[] indices = new int[size];
+		double[] values = new double[size];
+		size = getRow(problem, k - 1, positions, indices, values, 0);
+
+		SWIGTYPE_p_int vars = GLPK.new_intArray(size + 1);
+		SWIGTYPE_p_double coeffs = GLPK.new_doubleArray(size + 1);
+
+		try {
+			for (int j = 0; j < size; j++) {
+				GLPK.intArray_setitem(vars, j + 1, indices[j] + 1);
+				GLPK.doubleArray_setitem(coeffs, j + 1, values[j]);
+			}
+
+			if (name != null) {
+				GLPK.glp_set_row_name(lp, k, name);
+			}
+			GLPK.glp_set_mat_row(lp, k, size, vars, coeffs);
+			setRowBounds(lp, constraint, k);
+		} finally {
+			GLPK.delete_intArray(vars);
+			GLPK.delete_doubleArray(coeffs);
+		}
+	}
+
+	/**
+	 * Loads the coefficients of all rows row by row. A
+	 * {@code glp_load_matrix} call would need three native calls per
+	 * non-zero element to fill its arrays, {@code glp_set_mat_row} needs two
+	 * per non-zero element and one per row. The native arrays are allocated
+	 * once for the longest row.
+	 * 
+	 * @param lp
+	 *            the glpk problem
+	 * @param compiled
+	 *            the compiled problem
+	 */
+	protected void loadMatrix(glp_prob lp, CompiledProblem compiled) {
+		int ncon = compiled.getRowsCount();
+		int[] rowStarts = compiled.getRowStarts();
+		int[] rowIndices = compiled.getRowIndices();
+		double[] rowValues = compiled.getRowValues();
+
+		int max = 0;
+		for (int k = 0; k < ncon; k++) {
+			max = Math.max(max, rowStarts[k + 1] - rowStarts[k]);
+		}
+
+		SWIGTYPE_p_int vars = GLPK.new_intArray(max + 1);
+		SWIGTYPE_p_double coeffs = GLPK.new_doubleArray(max + 1);
+
+		try {
+			for (int k = 0; k < ncon; k++) {
+				int start = rowStarts[k];
+				int size = rowStarts[k + 1] - start;
+				for (int j = 0; j < size; j++) {
+					GLPK.intArray_setitem(vars, j + 1, rowIndices[start + j] + 1);
+					GLPK.doubleArray_setitem(coeffs, j + 1, rowValues[start + j]);
+				}
+				GLPK.glp_set_mat_row(lp, k + 1, size, vars, coeffs);
+			}
+		} finally {
+			GLPK.delete_intArray(vars);
+			GLPK.delete_doubleArray(coeffs);
+		}
+	}
+
+	protected void setRowBounds(glp_prob lp, Constraint constraint, int k) {
+		double rhs = constraint.getRhs().doubleValue();
+
+		final int comp;
+		switch (constraint.getOperator()) {
+		case LE:
+			comp = GLPKConstants.GLP_UP;
+			break;
+		case GE:
+			comp = GLPKConstants.GLP_LO;
+			break;
+		default: // EQ
+			comp = GLPKConstants.GLP_FX;
+		}
+
+		GLPK.glp_set_row_bnds(lp, k, comp, rhs, rhs);
+	}
+
+	/**
+	 * Sets the objective function and the optimization direction. A missing
+	 * objective function is set to zero.
+	 * 
+	 * @param lp
+	 *            the glpk problem
+	 * @param problem
+	 *            the problem
+	 */
+	protected void setObjective(glp_prob lp, Problem problem) {
+		int nvar = problem.getVariablesCount();
+		Linear objective = problem.getObjective();
+
+		if (problem.getOptType() == OptType.MAX) {
+			GLPK.glp_set_obj_dir(lp, GLPKConstants.GLP_MAX);
+		} else {
+			GLPK.glp_set_obj_dir(lp, GLPKConstants.GLP_MIN);
+		}
+
+		GLPK.glp_set_obj_coef(lp, 0, 0);
+
+		final double[] obj = new double[nvar + 1];
+		if (objective != null) {
+			for (int j = 0; j < objective.size(); j++) {
+				double coeff = objective.getCoefficient(j);
+				obj[problem.getVariableIndex(objective.getVariable(j)) + 1] += coeff;
+			}
+		}
+
+		for (int i = 1; i <= nvar; i++) {
+			GLPK.glp_set_obj_coef(lp, i, obj[i]);
+		}
+	}
+}
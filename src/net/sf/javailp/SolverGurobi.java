@@ -15,18 +15,25 @@
 package net.sf.javailp;
 
 import gurobi.GRB;
+import gurobi.GRBCallback;
+import gurobi.GRBConstr;
 import gurobi.GRBEnv;
 import gurobi.GRBException;
 import gurobi.GRBLinExpr;
 import gurobi.GRBModel;
 import gurobi.GRBVar;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
+import net.sf.javailp.SolveMetrics.Phase;
+
 /**
  * The {@code SolverGurobi} is the {@code Solver} Gurobi.
  * 
@@ -35,134 +42,577 @@ import java.util.Set;
  */
 public class SolverGurobi extends AbstractSolver {
 
+	protected final SolverFactoryGurobi factory;
+
+	/**
+	 * Constructs a {@code SolverGurobi} that creates its own environment for
+	 * each solve.
+	 */
+	public SolverGurobi() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a {@code SolverGurobi} that takes the environments from the
+	 * given factory.
+	 * 
+	 * @param factory
+	 *            the factory that owns the environments (or {@code null})
+	 */
+	public SolverGurobi(SolverFactoryGurobi factory) {
+		super();
+		this.factory = factory;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
 	 */
 	public Result solve(Problem problem) {
+		return solve(problem, (double[]) null);
+	}
 
-		Map<Object, GRBVar> objToVar = new HashMap<Object, GRBVar>();
-		Map<GRBVar, Object> varToObj = new HashMap<GRBVar, Object>();
-		// Map<String, GRBVar> nameToVar = new HashMap<String, GRBVar>(nvar);
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solve(net.sf.javailp.Problem,
+	 * double[])
+	 */
+	@Override
+	protected Result solve(Problem problem, double[] start) {
+		return run(new Session(problem), start);
+	}
 
-		try {
-			GRBEnv env = new GRBEnv("gurobi.log");
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#openSession(net.sf.javailp.Problem)
+	 */
+	@Override
+	public SolverSession openSession(Problem problem) {
+		return new Session(problem);
+	}
 
-			initWithParameters(env);
+	/**
+	 * The {@code Session} keeps the Gurobi environment and model. All changes
+	 * of the problem are applied incrementally.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Session extends AbstractSolverSession {
 
-			GRBModel model = new GRBModel(env);
+		protected Environment environment = null;
+		protected GRBEnv env = null;
+		protected GRBModel model = null;
+		protected Model resource = null;
+		protected GRBVar[] vars = null;
+		protected final List<GRBConstr> constrs = new ArrayList<GRBConstr>();
+		protected final int names = getNames();
+		protected boolean started = false;
 
-			OptType optType = problem.getOptType();
-			Map<Object, Double> optimizationCoefficients = new HashMap<Object, Double>();
-			Linear objective = problem.getObjective();
-			if (objective != null) {
-				for (Term term : objective) {
-					Object variable = term.getVariable();
-					double coeff = term.getCoefficient().doubleValue();
-					if (optType == OptType.MAX) {
-						coeff *= -1;
-					}
-					optimizationCoefficients.put(variable, coeff);
-				}
+		/**
+		 * Constructs a {@code Session}.
+		 * 
+		 * @param problem
+		 *            the problem
+		 */
+		public Session(Problem problem) {
+			super(problem, SolverGurobi.this.parameters);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#isIncremental(net.sf.javailp
+		 * .ChangeType)
+		 */
+		@Override
+		protected boolean isIncremental(ChangeType type) {
+			return true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#build()
+		 */
+		@Override
+		protected void build() throws GRBException {
+			int nvar = problem.getVariablesCount();
+
+			if (environment == null) {
+				environment = (factory != null ? factory.acquire() : register(new Environment(this, new GRBEnv(
+						"gurobi.log"))));
+				env = environment.env;
 			}
 
-			int i = 1;
-			for (Object variable : problem.getVariables()) {
-				VarType varType = problem.getVarType(variable);
-				Number lowerBound = problem.getVarLowerBound(variable);
-				Number upperBound = problem.getVarUpperBound(variable);
-
-				double lb = (lowerBound != null ? lowerBound.doubleValue()
-						: -Double.MAX_VALUE);
-				double ub = (upperBound != null ? upperBound.doubleValue()
-						: Double.MAX_VALUE);
-
-				final String name = variable.toString();
-				final char type;
-				switch (varType) {
-				case BOOL:
-					type = GRB.BINARY;
-					break;
-				case INT:
-					type = GRB.INTEGER;
-					break;
-				default: // REAL
-					type = GRB.CONTINUOUS;
-					break;
+			// the model has its own copy of the environment for the parameters
+			model = new GRBModel(env);
+			resource = register(new Model(this, model));
+			initWithParameters(model.getEnv());
+			started = false;
+
+			vars = addVariables(model, problem, 0, nvar, getObjective(problem), names);
+			model.update();
+
+			constrs.clear();
+			constrs.addAll(Arrays.asList(addConstraints(model, vars, problem, 0, problem.getConstraintsCount(), names)));
+
+			if (!hooks.isEmpty()) {
+				Map<Object, GRBVar> objToVar = new HashMap<Object, GRBVar>();
+				Map<GRBVar, Object> varToObj = new HashMap<GRBVar, Object>();
+				for (int i = 0; i < nvar; i++) {
+					objToVar.put(problem.getVariable(i), vars[i]);
+					varToObj.put(vars[i], problem.getVariable(i));
+				}
+				for (Hook hook : hooks) {
+					hook.call(model.getEnv(), model, objToVar, varToObj, problem);
 				}
+			}
+		}
 
-				Double coeff = optimizationCoefficients.get(variable);
-				if (coeff == null) {
-					coeff = 0.0;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#update(net.sf.javailp.Change)
+		 */
+		@Override
+		protected void update(Change change) throws GRBException {
+			int index = change.getIndex();
+			int count = change.getCount();
+
+			switch (change.getType()) {
+			case VARIABLE_ADDED:
+				GRBVar[] tmp = new GRBVar[index + count];
+				System.arraycopy(vars, 0, tmp, 0, index);
+				System.arraycopy(addVariables(model, problem, index, index + count, null, names), 0, tmp, index, count);
+				vars = tmp;
+				model.update();
+				break;
+			case VARIABLE_TYPE:
+			case VARIABLE_BOUNDS:
+				double[] bounds = getBounds(problem, index);
+				vars[index].set(GRB.DoubleAttr.LB, bounds[0]);
+				vars[index].set(GRB.DoubleAttr.UB, bounds[1]);
+				vars[index].set(GRB.CharAttr.VType, getType(problem, index));
+				break;
+			case CONSTRAINT_ADDED:
+				constrs.addAll(index, Arrays.asList(addConstraints(model, vars, problem, index, index + count, names)));
+				model.update();
+				break;
+			case CONSTRAINT_REMOVED:
+				model.remove(constrs.remove(index));
+				break;
+			case CONSTRAINT_RHS:
+				constrs.get(index).set(GRB.DoubleAttr.RHS,
+						problem.getConstraints().get(index).getRhs().doubleValue());
+				break;
+			default: // OBJECTIVE, OPTIMIZATION_TYPE
+				model.set(GRB.DoubleAttr.Obj, vars, getObjective(problem));
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#optimize(double[])
+		 */
+		@Override
+		protected Result optimize(double[] start) throws GRBException {
+			int nvar = problem.getVariablesCount();
+
+			// starting values of a previous solve are reset
+			if (start != null || started) {
+				double[] values = new double[nvar];
+				for (int i = 0; i < nvar; i++) {
+					double value = getStartValue(start, i);
+					values[i] = (!Double.isNaN(value) ? value : GRB.UNDEFINED);
 				}
+				model.set(GRB.DoubleAttr.Start, vars, values);
+				started = (start != null);
+			}
 
-				GRBVar var = model.addVar(lb, ub, coeff, type, name);
-				objToVar.put(variable, var);
-				varToObj.put(var, variable);
-				i++;
+			model.getEnv().set(GRB.DoubleParam.TimeLimit, Math.min(getRemainingSeconds(), GRB.INFINITY));
+			model.setCallback(getListener() != null ? new Incumbents() : null);
+			metrics.enter(Phase.OPTIMIZATION);
+			model.optimize();
+			metrics.enter(Phase.EXTRACTION);
+			metrics.setIterations((long) model.get(GRB.DoubleAttr.IterCount));
+			metrics.setOptimal(model.get(GRB.IntAttr.Status) == GRB.Status.OPTIMAL);
+			boolean mip = model.get(GRB.IntAttr.IsMIP) != 0;
+			if (mip) {
+				metrics.setNodes((long) model.get(GRB.DoubleAttr.NodeCount));
 			}
-			model.update();
 
-			for (Constraint constraint : problem.getConstraints()) {
-				GRBLinExpr expr = new GRBLinExpr();
+			ResultArray result = getResult(model.get(GRB.DoubleAttr.X, vars));
+
+			// the dual values are only available for continuous models
+			if (!mip) {
+				GRBConstr[] cs = constrs.toArray(new GRBConstr[constrs.size()]);
+				double[] rc = model.get(GRB.DoubleAttr.RC, vars);
+				double[] pi = model.get(GRB.DoubleAttr.Pi, cs);
+				double[] slack = model.get(GRB.DoubleAttr.Slack, cs);
+				double sign = problem.getOptType() == OptType.MAX ? -1 : 1;
+				for (int i = 0; i < nvar; i++) {
+					result.putDualValue(problem.getVariable(i), sign * rc[i]);
+				}
+				double[] activities = new double[cs.length];
+				double[] duals = new double[cs.length];
+				for (int k = 0; k < cs.length; k++) {
+					double rhs = problem.getConstraints().get(k).getRhs().doubleValue();
+					activities[k] = rhs - slack[k];
+					duals[k] = sign * pi[k];
+				}
+				result.setRowValues(activities, duals);
+			}
+			return result;
+		}
 
-				for (Term term : constraint.getLhs()) {
-					GRBVar var = objToVar.get(term.getVariable());
-					expr.addTerm(term.getCoefficient().doubleValue(), var);
+		/**
+		 * The {@code Incumbents} callback passes each new incumbent of the MIP
+		 * search to the listener.
+		 * 
+		 * @author lukasiewycz
+		 * 
+		 */
+		protected class Incumbents extends GRBCallback {
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see gurobi.GRBCallback#callback()
+			 */
+			@Override
+			protected void callback() {
+				if (where == GRB.CB_MIPSOL) {
+					try {
+						double bound = getDoubleInfo(GRB.CB_MIPSOL_OBJBND);
+						if (problem.getOptType() == OptType.MAX) {
+							bound = -bound;
+						}
+						Number value = Math.abs(bound) < GRB.INFINITY ? bound : null;
+						improved(getResult(getSolution(vars)), value);
+					} catch (GRBException e) {
+						e.printStackTrace();
+					}
 				}
+			}
+		}
 
-				final char operator;
-				if (constraint.getOperator() == Operator.GE)
-					operator = GRB.GREATER_EQUAL;
-				else if (constraint.getOperator() == Operator.LE)
-					operator = GRB.LESS_EQUAL;
-				else
-					operator = GRB.EQUAL;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#interrupt()
+		 */
+		@Override
+		protected void interrupt() {
+			GRBModel m = model;
+			if (m != null) {
+				m.terminate();
+			}
+		}
 
-				model.addConstr(expr, operator, constraint.getRhs()
-						.doubleValue(), constraint.getName());
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#dispose()
+		 */
+		@Override
+		protected void dispose() {
+			// the model is released before its environment
+			if (resource != null) {
+				resource.release();
 			}
+			resource = null;
+			model = null;
+			vars = null;
+			constrs.clear();
+			// an own environment is released with the registered objects
+			if (environment != null && factory != null) {
+				factory.release(environment);
+			}
+			environment = null;
+			env = null;
+		}
+	}
+
+	/**
+	 * The {@code Model} disposes a Gurobi model. Gurobi 4.0 and later provide
+	 * {@code GRBModel.dispose()}, which is looked up at runtime such that the
+	 * solver also compiles against older versions. Older versions free a
+	 * model only in its finalizer, after the last reference is dropped.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Model extends NativeResource {
+
+		protected static final Method dispose = getDispose();
+
+		protected final GRBModel model;
 
-			for(Hook hook: hooks){
-				hook.call(env, model, objToVar, varToObj, problem);
+		/**
+		 * Constructs a {@code Model}.
+		 * 
+		 * @param owner
+		 *            the owner
+		 * @param model
+		 *            the model
+		 */
+		public Model(Object owner, GRBModel model) {
+			super(owner, "Gurobi model");
+			this.model = model;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.NativeResource#free()
+		 */
+		@Override
+		protected void free() {
+			if (dispose != null) {
+				try {
+					dispose.invoke(model);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
 			}
-			
-			model.optimize();
+		}
 
-			Result result;
-			if (problem.getObjective() != null) {
-				result = new ResultImpl(problem.getObjective());
-			} else {
-				result = new ResultImpl();
+		/**
+		 * Returns the {@code dispose} method of the model or {@code null} if
+		 * the Gurobi version does not provide it.
+		 * 
+		 * @return the method or {@code null}
+		 */
+		protected static Method getDispose() {
+			try {
+				return GRBModel.class.getMethod("dispose");
+			} catch (NoSuchMethodException e) {
+				return null;
 			}
+		}
+	}
+
+	/**
+	 * The {@code Environment} releases a Gurobi environment.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Environment extends NativeResource {
 
-			for (Entry<Object, GRBVar> entry : objToVar.entrySet()) {
-				Object variable = entry.getKey();
-				GRBVar var = entry.getValue();
+		protected final GRBEnv env;
 
-				double primalValue = var.get(GRB.DoubleAttr.X);
+		/**
+		 * Constructs an {@code Environment}.
+		 * 
+		 * @param owner
+		 *            the owner
+		 * @param env
+		 *            the environment
+		 */
+		public Environment(Object owner, GRBEnv env) {
+			super(owner, "Gurobi environment");
+			this.env = env;
+		}
 
-				if (problem.getVarType(variable).isInt()) {
-					int v = (int) Math.round(primalValue);
-					result.putPrimalValue(variable, v);
-				} else {
-					result.putPrimalValue(variable, primalValue);
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.NativeResource#free()
+		 */
+		@Override
+		protected void free() {
+			env.release();
+		}
+	}
+
+	/**
+	 * Returns the coefficients of the objective function for all variables.
+	 * The coefficients are negated for maximization problems.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @return the coefficients
+	 */
+	protected double[] getObjective(Problem problem) {
+		OptType optType = problem.getOptType();
+		double[] optimizationCoefficients = new double[problem.getVariablesCount()];
+		Linear objective = problem.getObjective();
+		if (objective != null) {
+			for (int j = 0; j < objective.size(); j++) {
+				double coeff = objective.getCoefficient(j);
+				if (optType == OptType.MAX) {
+					coeff *= -1;
 				}
+				optimizationCoefficients[problem.getVariableIndex(objective.getVariable(j))] += coeff;
 			}
+		}
+		return optimizationCoefficients;
+	}
 
-			return result;
+	/**
+	 * Returns the lower and upper bound of the {@code i}-th variable.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param i
+	 *            the index of the variable
+	 * @return the lower and upper bound
+	 */
+	protected double[] getBounds(Problem problem, int i) {
+		double lowerBound = problem.getVarLowerBoundAt(i);
+		double upperBound = problem.getVarUpperBoundAt(i);
+
+		double lb = (lowerBound != Double.NEGATIVE_INFINITY ? lowerBound
+				: -Double.MAX_VALUE);
+		double ub = (upperBound != Double.POSITIVE_INFINITY ? upperBound
+				: Double.MAX_VALUE);
+		return new double[] { lb, ub };
+	}
+
+	/**
+	 * Returns the Gurobi type of the {@code i}-th variable.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param i
+	 *            the index of the variable
+	 * @return the type
+	 */
+	protected char getType(Problem problem, int i) {
+		switch (problem.getVarTypeAt(i)) {
+		case BOOL:
+			return GRB.BINARY;
+		case INT:
+			return GRB.INTEGER;
+		default: // REAL
+			return GRB.CONTINUOUS;
+		}
+	}
 
-		} catch (GRBException e) {
-			e.printStackTrace();
-			return null;
+	/**
+	 * Adds the variables {@code from} (inclusive) to {@code to} (exclusive)
+	 * to the model with one call.
+	 * 
+	 * @param model
+	 *            the model
+	 * @param problem
+	 *            the problem
+	 * @param from
+	 *            the first variable
+	 * @param to
+	 *            the last variable (exclusive)
+	 * @param objective
+	 *            the objective coefficients of all variables or {@code null}
+	 * @param names
+	 *            the naming value
+	 * @return the Gurobi variables
+	 * @throws GRBException
+	 *             if the variables cannot be added
+	 */
+	protected GRBVar[] addVariables(GRBModel model, Problem problem, int from, int to, double[] objective, int names)
+			throws GRBException {
+		int count = to - from;
+		double[] lb = new double[count];
+		double[] ub = new double[count];
+		double[] obj = new double[count];
+		char[] types = new char[count];
+		String[] varNames = (names > 0 ? new String[count] : null);
+
+		for (int i = from; i < to; i++) {
+			double[] bounds = getBounds(problem, i);
+			lb[i - from] = bounds[0];
+			ub[i - from] = bounds[1];
+			types[i - from] = getType(problem, i);
+			if (varNames != null) {
+				varNames[i - from] = problem.getVariable(i).toString();
+			}
+		}
+		if (objective != null) {
+			System.arraycopy(objective, from, obj, 0, count);
+		}
+		return model.addVars(lb, ub, obj, types, varNames);
+	}
+
+	/**
+	 * Adds the constraints {@code from} (inclusive) to {@code to} (exclusive)
+	 * to the model with one call.
+	 * 
+	 * @param model
+	 *            the model
+	 * @param vars
+	 *            the Gurobi variables
+	 * @param problem
+	 *            the problem
+	 * @param from
+	 *            the first constraint
+	 * @param to
+	 *            the last constraint (exclusive)
+	 * @param names
+	 *            the naming value
+	 * @return the Gurobi constraints
+	 * @throws GRBException
+	 *             if the constraints cannot be added
+	 */
+	protected GRBConstr[] addConstraints(GRBModel model, GRBVar[] vars, Problem problem, int from, int to, int names)
+			throws GRBException {
+		int count = to - from;
+		GRBLinExpr[] exprs = new GRBLinExpr[count];
+		char[] senses = new char[count];
+		double[] rhs = new double[count];
+		String[] constrNames = (names > 0 ? new String[count] : null);
+
+		for (int k = from; k < to; k++) {
+			Constraint constraint = problem.getConstraints().get(k);
+			Linear linear = constraint.getLhs();
+
+			int size = linear.size();
+			double[] coeffs = new double[size];
+			GRBVar[] terms = new GRBVar[size];
+			for (int j = 0; j < size; j++) {
+				coeffs[j] = linear.getCoefficient(j);
+				terms[j] = vars[problem.getVariableIndex(linear.getVariable(j))];
+			}
+			GRBLinExpr expr = new GRBLinExpr();
+			expr.addTerms(coeffs, terms);
+
+			exprs[k - from] = expr;
+			senses[k - from] = getSense(constraint.getOperator());
+			rhs[k - from] = constraint.getRhs().doubleValue();
+			if (constrNames != null) {
+				constrNames[k - from] = getConstraintName(problem, k, names);
+			}
 		}
+		return model.addConstrs(exprs, senses, rhs, constrNames);
+	}
 
+	/**
+	 * Returns the Gurobi sense of an operator.
+	 * 
+	 * @param operator
+	 *            the operator
+	 * @return the sense
+	 */
+	protected char getSense(Operator operator) {
+		switch (operator) {
+		case GE:
+			return GRB.GREATER_EQUAL;
+		case LE:
+			return GRB.LESS_EQUAL;
+		default: // EQ
+			return GRB.EQUAL;
+		}
 	}
 
 	protected void initWithParameters(GRBEnv env) throws GRBException {
 		Object verbose = parameters.get(Solver.VERBOSE);
-		Object timeout = parameters.get(Solver.TIMEOUT);
 
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
@@ -177,12 +627,6 @@ public class SolverGurobi extends AbstractSolver {
 			}
 			env.set(GRB.IntParam.OutputFlag, msgLevel);
 		}
-
-		if (timeout != null && timeout instanceof Number) {
-			Number number = (Number) timeout;
-			double value = number.doubleValue();
-			env.set(GRB.DoubleParam.TimeLimit, value);
-		}
 	}
 
 	/**
@@ -14,11 +14,14 @@
  */
 package net.sf.javailp;
 
-import java.util.HashMap;
+import java.lang.ref.WeakReference;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import net.sf.javailp.SolveMetrics.Phase;
+
+import lpsolve.AbortListener;
 import lpsolve.LpSolve;
 import lpsolve.LpSolveException;
 
@@ -78,165 +81,377 @@ public class SolverLpSolve extends AbstractSolver {
 	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
 	 */
 	public Result solve(Problem problem) {
+		return solve(problem, (double[]) null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solve(net.sf.javailp.Problem,
+	 * double[])
+	 */
+	@Override
+	protected Result solve(Problem problem, double[] start) {
+		return run(new Session(problem), start);
+	}
 
-		Map<Integer, Object> indexToVar = new HashMap<Integer, Object>();
-		Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#openSession(net.sf.javailp.Problem)
+	 */
+	@Override
+	public SolverSession openSession(Problem problem) {
+		return new Session(problem);
+	}
 
-		int i = 1;
-		for (Object variable : problem.getVariables()) {
-			indexToVar.put(i, variable);
-			varToIndex.put(variable, i);
-			i++;
+	/**
+	 * The {@code Session} keeps the lp_solve model. All changes of the problem
+	 * are applied incrementally.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Session extends AbstractSolverSession {
+
+		protected LpSolve lp = null;
+
+		/**
+		 * Constructs a {@code Session}.
+		 * 
+		 * @param problem
+		 *            the problem
+		 */
+		public Session(Problem problem) {
+			super(problem, SolverLpSolve.this.parameters);
 		}
 
-		try {
-			LpSolve lp = LpSolve.makeLp(0, problem.getVariablesCount());
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#isIncremental(net.sf.javailp
+		 * .ChangeType)
+		 */
+		@Override
+		protected boolean isIncremental(ChangeType type) {
+			return true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#build()
+		 */
+		@Override
+		protected void build() throws LpSolveException {
+			CompiledProblem compiled = problem.compile();
+			int ncon = compiled.getRowsCount();
+			int nvar = compiled.getColumnsCount();
+
+			lp = LpSolve.makeLp(0, nvar);
+			register(new Model(this, lp));
 
 			initWithParameters(lp);
+			lp.putAbortfunc(new Abort(this), null);
 
 			lp.setAddRowmode(true);
 
-			for (Constraint constraint : problem.getConstraints()) {
-				int size = constraint.size();
+			int[] rowStarts = compiled.getRowStarts();
+			int[] rowIndices = compiled.getRowIndices();
+			double[] rowValues = compiled.getRowValues();
+			Operator[] operators = compiled.getOperators();
+
+			for (int k = 0; k < ncon; k++) {
+				int start = rowStarts[k];
+				int size = rowStarts[k + 1] - start;
 
 				int[] var = new int[size];
 				double[] coeffs = new double[size];
-				Linear linear = constraint.getLhs();
-
-				convert(linear, var, coeffs, varToIndex);
-
-				int operator;
-				switch (constraint.getOperator()) {
-				case LE:
-					operator = LpSolve.LE;
-					break;
-				case GE:
-					operator = LpSolve.GE;
-					break;
-				default: // EQ
-					operator = LpSolve.EQ;
+
+				for (int j = 0; j < size; j++) {
+					var[j] = rowIndices[start + j] + 1;
 				}
+				System.arraycopy(rowValues, start, coeffs, 0, size);
 
-				double rhs = constraint.getRhs().doubleValue();
+				double rhs = compiled.getRhs()[k];
 
-				lp.addConstraintex(size, coeffs, var, operator, rhs);
+				lp.addConstraintex(size, coeffs, var, toOperator(operators[k]), rhs);
 			}
 
 			lp.setAddRowmode(false);
 
-			for (Object variable : problem.getVariables()) {
-				int index = varToIndex.get(variable);
-
-				VarType varType = problem.getVarType(variable);
-				Number lowerBound = problem.getVarLowerBound(variable);
-				Number upperBound = problem.getVarUpperBound(variable);
+			for (int i = 0; i < nvar; i++) {
+				setColumn(lp, problem, i);
+			}
 
-				if (varType == VarType.BOOL || varType == VarType.INT) {
-					lp.setInt(index, true);
-				}
+			setObjective(lp, problem);
 
-				if (varType == VarType.BOOL) {
-					int lb = 0;
-					int ub = 1;
-					if (lowerBound != null && lowerBound.doubleValue() > 0) {
-						lb = 1;
-					}
-					if (upperBound != null && upperBound.doubleValue() < 1) {
-						ub = 0;
-					}
-					lp.setLowbo(index, lb);
-					lp.setUpbo(index, ub);
-				} else {
-					if (lowerBound != null) {
-						lp.setLowbo(index, lowerBound.doubleValue());
-					}
-					if (upperBound != null) {
-						lp.setUpbo(index, upperBound.doubleValue());
-					}
+			if (!hooks.isEmpty()) {
+				Map<Object, Integer> varToIndex = getVarToIndex(problem, 1);
+				for (Hook hook : hooks) {
+					hook.call(lp, varToIndex);
 				}
-
 			}
+		}
 
-			if (problem.getObjective() != null) {
-
-				Linear objective = problem.getObjective();
-				int size = objective.size();
-				int[] var = new int[size];
-				double[] coeffs = new double[size];
-
-				convert(objective, var, coeffs, varToIndex);
-
-				lp.setObjFnex(size, coeffs, var);
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#update(net.sf.javailp.Change)
+		 */
+		@Override
+		protected void update(Change change) throws LpSolveException {
+			int index = change.getIndex();
+			int count = change.getCount();
+
+			switch (change.getType()) {
+			case VARIABLE_ADDED:
+				for (int i = index; i < index + count; i++) {
+					lp.addColumnex(0, new double[0], new int[0]);
+					setColumn(lp, problem, i);
+				}
+				break;
+			case VARIABLE_TYPE:
+			case VARIABLE_BOUNDS:
+				setColumn(lp, problem, index);
+				break;
+			case CONSTRAINT_ADDED:
+				// duplicate columns are merged like in the compiled problem
+				int[] positions = new int[problem.getVariablesCount()];
+				for (int k = index; k < index + count; k++) {
+					Constraint constraint = problem.getConstraints().get(k);
+					int size = constraint.size();
+
+					int[] var = new int[size];
+					double[] coeffs = new double[size];
+					size = getRow(problem, k, positions, var, coeffs, 0);
+					for (int j = 0; j < size; j++) {
+						var[j]++;
+					}
 
-				if (problem.getOptType() == OptType.MIN) {
-					lp.setMinim();
-				} else {
-					lp.setMaxim();
+					lp.addConstraintex(size, coeffs, var, toOperator(constraint.getOperator()), constraint.getRhs()
+							.doubleValue());
 				}
+				break;
+			case CONSTRAINT_REMOVED:
+				lp.delConstraint(index + 1);
+				break;
+			case CONSTRAINT_RHS:
+				lp.setRh(index + 1, problem.getConstraints().get(index).getRhs().doubleValue());
+				break;
+			default: // OBJECTIVE, OPTIMIZATION_TYPE
+				setObjective(lp, problem);
 			}
+		}
 
-			for (Hook hook : hooks) {
-				hook.call(lp, varToIndex);
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#optimize(double[])
+		 */
+		@Override
+		protected Result optimize(double[] start) throws LpSolveException {
+			int nvar = problem.getVariablesCount();
+
+			if (start != null) {
+				double[] guess = new double[nvar + 1];
+				for (int i = 0; i < nvar; i++) {
+					double value = getStartValue(start, i);
+					guess[i + 1] = (!Double.isNaN(value) ? value : 0);
+				}
+				int[] basis = new int[1 + lp.getNrows() + lp.getNcolumns()];
+				lp.guessBasis(guess, basis);
+				lp.setBasis(basis, true);
 			}
 
+			// lp_solve limits the time in whole seconds ({@code 0} for no
+			// limit), the watchdog aborts at the exact deadline
+			long remaining = getRemainingMillis();
+			lp.setTimeout(remaining == Long.MAX_VALUE ? 0 : Math.max((remaining + 999) / 1000, 1));
+			metrics.enter(Phase.OPTIMIZATION);
 			int ret = lp.solve();
-			
+			metrics.enter(Phase.EXTRACTION);
+			metrics.setIterations(lp.getTotalIter());
+			metrics.setNodes(lp.getTotalNodes());
+
 			// 0 means optimal
 			// 1 means suboptimal
 			// 12 means feasible
-			if(ret != 0 && ret != 1 && ret != 12){
-				lp.deleteLp();
+			if (ret != 0 && ret != 1 && ret != 12) {
 				return null;
 			}
-			
-			final Result result;
-			if (problem.getObjective() != null) {
-				result = new ResultImpl(problem.getObjective());
-			} else {
-				result = new ResultImpl();
-			}
+			metrics.setOptimal(ret == 0);
 
-			
-			
-			double[] values = new double[problem.getVariablesCount()];
-			double[] dualValues = new double[problem.getConstraintsCount()];
+			double[] values = new double[nvar];
 			lp.getVariables(values);
 			// lp.getDualSolution(dualValues); throws lpsolve.LpSolveException: Target array is too short to hold values
 
-			for (Object variable : problem.getVariables()) {
+			return getResult(values);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#dispose()
+		 */
+		@Override
+		protected void dispose() {
+			lp = null;
+		}
+	}
+
+	/**
+	 * The {@code Abort} aborts the solve of a session. The session is only
+	 * weakly referenced such that the model does not keep it reachable (see
+	 * {@link NativeResource}).
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Abort implements AbortListener {
 
-				int index = varToIndex.get(variable);
-				VarType varType = problem.getVarType(variable);
+		protected final WeakReference<AbstractSolverSession> session;
 
-				double value = values[index - 1];
+		/**
+		 * Constructs an {@code Abort}.
+		 * 
+		 * @param session
+		 *            the session
+		 */
+		public Abort(AbstractSolverSession session) {
+			this.session = new WeakReference<AbstractSolverSession>(session);
+		}
 
-				if (varType == VarType.INT || varType == VarType.BOOL) {
-					int v = (int) Math.round(value);
-					result.putPrimalValue(variable, v);
-				} else {
-					result.putPrimalValue(variable, value);
-				}
-			}
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see lpsolve.AbortListener#abortfunc(lpsolve.LpSolve,
+		 * java.lang.Object)
+		 */
+		public boolean abortfunc(LpSolve problem, Object handle) {
+			AbstractSolverSession s = session.get();
+			return (s == null || s.aborted);
+		}
+	}
+
+	/**
+	 * The {@code Model} deletes an lp_solve model.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Model extends NativeResource {
+
+		protected final LpSolve lp;
+
+		/**
+		 * Constructs a {@code Model}.
+		 * 
+		 * @param owner
+		 *            the owner
+		 * @param lp
+		 *            the lp_solve model
+		 */
+		public Model(Object owner, LpSolve lp) {
+			super(owner, "lp_solve model");
+			this.lp = lp;
+		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.NativeResource#free()
+		 */
+		@Override
+		protected void free() {
 			lp.deleteLp();
+		}
+	}
+
+	/**
+	 * Sets the type and the bounds of the {@code i}-th variable. Unbounded
+	 * variables keep the lower bound {@code 0} of lp_solve.
+	 * 
+	 * @param lp
+	 *            the lp solver
+	 * @param problem
+	 *            the problem
+	 * @param i
+	 *            the index of the variable
+	 * @throws LpSolveException
+	 */
+	protected void setColumn(LpSolve lp, Problem problem, int i) throws LpSolveException {
+		int index = i + 1;
+
+		VarType varType = problem.getVarTypeAt(i);
+		double lowerBound = problem.getVarLowerBoundAt(i);
+		double upperBound = problem.getVarUpperBoundAt(i);
+
+		lp.setInt(index, varType.isInt());
+
+		if (varType == VarType.BOOL) {
+			int lb = 0;
+			int ub = 1;
+			if (lowerBound > 0) {
+				lb = 1;
+			}
+			if (upperBound < 1) {
+				ub = 0;
+			}
+			lp.setLowbo(index, lb);
+			lp.setUpbo(index, ub);
+		} else {
+			lp.setLowbo(index, lowerBound != Double.NEGATIVE_INFINITY ? lowerBound : 0);
+			lp.setUpbo(index, upperBound != Double.POSITIVE_INFINITY ? upperBound : lp.getInfinite());
+		}
+	}
 
-			return result;
+	/**
+	 * Sets the objective function and the optimization direction. A missing
+	 * objective function is set to zero.
+	 * 
+	 * @param lp
+	 *            the lp solver
+	 * @param problem
+	 *            the problem
+	 * @throws LpSolveException
+	 */
+	protected void setObjective(LpSolve lp, Problem problem) throws LpSolveException {
+		Linear objective = problem.getObjective();
+		double[] row = new double[problem.getVariablesCount() + 1];
+		if (objective != null) {
+			for (int j = 0; j < objective.size(); j++) {
+				row[problem.getVariableIndex(objective.getVariable(j)) + 1] += objective.getCoefficient(j);
+			}
+		}
+
+		lp.setObjFn(row);
 
-		} catch (LpSolveException e) {
-			e.printStackTrace();
+		if (objective != null) {
+			if (problem.getOptType() == OptType.MIN) {
+				lp.setMinim();
+			} else {
+				lp.setMaxim();
+			}
+		}
+	}
+
+	protected int toOperator(Operator operator) {
+		switch (operator) {
+		case LE:
+			return LpSolve.LE;
+		case GE:
+			return LpSolve.GE;
+		default: // EQ
+			return LpSolve.EQ;
 		}
-		return null;
 	}
 
 	protected void initWithParameters(LpSolve lp) {
-		Object timeout = parameters.get(Solver.TIMEOUT);
 		Object verbose = parameters.get(Solver.VERBOSE);
 
-		if (timeout != null && timeout instanceof Number) {
-			Number number = (Number) timeout;
-			long value = number.longValue();
-			lp.setTimeout(value);
-		}
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
 			int value = number.intValue();
@@ -250,13 +465,4 @@ public class SolverLpSolve extends AbstractSolver {
 		}
 
 	}
-
-	protected void convert(Linear linear, int[] var, double[] coeffs, Map<Object, Integer> varToIndex) {
-		int i = 0;
-		for (Term term : linear) {
-			var[i] = varToIndex.get(term.getVariable());
-			coeffs[i] = term.getCoefficient().doubleValue();
-			i++;
-		}
-	}
 }
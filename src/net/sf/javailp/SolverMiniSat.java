@@ -14,14 +14,24 @@
  */
 package net.sf.javailp;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import net.sf.javailp.SolveMetrics.Phase;
 import net.sf.javailp.minisat.MiniSat;
 
 /**
  * The {@code SolverMiniSat} is the {@code Solver} MiniSat+.
+ * <p>
+ * The constraints are loaded with a single native call. A solve that reaches
+ * its deadline or is aborted is interrupted inside the native search and
+ * returns the best solution found so far. The MiniSat+ instances are reused
+ * for the next solves, either by the {@link SolverFactoryMiniSat} or, without
+ * a factory, by the solver itself.
  * 
  * @see <a href="http://minisat.se/MiniSat+.html">http://minisat.se/MiniSat+.html</a>
  * @author lukasiewycz
@@ -29,13 +39,29 @@ import net.sf.javailp.minisat.MiniSat;
  */
 public class SolverMiniSat extends AbstractSolver {
 
-	protected MiniSat minisat;
+	protected final SolverFactoryMiniSat factory;
+
+	protected final Map<MiniSat, Thread> solving = new HashMap<MiniSat, Thread>();
+
+	protected MiniSat idle = null;
+	protected boolean closed = false;
 
 	/**
 	 * Constructs a {@code minisat+} solver.
 	 */
 	public SolverMiniSat() {
-		minisat = new MiniSat();
+		this(null);
+	}
+
+	/**
+	 * Constructs a {@code minisat+} solver that takes its instances from the
+	 * given factory.
+	 * 
+	 * @param factory
+	 *            the factory that owns the instances (or {@code null})
+	 */
+	public SolverMiniSat(SolverFactoryMiniSat factory) {
+		this.factory = factory;
 	}
 
 	/*
@@ -44,148 +70,318 @@ public class SolverMiniSat extends AbstractSolver {
 	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
 	 */
 	public Result solve(Problem problem) {
+		return solve(problem, (double[]) null);
+	}
 
-		Map<Object, Integer> varToInt = new HashMap<Object, Integer>();
-		Map<Integer, Object> intToVar = new HashMap<Integer, Object>();
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solve(net.sf.javailp.Problem,
+	 * double[])
+	 */
+	@Override
+	protected Result solve(Problem problem, double[] start) {
+		SolveMetrics metrics = new SolveMetrics();
+		metrics.enter(Phase.TRANSLATION);
+		metrics.setSize(problem);
 
-		{
-			int i = 0;
-			for (Object variable : problem.getVariables()) {
-				check(variable, problem);
-				intToVar.put(i, variable);
-				varToInt.put(variable, i);
-				i++;
-			}
-		}
+		int nvar = problem.getVariablesCount();
 
-		initWithParameters();
+		for (int i = 0; i < nvar; i++) {
+			check(i, problem);
+		}
 
-		for (Constraint constraint : problem.getConstraints()) {
-			Linear linear = constraint.getLhs();
-			Operator operator = constraint.getOperator();
+		long deadline = getDeadline();
+		final MiniSat minisat = acquire();
+		final boolean[] done = new boolean[1];
+		ScheduledFuture<?> expiry = null;
 
-			String comp = null;
-			switch (operator) {
-			case LE:
-				comp = "<=";
-				break;
-			case GE:
-				comp = ">=";
-				break;
-			default: // EQ
-				comp = "=";
-				break;
+		synchronized (solving) {
+			solving.put(minisat, Thread.currentThread());
+		}
+		try {
+			if (Thread.currentThread().isInterrupted() || deadline <= System.currentTimeMillis()) {
+				minisat.interrupt();
+			} else if (deadline != Long.MAX_VALUE) {
+				expiry = AbstractSolverSession.getWatchdog().schedule(new Runnable() {
+					public void run() {
+						synchronized (done) {
+							// the instance may already solve the next problem
+							if (!done[0]) {
+								minisat.interrupt();
+							}
+						}
+					}
+				}, deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
 			}
 
-			int rhs = toInt(constraint.getRhs());
+			initWithParameters(minisat);
 
-			int coeffs[] = new int[linear.size()];
-			int lits[] = new int[linear.size()];
+			int maxVar = load(minisat, problem);
 
-			for (int i = 0; i < linear.size(); i++) {
-				Term term = linear.get(i);
-				int var = varToInt.get(term.getVariable());
-				int coeff = toInt(term.getCoefficient());
-				lits[i] = var + 1;
-				coeffs[i] = coeff;
-			}
+			if (problem.getObjective() != null) {
 
-			minisat.addConstraint(coeffs, lits, comp, rhs);
-		}
+				boolean isMin = problem.getOptType().equals(OptType.MIN);
 
-		if (problem.getObjective() != null) {
+				Linear objective = problem.getObjective();
 
-			boolean isMin = problem.getOptType().equals(OptType.MIN);
+				int coeffs[] = new int[objective.size()];
+				int lits[] = new int[objective.size()];
 
-			Linear objective = problem.getObjective();
+				for (int i = 0; i < objective.size(); i++) {
+					int var = problem.getVariableIndex(objective.getVariable(i));
+					int coeff = toInt(objective.getCoefficient(i));
+					lits[i] = var + 1;
+					coeffs[i] = isMin ? coeff : -coeff;
+					maxVar = Math.max(maxVar, var + 1);
+				}
 
-			int coeffs[] = new int[objective.size()];
-			int lits[] = new int[objective.size()];
+				minisat.setObjective(coeffs, lits);
 
-			for (int i = 0; i < objective.size(); i++) {
-				Term term = objective.get(i);
-				int var = varToInt.get(term.getVariable());
-				int coeff = toInt(term.getCoefficient());
-				lits[i] = var + 1;
-				coeffs[i] = isMin ? coeff : -coeff;
+				// a feasible start bounds the objective value of the solution
+				if (isFeasible(problem, start)) {
+					Map<Object, Number> values = new HashMap<Object, Number>();
+					for (int var = 0; var < nvar; var++) {
+						values.put(problem.getVariable(var), start[var] > 0.5 ? 1 : 0);
+					}
+					int value = toInt(objective.evaluate(values));
+					minisat.addConstraint(coeffs, lits, MiniSat.LE, isMin ? value : -value);
+				}
 			}
 
-			minisat.setObjective(coeffs, lits);
-		}
-
-		{
-			for (Object variable : problem.getVariables()) {
-				int var = varToInt.get(variable);
-
-				Number lowerBound = problem.getVarLowerBound(variable);
-				Number upperBound = problem.getVarUpperBound(variable);
-
-				if (lowerBound != null && lowerBound.doubleValue() > 0) {
-					int coeffs[] = new int[1];
-					int lits[] = new int[1];
-					coeffs[0] = 1;
-					lits[0] = var + 1;
-					minisat.addConstraint(coeffs, lits, ">=", 1);
-				}
-				if (upperBound != null && upperBound.doubleValue() < 1) {
-					int coeffs[] = new int[1];
-					int lits[] = new int[1];
-					coeffs[0] = 1;
-					lits[0] = var + 1;
-					minisat.addConstraint(coeffs, lits, "<=", 0);
+			// the starting values are the initial phases of the variables
+			// (only variables that are known to the solver)
+			for (int var = 0; var < maxVar; var++) {
+				double value = getStartValue(start, var);
+				if (!Double.isNaN(value)) {
+					minisat.setVar(var, value > 0, 0);
 				}
 			}
-		}
 
-		minisat.solve();
+			metrics.enter(Phase.OPTIMIZATION);
+			minisat.solve();
+			metrics.enter(Phase.EXTRACTION);
+			metrics.setOptimal(!minisat.isInterrupted());
 
-		if (minisat.okay()) {
+			if (minisat.hasModel()) {
 
-			Number objvalue = null;
-			Map<Object, Number> tmpresult = new HashMap<Object, Number>();
+				double[] values = new double[nvar];
+				for (int var = 0; var < nvar; var++) {
+					values[var] = minisat.valueOf(var) ? 1 : 0;
+				}
+				Result result = new ResultArray(problem, values);
 
-			for (Entry<Integer, Object> entry : intToVar.entrySet()) {
-				int var = entry.getKey();
-				Object variable = entry.getValue();
+				metrics.enter(null);
+				result.setMetrics(metrics);
+				return result;
 
-				boolean b = minisat.valueOf(var);
-				tmpresult.put(variable, b ? 1 : 0);
+			} else {
+				return null;
+			}
+		} finally {
+			if (expiry != null) {
+				expiry.cancel(false);
+			}
+			synchronized (done) {
+				done[0] = true;
 			}
+			synchronized (solving) {
+				solving.remove(minisat);
+				solving.notifyAll();
+			}
+			release(minisat);
+		}
+	}
 
-			if (problem.getObjective() != null) {
-				Linear objective = problem.getObjective();
-				objvalue = objective.evaluate(tmpresult);
+	/**
+	 * Loads the constraints and the bounds of the variables with a single
+	 * native call.
+	 * 
+	 * @param minisat
+	 *            the instance
+	 * @param problem
+	 *            the problem
+	 * @return the number of variables that are known to the solver
+	 */
+	protected int load(MiniSat minisat, Problem problem) {
+		CompiledProblem compiled = problem.compile();
+		int nrows = compiled.getRowsCount();
+		int ncols = compiled.getColumnsCount();
+		int nnz = compiled.getNonZerosCount();
+		int[] rowStarts = compiled.getRowStarts();
+		int[] rowIndices = compiled.getRowIndices();
+		double[] rowValues = compiled.getRowValues();
+		double[] rowRhs = compiled.getRhs();
+		Operator[] operators = compiled.getOperators();
+		double[] lowerBounds = compiled.getLowerBounds();
+		double[] upperBounds = compiled.getUpperBounds();
+
+		// each variable adds at most two bound rows
+		int[] starts = new int[nrows + 2 * ncols + 1];
+		int[] coeffs = new int[nnz + 2 * ncols];
+		int[] lits = new int[nnz + 2 * ncols];
+		int[] comps = new int[nrows + 2 * ncols];
+		int[] rhs = new int[nrows + 2 * ncols];
+
+		int maxVar = 0;
+
+		for (int k = 0; k < nrows; k++) {
+			for (int j = rowStarts[k]; j < rowStarts[k + 1]; j++) {
+				coeffs[j] = toInt(rowValues[j]);
+				lits[j] = rowIndices[j] + 1;
+				maxVar = Math.max(maxVar, lits[j]);
 			}
+			starts[k + 1] = rowStarts[k + 1];
+			comps[k] = getComparator(operators[k]);
+			rhs[k] = toInt(rowRhs[k]);
+		}
 
-			final Result result;
-			if (objvalue != null) {
-				result = new ResultImpl(objvalue);
-			} else {
-				result = new ResultImpl();
+		int rows = nrows;
+		int j = nnz;
+		for (int var = 0; var < ncols; var++) {
+			if (lowerBounds[var] > 0) {
+				coeffs[j] = 1;
+				lits[j++] = var + 1;
+				comps[rows] = MiniSat.GE;
+				rhs[rows] = 1;
+				starts[++rows] = j;
+			}
+			if (upperBounds[var] < 1) {
+				coeffs[j] = 1;
+				lits[j++] = var + 1;
+				comps[rows] = MiniSat.LE;
+				rhs[rows] = 0;
+				starts[++rows] = j;
+			}
+			if (lowerBounds[var] > 0 || upperBounds[var] < 1) {
+				maxVar = Math.max(maxVar, var + 1);
 			}
+		}
 
-			for (Entry<Object, Number> entry : tmpresult.entrySet()) {
-				Object variable = entry.getKey();
-				Number value = entry.getValue();
+		minisat.addConstraints(Arrays.copyOf(starts, rows + 1), coeffs, lits, Arrays.copyOf(comps, rows),
+				Arrays.copyOf(rhs, rows));
+		return maxVar;
+	}
 
-				result.put(variable, value);
+	/**
+	 * Returns the MiniSat+ comparator of an operator.
+	 * 
+	 * @param operator
+	 *            the operator
+	 * @return the comparator
+	 */
+	protected int getComparator(Operator operator) {
+		switch (operator) {
+		case LE:
+			return MiniSat.LE;
+		case GE:
+			return MiniSat.GE;
+		default: // EQ
+			return MiniSat.EQ;
+		}
+	}
+
+	/**
+	 * Returns an idle instance, either from the factory or the instance of the
+	 * previous solve of this solver.
+	 * 
+	 * @return the instance
+	 */
+	protected MiniSat acquire() {
+		if (factory != null) {
+			return factory.acquire();
+		}
+		synchronized (solving) {
+			MiniSat instance = idle;
+			idle = null;
+			return (instance != null ? instance : new MiniSat());
+		}
+	}
+
+	/**
+	 * Returns an instance that is no longer used. The instance is kept for
+	 * the next solve unless the solver is closed or already keeps another
+	 * instance.
+	 * 
+	 * @param instance
+	 *            the instance
+	 */
+	protected void release(MiniSat instance) {
+		if (factory != null) {
+			factory.release(instance);
+			return;
+		}
+		synchronized (solving) {
+			if (idle == null && !closed) {
+				instance.clear();
+				idle = instance;
+			} else {
+				instance.close();
 			}
+		}
+	}
 
-			return result;
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#abort()
+	 */
+	@Override
+	public void abort() {
+		super.abort();
+		synchronized (solving) {
+			for (MiniSat instance : solving.keySet()) {
+				instance.interrupt();
+			}
+		}
+	}
 
-		} else {
-			return null;
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#abort(java.lang.Thread)
+	 */
+	@Override
+	protected void abort(Thread thread) {
+		super.abort(thread);
+		synchronized (solving) {
+			for (Entry<MiniSat, Thread> entry : solving.entrySet()) {
+				if (entry.getValue() == thread) {
+					entry.getKey().interrupt();
+				}
+			}
 		}
+	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#close()
+	 */
+	@Override
+	public void close() {
+		super.close();
+		synchronized (solving) {
+			// a solve that closes its own solver cannot wait for itself
+			while (!solving.isEmpty() && !solving.containsValue(Thread.currentThread())) {
+				try {
+					solving.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			closed = true;
+			if (idle != null) {
+				idle.close();
+				idle = null;
+			}
+		}
 	}
 
-	protected void initWithParameters() {
-		Object timeout = parameters.get(Solver.TIMEOUT);
+	protected void initWithParameters(MiniSat minisat) {
 		Object verbose = parameters.get(Solver.VERBOSE);
 
-		if (timeout != null && timeout instanceof Number) {
-			System.err.println("MiniSat does not support a timeout.");
-		}
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
 			int value = number.intValue();
@@ -193,19 +389,22 @@ public class SolverMiniSat extends AbstractSolver {
 		}
 	}
 
-	protected void check(Object variable, Problem problem) {
-		VarType type = problem.getVarType(variable);
+	protected void check(int index, Problem problem) {
+		VarType type = problem.getVarTypeAt(index);
 		if (type != VarType.BOOL) {
 			throw new IllegalArgumentException(
 					"Variable "
-							+ variable
+							+ problem.getVariable(index)
 							+ " is not a binary variable. MiniSat can only solve 0-1 ILPs.");
 		}
 	}
 
 	protected int toInt(Number number) {
-		int ivalue = number.intValue();
-		double dvalue = number.doubleValue();
+		return toInt(number.doubleValue());
+	}
+
+	protected int toInt(double dvalue) {
+		int ivalue = (int) dvalue;
 
 		if (dvalue != ivalue) {
 			throw new IllegalArgumentException(
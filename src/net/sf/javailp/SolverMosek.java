@@ -14,15 +14,18 @@
  */
 package net.sf.javailp;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import net.sf.javailp.SolveMetrics.Phase;
+
+import mosek.ArrayLengthException;
 import mosek.Env;
 import mosek.Error;
+import mosek.Progress;
 import mosek.Task;
 import mosek.Warning;
 
@@ -35,6 +38,7 @@ import mosek.Warning;
 public class SolverMosek extends AbstractSolver {
 
 	protected final Env env;
+	protected final Object owner;
 	protected final Set<Hook> hooks = new HashSet<Hook>();
 
 	/**
@@ -44,8 +48,22 @@ public class SolverMosek extends AbstractSolver {
 	 *            the {@code mosek} environment
 	 */
 	public SolverMosek(Env env) {
+		this(env, null);
+	}
+
+	/**
+	 * Constructs a {@code SolverMosek} that keeps the owner of the
+	 * environment reachable.
+	 * 
+	 * @param env
+	 *            the {@code mosek} environment
+	 * @param owner
+	 *            the owner of the environment or {@code null}
+	 */
+	protected SolverMosek(Env env, Object owner) {
 		super();
 		this.env = env;
+		this.owner = owner;
 	}
 
 	/**
@@ -90,183 +108,204 @@ public class SolverMosek extends AbstractSolver {
 		hooks.remove(hook);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
+	 */
 	public Result solve(Problem problem) {
+		return solve(problem, (double[]) null);
+	}
 
-		Map<Integer, Object> indexToVar = new HashMap<Integer, Object>();
-		Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
-		Map<Constraint, Integer> conToIndex = new HashMap<Constraint, Integer>();
-		Map<Object, List<Constraint>> varToConstraints = new HashMap<Object, List<Constraint>>();
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solve(net.sf.javailp.Problem,
+	 * double[])
+	 */
+	@Override
+	protected Result solve(Problem problem, double[] start) {
+		return run(new Session(problem), start);
+	}
 
-		int i = 0;
-		for (Object variable : problem.getVariables()) {
-			indexToVar.put(i, variable);
-			varToIndex.put(variable, i);
-			varToConstraints.put(variable, new ArrayList<Constraint>());
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#openSession(net.sf.javailp.Problem)
+	 */
+	@Override
+	public SolverSession openSession(Problem problem) {
+		return new Session(problem);
+	}
 
-			i++;
-		}
+	/**
+	 * The {@code Session} keeps the Mosek task. All changes of the problem are
+	 * applied incrementally.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Session extends AbstractSolverSession {
 
-		for (i = 0; i < problem.getConstraintsCount(); i++) {
-			Constraint constraint = problem.getConstraints().get(i);
-			Linear linear = constraint.getLhs();
+		protected Task task = null;
+		protected boolean started = false;
 
-			conToIndex.put(constraint, i);
+		/**
+		 * Constructs a {@code Session}.
+		 * 
+		 * @param problem
+		 *            the problem
+		 */
+		public Session(Problem problem) {
+			super(problem, SolverMosek.this.parameters);
+		}
 
-			for (Term term : linear) {
-				List<Constraint> list = varToConstraints.get(term.getVariable());
-				list.add(constraint);
-			}
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#isIncremental(net.sf.javailp
+		 * .ChangeType)
+		 */
+		@Override
+		protected boolean isIncremental(ChangeType type) {
+			return true;
 		}
 
-		int ncon = problem.getConstraintsCount();
-		int nvar = problem.getVariablesCount();
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#build()
+		 */
+		@Override
+		protected void build() throws Exception {
+			CompiledProblem compiled = problem.compile();
+
+			int ncon = compiled.getRowsCount();
+			int nvar = compiled.getColumnsCount();
 
-		try {
-			Task task = new Task(env, ncon, nvar);
+			task = new Task(env, ncon, nvar);
+			register(new Model(this, task));
+			started = false;
+			task.set_Progress(new Abort(this));
 
 			task.append(Env.accmode.con, ncon);
 			task.append(Env.accmode.var, nvar);
 
 			if (problem.getObjective() != null) {
-				Linear objective = problem.getObjective();
-				int[] var = new int[objective.size()];
-				double[] coeffs = new double[objective.size()];
-				convert(objective, var, coeffs, varToIndex);
-
-				task.putclist(var, coeffs);
+				setObjective(task, problem);
+			}
 
-				if (problem.getOptType() == OptType.MIN) {
-					task.putobjsense(Env.objsense.minimize);
-				} else {
-					task.putobjsense(Env.objsense.maximize);
+			if (nvar > 0) {
+				int[] colStarts = compiled.getColStarts();
+				int[] sub = new int[nvar];
+				for (int j = 0; j < nvar; j++) {
+					sub[j] = j;
 				}
+				int[] ptrb = Arrays.copyOfRange(colStarts, 0, nvar);
+				int[] ptre = Arrays.copyOfRange(colStarts, 1, nvar + 1);
 
+				task.putaveclist(Env.accmode.var, sub, ptrb, ptre, compiled.getColIndices(), compiled.getColValues());
 			}
 
-			{
-
-				List<List<Integer>> l1 = new ArrayList<List<Integer>>();
-				List<List<Double>> l2 = new ArrayList<List<Double>>();
-
-				for (Object variable : problem.getVariables()) {
-					List<Integer> cons = new ArrayList<Integer>();
-					List<Double> coeffs = new ArrayList<Double>();
-
-					List<Constraint> constraints = varToConstraints.get(variable);
-
-					for (Constraint constraint : constraints) {
-						int index = conToIndex.get(constraint);
-						Linear linear = constraint.getLhs();
-						Number coeff = 0.0;
-						for (Term term : linear) {
-							if (term.getVariable().equals(variable)) {
-								coeff = term.getCoefficient();
-								break;
-							}
-						}
-
-						cons.add(index);
-						coeffs.add(coeff.doubleValue());
-					}
-
-					l1.add(cons);
-					l2.add(coeffs);
+			if (ncon > 0) {
+				double[] rhs = compiled.getRhs();
+				Operator[] operators = compiled.getOperators();
+				int[] bk = new int[ncon];
+				for (int k = 0; k < ncon; k++) {
+					bk[k] = getBoundKey(operators[k]);
 				}
+				task.putboundslice(Env.accmode.con, 0, ncon, bk, rhs, rhs);
+			}
 
-				for (int j = 0; j < nvar; j++) {
-					List<Integer> cons = l1.get(j);
-					List<Double> coeffs = l2.get(j);
-
-					int[] asub = new int[cons.size()];
-					double[] aval = new double[cons.size()];
-
-					for (int k = 0; k < cons.size(); k++) {
-						asub[k] = cons.get(k);
-						aval[k] = coeffs.get(k);
-					}
+			setColumns(task, problem, 0, nvar);
 
-					task.putavec(mosek.Env.accmode.var, j, asub, aval);
-				}
+			initWithParameters(task);
 
-				int j = 0;
-				for (Constraint constraint : problem.getConstraints()) {
-					double rhs = constraint.getRhs().doubleValue();
-					int comp;
-					switch (constraint.getOperator()) {
-					case LE:
-						comp = Env.boundkey.up;
-						break;
-					case GE:
-						comp = Env.boundkey.lo;
-						break;
-					default: // EQ
-						comp = Env.boundkey.fx;
-					}
-					task.putbound(Env.accmode.con, j, comp, rhs, rhs);
-					j++;
+			if (!hooks.isEmpty()) {
+				Map<Object, Integer> varToIndex = getVarToIndex(problem, 0);
+				for (Hook hook : hooks) {
+					hook.call(env, task, varToIndex);
 				}
-
 			}
+		}
 
-			{
-				for (Object variable : problem.getVariables()) {
-					int index = varToIndex.get(variable);
-
-					VarType varType = problem.getVarType(variable);
-					Number lowerBound = problem.getVarLowerBound(variable);
-					Number upperBound = problem.getVarUpperBound(variable);
-
-					if (varType == VarType.BOOL || varType == VarType.INT) {
-						task.putvartype(index, Env.variabletype.type_int);
-					}
-
-					Double lb = null;
-					Double ub = null;
-
-					if (varType == VarType.BOOL) {
-						lb = 0.0;
-						ub = 1.0;
-						if (lowerBound != null && lowerBound.doubleValue() > 0) {
-							lb = 1.0;
-						}
-						if (upperBound != null && upperBound.doubleValue() < 1) {
-							ub = 0.0;
-						}
-					} else {
-						if (lowerBound != null) {
-							lb = lowerBound.doubleValue();
-						}
-						if (upperBound != null) {
-							ub = upperBound.doubleValue();
-						}
-					}
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#update(net.sf.javailp.Change)
+		 */
+		@Override
+		protected void update(Change change) throws Exception {
+			int index = change.getIndex();
+			int count = change.getCount();
+
+			switch (change.getType()) {
+			case VARIABLE_ADDED:
+				task.append(Env.accmode.var, count);
+				setColumns(task, problem, index, index + count);
+				break;
+			case VARIABLE_TYPE:
+			case VARIABLE_BOUNDS:
+				setColumns(task, problem, index, index + 1);
+				break;
+			case CONSTRAINT_ADDED:
+				task.append(Env.accmode.con, count);
+				setRows(task, problem, index, index + count);
+				break;
+			case CONSTRAINT_REMOVED:
+				task.remove(Env.accmode.con, new int[] { index });
+				break;
+			case CONSTRAINT_RHS:
+				Constraint constraint = problem.getConstraints().get(index);
+				setRowBounds(task, index, constraint.getOperator(), constraint.getRhs().doubleValue());
+				break;
+			default: // OBJECTIVE, OPTIMIZATION_TYPE
+				setObjective(task, problem);
+			}
+		}
 
-					int bounds = Env.boundkey.fr;
-					if (lb != null && ub != null) {
-						bounds = Env.boundkey.ra;
-					} else if (lb != null) {
-						bounds = Env.boundkey.lo;
-					} else if (ub != null) {
-						bounds = Env.boundkey.up;
-					}
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#optimize(double[])
+		 */
+		@Override
+		protected Result optimize(double[] start) throws Exception {
+			int nvar = problem.getVariablesCount();
 
-					if (lb == null) {
-						lb = 0.0;
-					}
-					if (ub == null) {
-						ub = 0.0;
+			if (start != null || started) {
+				task.putintparam(Env.iparam.mio_construct_sol, start != null ? Env.onoffkey.on : Env.onoffkey.off);
+				started = (start != null);
+			}
+			if (start != null) {
+				for (int j = 0; j < nvar; j++) {
+					double value = getStartValue(start, j);
+					if (!Double.isNaN(value)) {
+						task.putsolutioni(Env.accmode.var, j, Env.soltype.itg, Env.stakey.supbas, value, 0, 0, 0);
 					}
-
-					task.putbound(mosek.Env.accmode.var, index, bounds, lb, ub);
 				}
 			}
-			initWithParameters(task);
-
-			for (Hook hook : hooks) {
-				hook.call(env, task, varToIndex);
-			}
 
+			// a negative time means no limit
+			double remaining = getRemainingSeconds();
+			double time = Double.isInfinite(remaining) ? -1 : remaining;
+			task.putdouparam(Env.dparam.optimizer_max_time, time);
+			task.putdouparam(Env.dparam.mio_max_time, time);
+			metrics.enter(Phase.OPTIMIZATION);
 			task.optimize();
+			metrics.enter(Phase.EXTRACTION);
+			int[] info = new int[1];
+			long iterations = 0;
+			for (int item : new int[] { Env.iinfitem.sim_primal_iter, Env.iinfitem.sim_dual_iter,
+					Env.iinfitem.intpnt_iter }) {
+				task.getintinf(item, info);
+				iterations += info[0];
+			}
+			metrics.setIterations(iterations);
+			task.getintinf(Env.iinfitem.mio_num_relax, info);
+			metrics.setNodes(info[0]);
 
 			int[] prosta = new int[1];
 			int[] solsta = new int[1];
@@ -279,51 +318,280 @@ public class SolverMosek extends AbstractSolver {
 					p == mosek.Env.prosta.prim_and_dual_infeas ||
 					p == mosek.Env.prosta.dual_infeas || 
 					p == mosek.Env.prosta.prim_infeas_or_unbounded){
-				task.dispose();
 				return null;
 			}
+			int s = solsta[0];
+			metrics.setOptimal(s == mosek.Env.solsta.optimal || s == mosek.Env.solsta.integer_optimal);
 
 			double[] x = new double[nvar];
 			task.getsolutionslice(mosek.Env.soltype.itg, mosek.Env.solitem.xx, 0, nvar, x);
 
-			Result result;
-			if (problem.getObjective() != null) {
-				result = new ResultImpl(problem.getObjective());
+			return getResult(x);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#dispose()
+		 */
+		@Override
+		protected void dispose() {
+			task = null;
+		}
+	}
+
+	/**
+	 * The {@code Abort} aborts the optimization of a session. The session is
+	 * only weakly referenced such that the task does not keep it reachable
+	 * (see {@link NativeResource}).
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Abort extends Progress {
+
+		protected final WeakReference<AbstractSolverSession> session;
+
+		/**
+		 * Constructs an {@code Abort}.
+		 * 
+		 * @param session
+		 *            the session
+		 */
+		public Abort(AbstractSolverSession session) {
+			this.session = new WeakReference<AbstractSolverSession>(session);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see mosek.Progress#progress(int)
+		 */
+		@Override
+		public int progress(int caller) {
+			AbstractSolverSession s = session.get();
+			return (s == null || s.aborted) ? 1 : 0;
+		}
+	}
+
+	/**
+	 * The {@code Model} disposes a Mosek task.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class Model extends NativeResource {
+
+		protected final Task task;
+
+		/**
+		 * Constructs a {@code Model}.
+		 * 
+		 * @param owner
+		 *            the owner
+		 * @param task
+		 *            the task
+		 */
+		public Model(Object owner, Task task) {
+			super(owner, "Mosek task");
+			this.task = task;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.NativeResource#free()
+		 */
+		@Override
+		protected void free() {
+			task.dispose();
+		}
+	}
+
+	/**
+	 * Sets the objective function and the optimization direction. A missing
+	 * objective function is set to zero.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param problem
+	 *            the problem
+	 * @throws Warning
+	 * @throws Error
+	 * @throws ArrayLengthException
+	 */
+	protected void setObjective(Task task, Problem problem) throws Warning, Error, ArrayLengthException {
+		int nvar = problem.getVariablesCount();
+		Linear objective = problem.getObjective();
+
+		int[] var = new int[nvar];
+		for (int j = 0; j < nvar; j++) {
+			var[j] = j;
+		}
+		double[] coeffs = new double[nvar];
+		if (objective != null) {
+			for (int j = 0; j < objective.size(); j++) {
+				coeffs[problem.getVariableIndex(objective.getVariable(j))] += objective.getCoefficient(j);
+			}
+		}
+
+		task.putclist(var, coeffs);
+
+		if (problem.getOptType() == OptType.MIN) {
+			task.putobjsense(Env.objsense.minimize);
+		} else {
+			task.putobjsense(Env.objsense.maximize);
+		}
+	}
+
+	/**
+	 * Sets the types and the bounds of the variables {@code from} (inclusive)
+	 * to {@code to} (exclusive) with one call each.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param problem
+	 *            the problem
+	 * @param from
+	 *            the first variable
+	 * @param to
+	 *            the last variable (exclusive)
+	 * @throws Warning
+	 * @throws Error
+	 * @throws ArrayLengthException
+	 */
+	protected void setColumns(Task task, Problem problem, int from, int to) throws Warning, Error,
+			ArrayLengthException {
+		int count = to - from;
+		if (count <= 0) {
+			return;
+		}
+
+		int[] sub = new int[count];
+		int[] types = new int[count];
+		int[] bk = new int[count];
+		double[] bl = new double[count];
+		double[] bu = new double[count];
+
+		for (int j = 0; j < count; j++) {
+			int index = from + j;
+			VarType varType = problem.getVarTypeAt(index);
+			double lowerBound = problem.getVarLowerBoundAt(index);
+			double upperBound = problem.getVarUpperBoundAt(index);
+
+			sub[j] = index;
+			if (varType == VarType.BOOL || varType == VarType.INT) {
+				types[j] = Env.variabletype.type_int;
 			} else {
-				result = new ResultImpl();
+				types[j] = Env.variabletype.type_cont;
 			}
 
-			for (int j = 0; j < x.length; ++j) {
-				Object variable = indexToVar.get(j);
+			boolean hasLb, hasUb;
+			if (varType == VarType.BOOL) {
+				hasLb = hasUb = true;
+				bl[j] = (lowerBound > 0 ? 1.0 : 0.0);
+				bu[j] = (upperBound < 1 ? 0.0 : 1.0);
+			} else {
+				hasLb = (lowerBound != Double.NEGATIVE_INFINITY);
+				hasUb = (upperBound != Double.POSITIVE_INFINITY);
+				bl[j] = (hasLb ? lowerBound : 0.0);
+				bu[j] = (hasUb ? upperBound : 0.0);
+			}
 
-				double value = x[j];
-				if (problem.getVarType(variable).isInt()) {
-					int v = (int) Math.round(value);
-					result.putPrimalValue(variable, v);
-				} else {
-					result.putPrimalValue(variable, value);
-				}
+			if (hasLb && hasUb) {
+				bk[j] = Env.boundkey.ra;
+			} else if (hasLb) {
+				bk[j] = Env.boundkey.lo;
+			} else if (hasUb) {
+				bk[j] = Env.boundkey.up;
+			} else {
+				bk[j] = Env.boundkey.fr;
 			}
+		}
 
-			task.dispose();
+		task.putvartypelist(sub, types);
+		task.putboundslice(Env.accmode.var, from, to, bk, bl, bu);
+	}
+
+	/**
+	 * Sets the coefficients and the bounds of the constraints {@code from}
+	 * (inclusive) to {@code to} (exclusive) with one call each. Duplicate
+	 * columns are merged.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param problem
+	 *            the problem
+	 * @param from
+	 *            the first constraint
+	 * @param to
+	 *            the last constraint (exclusive)
+	 * @throws Warning
+	 * @throws Error
+	 * @throws ArrayLengthException
+	 */
+	protected void setRows(Task task, Problem problem, int from, int to) throws Warning, Error,
+			ArrayLengthException {
+		int count = to - from;
+		if (count <= 0) {
+			return;
+		}
+
+		int[] sub = new int[count];
+		int[] ptrb = new int[count];
+		int[] ptre = new int[count];
+		int[] bk = new int[count];
+		double[] rhs = new double[count];
+
+		int nnz = 0;
+		for (int k = from; k < to; k++) {
+			nnz += problem.getConstraints().get(k).getLhs().size();
+		}
+		int[] asub = new int[nnz];
+		double[] aval = new double[nnz];
+
+		int[] positions = new int[problem.getVariablesCount()];
+		int pos = 0;
+		for (int k = 0; k < count; k++) {
+			Constraint constraint = problem.getConstraints().get(from + k);
+
+			sub[k] = from + k;
+			ptrb[k] = pos;
+			pos = getRow(problem, from + k, positions, asub, aval, pos);
+			ptre[k] = pos;
+			bk[k] = getBoundKey(constraint.getOperator());
+			rhs[k] = constraint.getRhs().doubleValue();
+		}
 
-			return result;
+		task.putaveclist(Env.accmode.con, sub, ptrb, ptre, asub, aval);
+		task.putboundslice(Env.accmode.con, from, to, bk, rhs, rhs);
+	}
+
+	protected void setRowBounds(Task task, int k, Operator operator, double rhs) throws Warning, Error {
+		task.putbound(Env.accmode.con, k, getBoundKey(operator), rhs, rhs);
+	}
 
-		} catch (Exception e) {
-			e.printStackTrace();
+	/**
+	 * Returns the Mosek bound key of an operator.
+	 * 
+	 * @param operator
+	 *            the operator
+	 * @return the bound key
+	 */
+	protected int getBoundKey(Operator operator) {
+		switch (operator) {
+		case LE:
+			return Env.boundkey.up;
+		case GE:
+			return Env.boundkey.lo;
+		default: // EQ
+			return Env.boundkey.fx;
 		}
-		return null;
 	}
 
 	protected void initWithParameters(Task task) throws Warning, Error {
-		Object timeout = parameters.get(Solver.TIMEOUT);
 		Object verbose = parameters.get(Solver.VERBOSE);
 
-		if (timeout != null && timeout instanceof Number) {
-			Number number = (Number) timeout;
-			long value = number.longValue();
-			task.putdouparam(Env.dparam.mio_max_time, value);
-		}
 		if (verbose != null && verbose instanceof Number) {
 			Number number = (Number) verbose;
 			int value = number.intValue();
@@ -335,13 +603,4 @@ public class SolverMosek extends AbstractSolver {
 		}
 	}
 
-	protected void convert(Linear linear, int[] var, double[] coeffs, Map<Object, Integer> varToIndex) {
-		int i = 0;
-		for (Term term : linear) {
-			var[i] = varToIndex.get(term.getVariable());
-			coeffs[i] = term.getCoefficient().doubleValue();
-			i++;
-		}
-	}
-
 }
@@ -0,0 +1,353 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code SolverPortfolio} is the {@code Solver} that races the solvers of
+ * several {@code SolverFactory} instances on the same problem, each in its own
+ * thread. The first result that a solver proved optimal (see
+ * {@link SolveMetrics#isOptimal()}) is returned and the other solvers are
+ * aborted. Other results are kept as incumbents until all solvers have
+ * finished. If the deadline (see {@link Solver#TIMEOUT} and
+ * {@link Solver#DEADLINE}) is reached, all solvers are aborted and the best
+ * of the results that they return within a short grace period (see
+ * {@link #GRACE}) is returned. The parameters of the portfolio are set for
+ * each solver in addition to the parameters of its factory.
+ * <p>
+ * The listener of the portfolio (see {@link Solver#LISTENER}) receives the
+ * solutions of all solvers that improve the best solution of the portfolio.
+ * If the listener stops the solve, all solvers are aborted and the best of
+ * the results that they return within the grace period is returned.
+ * <p>
+ * The solvers are started with a problem that must not be changed during the
+ * solve. Solvers that do not support aborting (see
+ * {@link AbstractSolverSession#interrupt()}) keep running in their thread
+ * after the result is returned.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolverPortfolio extends AbstractSolver {
+
+	/**
+	 * The time in milliseconds that the aborted solvers are given to return
+	 * their results.
+	 */
+	protected static final long GRACE = 1000;
+
+	protected final List<SolverFactory> factories;
+
+	protected final Set<Solver> members = new HashSet<Solver>();
+
+	/**
+	 * Constructs a {@code SolverPortfolio}.
+	 * 
+	 * @param factories
+	 *            the factories of the solvers
+	 */
+	public SolverPortfolio(Collection<? extends SolverFactory> factories) {
+		super();
+		if (factories.isEmpty()) {
+			throw new IllegalArgumentException("The portfolio requires at least one solver factory.");
+		}
+		this.factories = new ArrayList<SolverFactory>(factories);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
+	 */
+	public Result solve(Problem problem) {
+		return solve(problem, (double[]) null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solve(net.sf.javailp.Problem,
+	 * double[])
+	 */
+	@Override
+	protected Result solve(final Problem problem, final double[] start) {
+		List<Solver> solvers = new ArrayList<Solver>();
+		// all solvers share the same deadline
+		long deadline = getDeadline();
+		Object listener = parameters.get(Solver.LISTENER);
+		Incumbents incumbents = null;
+		if (listener != null && listener instanceof SolveListener) {
+			incumbents = new Incumbents((SolveListener) listener, problem, solvers);
+		}
+		for (SolverFactory factory : factories) {
+			Solver solver = factory.get();
+			for (Entry<Object, Object> entry : parameters.entrySet()) {
+				solver.setParameter(entry.getKey(), entry.getValue());
+			}
+			if (deadline != Long.MAX_VALUE) {
+				solver.setParameter(Solver.TIMEOUT, null);
+				solver.setParameter(Solver.DEADLINE, deadline);
+			}
+			if (incumbents != null) {
+				solver.setParameter(Solver.LISTENER, incumbents);
+			}
+			solvers.add(solver);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(solvers.size(),
+				getThreadFactory("javailp-portfolio"));
+		CompletionService<Result> service = new ExecutorCompletionService<Result>(executor);
+
+		synchronized (members) {
+			members.addAll(solvers);
+		}
+		try {
+			for (final Solver solver : solvers) {
+				service.submit(new Callable<Result>() {
+					public Result call() {
+						try {
+							return solve(solver, problem, start);
+						} finally {
+							solver.close();
+						}
+					}
+				});
+			}
+
+			boolean expired = false;
+			long wait = deadline;
+			int pending = solvers.size();
+			Result best = null;
+
+			while (pending > 0) {
+				long remaining = wait - System.currentTimeMillis();
+				Future<Result> future = service.poll(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+				if (future == null) {
+					if (expired) {
+						// the remaining solvers do not stop in time
+						break;
+					}
+					// collect the best solutions found so far
+					expired = true;
+					wait = System.currentTimeMillis() + GRACE;
+					abort(solvers);
+					continue;
+				}
+				pending--;
+
+				Result result = get(future);
+				if (!expired && incumbents != null && incumbents.isStopped()) {
+					expired = true;
+					wait = System.currentTimeMillis() + GRACE;
+				}
+				if (result != null) {
+					if (isOptimal(result)) {
+						return result;
+					} else if (best == null || isBetter(problem, result, best)) {
+						best = result;
+					}
+				}
+			}
+			return best;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} finally {
+			abort(solvers);
+			synchronized (members) {
+				members.removeAll(solvers);
+			}
+			executor.shutdownNow();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#abort()
+	 */
+	@Override
+	public void abort() {
+		synchronized (members) {
+			abort(members);
+		}
+	}
+
+	/**
+	 * The {@code Incumbents} passes the solutions of the solvers to the
+	 * listener of the portfolio if they improve the best solution so far.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Incumbents implements SolveListener {
+
+		protected final SolveListener listener;
+		protected final Problem problem;
+		protected final Collection<Solver> solvers;
+		protected final long startTime = System.currentTimeMillis();
+		protected Result best = null;
+		protected boolean stopped = false;
+
+		/**
+		 * Constructs an {@code Incumbents}.
+		 * 
+		 * @param listener
+		 *            the listener of the portfolio
+		 * @param problem
+		 *            the problem
+		 * @param solvers
+		 *            the solvers that are aborted if the listener stops
+		 */
+		public Incumbents(SolveListener listener, Problem problem, Collection<Solver> solvers) {
+			super();
+			this.listener = listener;
+			this.problem = problem;
+			this.solvers = solvers;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.SolveListener#improved(net.sf.javailp.Result,
+		 * java.lang.Number, long)
+		 */
+		public synchronized boolean improved(Result result, Number bound, long time) {
+			if (stopped) {
+				return false;
+			} else if (best == null || isBetter(problem, result, best)) {
+				best = result;
+				if (!listener.improved(result, bound, System.currentTimeMillis() - startTime)) {
+					stopped = true;
+					abort(solvers);
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns {@code true} if the listener stopped the solve.
+		 * 
+		 * @return {@code true} if the solve is stopped
+		 */
+		public synchronized boolean isStopped() {
+			return stopped;
+		}
+	}
+
+	/**
+	 * Solves the problem with one solver of the portfolio.
+	 * 
+	 * @param solver
+	 *            the solver
+	 * @param problem
+	 *            the problem
+	 * @param start
+	 *            the starting values or {@code null}
+	 * @return the result
+	 */
+	protected Result solve(Solver solver, Problem problem, double[] start) {
+		if (solver instanceof AbstractSolver) {
+			return ((AbstractSolver) solver).solve(problem, start);
+		} else {
+			return solver.solve(problem);
+		}
+	}
+
+	/**
+	 * Aborts the given solvers.
+	 * 
+	 * @param solvers
+	 *            the solvers
+	 */
+	protected void abort(Collection<Solver> solvers) {
+		for (Solver solver : solvers) {
+			if (solver instanceof AbstractSolver) {
+				((AbstractSolver) solver).abort();
+			}
+		}
+	}
+
+	/**
+	 * Returns the result of a finished solver or {@code null} if the solver
+	 * failed.
+	 * 
+	 * @param future
+	 *            the future of the solver
+	 * @return the result
+	 * @throws InterruptedException
+	 *             if the thread is interrupted
+	 */
+	protected Result get(Future<Result> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			e.getCause().printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the solver proved the result optimal.
+	 * 
+	 * @param result
+	 *            the result
+	 * @return {@code true} if the result is optimal
+	 */
+	protected boolean isOptimal(Result result) {
+		SolveMetrics metrics = result.getMetrics();
+		return metrics != null && metrics.isOptimal();
+	}
+
+	/**
+	 * Returns {@code true} if the first result has a better objective value
+	 * than the second result.
+	 * 
+	 * @param problem
+	 *            the problem
+	 * @param result
+	 *            the first result
+	 * @param other
+	 *            the second result
+	 * @return {@code true} if the first result is better
+	 */
+	protected boolean isBetter(Problem problem, Result result, Result other) {
+		Number value = result.getObjective();
+		Number otherValue = other.getObjective();
+		if (value == null || otherValue == null) {
+			return false;
+		} else if (problem.getOptType() == OptType.MAX) {
+			return value.doubleValue() > otherValue.doubleValue();
+		} else {
+			return value.doubleValue() < otherValue.doubleValue();
+		}
+	}
+
+}
@@ -15,13 +15,17 @@
 package net.sf.javailp;
 
 import java.math.BigInteger;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import net.sf.javailp.SolveMetrics.Phase;
+
+import org.sat4j.core.LiteralsUtils;
 import org.sat4j.core.Vec;
 import org.sat4j.core.VecInt;
+import org.sat4j.minisat.core.IOrder;
+import org.sat4j.minisat.core.IPhaseSelectionStrategy;
 import org.sat4j.pb.ObjectiveFunction;
 import org.sat4j.pb.SolverFactory;
 import org.sat4j.pb.core.PBSolverResolution;
@@ -39,7 +43,25 @@ public class SolverSAT4J extends AbstractSolver {
 
 	protected static boolean print = true;
 
-	protected int timeout = Integer.MAX_VALUE;
+	/**
+	 * The linear search strategy (default) for the {@link Solver#SEARCH}
+	 * parameter. Each solution is followed by the next better one.
+	 */
+	public static final int LINEAR = 0;
+
+	/**
+	 * The binary search strategy for the {@link Solver#SEARCH} parameter. The
+	 * objective bound is bisected between the lower bound and the best
+	 * solution.
+	 */
+	public static final int BINARY = 1;
+
+	/**
+	 * The core-guided search strategy for the {@link Solver#SEARCH}
+	 * parameter. The lower bound is probed under assumption and raised by the
+	 * unsatisfiable probes.
+	 */
+	public static final int CORE = 2;
 
 	/**
 	 * The {@code Hook} for the {@code SolverSAT4J}.
@@ -90,186 +112,857 @@ public class SolverSAT4J extends AbstractSolver {
 	 * @see net.sf.javailp.Solver#solve(net.sf.javailp.Problem)
 	 */
 	public Result solve(Problem problem) {
+		return solve(problem, (double[]) null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#solve(net.sf.javailp.Problem,
+	 * double[])
+	 */
+	@Override
+	protected Result solve(Problem problem, double[] start) {
+		return run(new Session(problem), start);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see net.sf.javailp.AbstractSolver#openSession(net.sf.javailp.Problem)
+	 */
+	@Override
+	public SolverSession openSession(Problem problem) {
+		return new Session(problem);
+	}
 
-		try {
+	/**
+	 * The {@code Session} keeps the SAT4J solver. The bounds of the variables
+	 * are passed as assumptions such that bound changes, objective changes,
+	 * and new constraints are applied incrementally. All other changes require
+	 * a rebuild.
+	 * <p>
+	 * The objective is converted once (per objective change) into the vectors
+	 * of the solver. The optimization is a sequence of satisfiability problems
+	 * with bounds on the objective that are added to the same solver instance
+	 * such that the learnt clauses are kept. The objective is minimized
+	 * internally, i.e., the coefficients are negated for maximization.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected class Session extends AbstractSolverSession {
+
+		protected PBSolverResolution solver = null;
+		protected boolean contradiction = false;
+		protected int selector = 0;
+		protected IPhaseSelectionStrategy phases = null;
+
+		protected VecInt objectiveVars = null;
+		protected IVec<BigInteger> objectiveCoeffs = null;
+		protected long[] costs = null;
+		protected long lowest = 0;
+		protected long highest = 0;
+		protected long step = 1;
+		protected long lower = 0;
+		protected long calls = 0;
+
+		protected boolean[] model = null;
+		protected boolean[] best = null;
+		protected long cost = 0;
 
-			Map<Integer, Object> indexToVar = new HashMap<Integer, Object>();
-			Map<Object, Integer> varToIndex = new HashMap<Object, Integer>();
+		/**
+		 * Constructs a {@code Session}.
+		 * 
+		 * @param problem
+		 *            the problem
+		 */
+		public Session(Problem problem) {
+			super(problem, SolverSAT4J.this.parameters);
+		}
 
-			int i = 1;
-			for (Object variable : problem.getVariables()) {
-				check(variable, problem);
-				indexToVar.put(i, variable);
-				varToIndex.put(variable, i);
-				i++;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#isIncremental(net.sf.javailp
+		 * .ChangeType)
+		 */
+		@Override
+		protected boolean isIncremental(ChangeType type) {
+			switch (type) {
+			case VARIABLE_BOUNDS:
+			case CONSTRAINT_ADDED:
+			case OBJECTIVE:
+			case OPTIMIZATION_TYPE:
+				return true;
+			default:
+				return false;
 			}
-			
-			
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#build()
+		 */
+		@Override
+		protected void build() {
+			int nvar = problem.getVariablesCount();
+
+			for (int i = 0; i < nvar; i++) {
+				check(i, problem);
+			}
+
+			solver = SolverFactory.newPBResMixedConstraintsObjective();
+			contradiction = false;
+			selector = 0;
+			phases = null;
 
-			PBSolverResolution solver = SolverFactory
-					.newPBResMixedConstraintsObjective();
 			initWithParameters(solver);
 			printOut("Solve problem with SAT4J");
-			solver.newVar(problem.getVariablesCount() + 1);
+			solver.newVar(nvar + 1);
 
-			if (problem.getObjective() != null) {
+			setObjective();
 
-				Linear objective = problem.getObjective();
+			try {
+				for (int k = 0; k < problem.getConstraintsCount(); k++) {
+					addConstraint(k);
+				}
+			} catch (ContradictionException ex) {
+				printErr("Contradictions(1): " + ex.toString());
+				contradiction = true;
+			}
 
-				VecInt vars = new VecInt();
-				IVec<BigInteger> coeffs = new Vec<BigInteger>();
+			if (!hooks.isEmpty()) {
+				Map<Object, Integer> varToIndex = getVarToIndex(problem, 1);
+				for (Hook hook : hooks) {
+					hook.call(solver, varToIndex);
+				}
+			}
+		}
 
-				for (Term term : objective) {
-					Object variable = term.getVariable();
-					Number coeff = term.getCoefficient();
-					int index = varToIndex.get(variable);
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * net.sf.javailp.AbstractSolverSession#update(net.sf.javailp.Change)
+		 */
+		@Override
+		protected void update(Change change) {
+			switch (change.getType()) {
+			case CONSTRAINT_ADDED:
+				try {
+					for (int k = change.getIndex(); k < change.getIndex() + change.getCount(); k++) {
+						addConstraint(k);
+					}
+				} catch (ContradictionException ex) {
+					printErr("Contradictions(1): " + ex.toString());
+					contradiction = true;
+				}
+				break;
+			case OBJECTIVE:
+			case OPTIMIZATION_TYPE:
+				setObjective();
+				break;
+			default: // VARIABLE_BOUNDS
+				// the bounds are passed as assumptions
+			}
+		}
 
-					BigInteger integer = toBigInt(coeff);
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#optimize(double[])
+		 */
+		@Override
+		protected Result optimize(double[] start) {
+			int nvar = problem.getVariablesCount();
 
-					vars.push(index);
-					coeffs.push(integer);
+			if (contradiction) {
+				printErr("No feasible solution found");
+				return null;
+			}
+
+			Linear objective = problem.getObjective();
+
+			VecInt assumptions = new VecInt();
+
+			try {
+				// the objective bounds are only active under the assumption of
+				// a selector variable such that they (and the clauses learnt
+				// from them) are deactivated by a unit clause afterwards
+				if (selector != 0) {
+					retire(selector);
+					selector = 0;
 				}
+				if (objective != null) {
+					selector = newSelector();
+					assumptions.push(selector);
+				}
+			} catch (ContradictionException ex) {
+				printErr("Contradictions(1): " + ex.toString());
+				contradiction = true;
+				return null;
+			}
 
-				ObjectiveFunction function = new ObjectiveFunction(vars, coeffs);
-				solver.setObjectiveFunction(function);
+			for (int i = 0; i < nvar; i++) {
+				int index = i + 1;
+
+				double lowerBound = problem.getVarLowerBoundAt(i);
+				double upperBound = problem.getVarUpperBoundAt(i);
+
+				if (lowerBound > 0) {
+					assumptions.push(index);
+				}
+				if (upperBound < 1) {
+					assumptions.push(-index);
+				}
 			}
 
-			{
-				for (Constraint constraint : problem.getConstraints()) {
-					Linear linear = constraint.getLhs();
-					Operator operator = constraint.getOperator();
-					BigInteger rhs = toBigInt(constraint.getRhs());
-
-					VecInt vars = new VecInt();
-					IVec<BigInteger> coeffs = new Vec<BigInteger>();
-					for (Term term : linear) {
-						Object variable = term.getVariable();
-						Number coeff = term.getCoefficient();
-						int index = varToIndex.get(variable);
-						vars.push(index);
-						coeffs.push(toBigInt(coeff));
-					}
+			// the starting values are the preferred phases of the search and,
+			// if they are a feasible solution, the first incumbent
+			setPhases(start);
+			best = null;
+			lower = lowest;
+			if (isFeasible(problem, start)) {
+				best = new boolean[nvar];
+				for (int i = 0; i < nvar; i++) {
+					best[i] = start[i] > 0.5;
+				}
+				cost = getCost(best);
+				if (objective != null) {
+					printOut("Start with solution: " + getValue(cost));
+				}
+				report();
+			}
 
-					if (operator == Operator.LE || operator == Operator.EQ) {
-						solver.addPseudoBoolean(vars, coeffs, false, rhs);
+			metrics.enter(Phase.OPTIMIZATION);
+			calls = 0;
+			// the search is complete unless it times out
+			boolean optimal = true;
+			try {
+				if (objective == null) {
+					if (best == null && isSatisfiable(assumptions)) {
+						store();
 					}
-					if (operator == Operator.GE || operator == Operator.EQ) {
-						solver.addPseudoBoolean(vars, coeffs, true, rhs);
+				} else {
+					switch (getSearch()) {
+					case BINARY:
+						searchBinary(assumptions);
+						break;
+					case CORE:
+						searchCore(assumptions);
+						break;
+					default:
+						searchLinear(assumptions);
 					}
 				}
+			} catch (ContradictionException ex) {
+				printErr("Contradictions(2): " + ex.toString());
+			} catch (TimeoutException ex) {
+				printErr("Timeout");
+				optimal = false;
+			}
+			metrics.enter(Phase.EXTRACTION);
+			metrics.setIterations(calls);
+			metrics.setOptimal(optimal);
+
+			if (best == null) {
+				printErr("No feasible solution found");
+				return null;
+			} else {
+				return getResult(best);
 			}
+		}
 
-			{
-				for (Object variable : problem.getVariables()) {
-					int index = varToIndex.get(variable);
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#interrupt()
+		 */
+		@Override
+		protected void interrupt() {
+			PBSolverResolution s = solver;
+			if (s != null) {
+				s.expireTimeout();
+			}
+		}
 
-					Number lowerBound = problem.getVarLowerBound(variable);
-					Number upperBound = problem.getVarUpperBound(variable);
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.AbstractSolverSession#dispose()
+		 */
+		@Override
+		protected void dispose() {
+			solver = null;
+			model = null;
+			best = null;
+		}
 
-					if (lowerBound != null && lowerBound.doubleValue() > 0) {
-						VecInt vars = new VecInt();
-						vars.push(index);
-						solver.addAtLeast(vars, 1);
+		/**
+		 * Searches from above: every solution is followed by the bound that
+		 * the next solution has to be better.
+		 * 
+		 * @param assumptions
+		 *            the assumptions
+		 * @throws ContradictionException
+		 *             if a bound contradicts the constraints
+		 * @throws TimeoutException
+		 *             if the timeout is reached
+		 */
+		protected void searchLinear(VecInt assumptions) throws ContradictionException, TimeoutException {
+			if (best == null) {
+				if (!isSatisfiable(assumptions)) {
+					return;
+				}
+				store();
+			}
+			while (cost > lowest) {
+				addUpperBound(selector, cost - step);
+				if (!isSatisfiable(assumptions)) {
+					break;
+				}
+				store();
+			}
+		}
+
+		/**
+		 * Searches by bisection of the interval between the lower bound and
+		 * the best solution. Each probe is only active under the assumption of
+		 * its own selector variable.
+		 * 
+		 * @param assumptions
+		 *            the assumptions
+		 * @throws ContradictionException
+		 *             if a bound contradicts the constraints
+		 * @throws TimeoutException
+		 *             if the timeout is reached
+		 */
+		protected void searchBinary(VecInt assumptions) throws ContradictionException, TimeoutException {
+			if (best == null) {
+				if (!isSatisfiable(assumptions)) {
+					return;
+				}
+				store();
+			}
+			while (cost > lower) {
+				long middle = align(lower + (cost - step - lower) / 2);
+				if (probe(assumptions, middle)) {
+					store();
+				} else {
+					lower = middle + step;
+					if (cost > lower) {
+						addLowerBound(selector, lower);
 					}
-					if (upperBound != null && upperBound.doubleValue() < 1) {
-						VecInt vars = new VecInt();
-						vars.push(index);
-						solver.addAtMost(vars, 0);
+				}
+			}
+		}
+
+		/**
+		 * Searches from below: the lower bound is probed under an assumption
+		 * and raised if the probe is unsatisfiable. The bundled SAT4J version
+		 * does not report the unsatisfiable core of the assumptions, thus, the
+		 * distance of the probes to the lower bound is doubled with each
+		 * unsatisfiable probe and reset with each solution.
+		 * 
+		 * @param assumptions
+		 *            the assumptions
+		 * @throws ContradictionException
+		 *             if a bound contradicts the constraints
+		 * @throws TimeoutException
+		 *             if the timeout is reached
+		 */
+		protected void searchCore(VecInt assumptions) throws ContradictionException, TimeoutException {
+			if (best == null) {
+				if (!isSatisfiable(assumptions)) {
+					return;
+				}
+				store();
+			}
+			long distance = 0;
+			while (cost > lower) {
+				long bound = Math.min(lower + distance, cost - step);
+				if (probe(assumptions, bound)) {
+					store();
+					distance = 0;
+				} else {
+					lower = bound + step;
+					distance = distance == 0 ? step : 2 * distance;
+					if (cost > lower) {
+						addLowerBound(selector, lower);
 					}
 				}
 			}
+		}
 
-			for (Hook hook : hooks) {
-				hook.call(solver, varToIndex);
+		/**
+		 * Returns {@code true} if there exists a solution with the given
+		 * maximal cost. The bound is only active under the assumption of a new
+		 * selector variable that is deactivated afterwards.
+		 * 
+		 * @param assumptions
+		 *            the assumptions
+		 * @param bound
+		 *            the maximal cost
+		 * @return {@code true} if there exists a solution
+		 * @throws ContradictionException
+		 *             if the bound contradicts the constraints
+		 * @throws TimeoutException
+		 *             if the timeout is reached
+		 */
+		protected boolean probe(VecInt assumptions, long bound) throws ContradictionException, TimeoutException {
+			if (bound < lowest) {
+				return false;
+			} else if (bound >= highest) {
+				return isSatisfiable(assumptions);
 			}
+			int probe = newSelector();
+			addUpperBound(probe, bound);
+			assumptions.push(probe);
+			try {
+				return isSatisfiable(assumptions);
+			} finally {
+				assumptions.pop();
+				retire(probe);
+			}
+		}
 
-			Map<Object, Number> r = new HashMap<Object, Number>();
-			Linear objective = problem.getObjective();
+		/**
+		 * Returns {@code true} if the constraints are satisfiable under the
+		 * given assumptions. The timeout is the remaining time of the
+		 * optimization.
+		 * 
+		 * @param assumptions
+		 *            the assumptions
+		 * @return {@code true} if the constraints are satisfiable
+		 * @throws TimeoutException
+		 *             if the timeout is reached
+		 */
+		protected boolean isSatisfiable(VecInt assumptions) throws TimeoutException {
+			if (contradiction) {
+				return false;
+			} else if (aborted) {
+				throw new TimeoutException("Aborted");
+			}
+			long remaining = getRemainingMillis();
+			if (remaining == Long.MAX_VALUE) {
+				solver.setTimeout(Integer.MAX_VALUE);
+			} else if (remaining > 0) {
+				solver.setTimeoutMs(remaining);
+			} else {
+				throw new TimeoutException("Deadline");
+			}
+			calls++;
+			if (!solver.isSatisfiable(assumptions)) {
+				return false;
+			}
+
+			int nvar = problem.getVariablesCount();
+			model = new boolean[nvar];
+			for (int i = 0; i < nvar; i++) {
+				model[i] = solver.model(i + 1);
+			}
+			// SAT4J does not keep a conflict at the root level, i.e., once the
+			// constraints are proven to be unsatisfiable, the next call may
+			// return an invalid model
+			if (!isValid(model)) {
+				printErr("Contradictions(2): invalid model after unsatisfiable constraints");
+				contradiction = true;
+				return false;
+			}
+			return true;
+		}
 
-			
-			
-			long startTime = System.currentTimeMillis();
+		/**
+		 * Returns {@code true} if the values satisfy the constraints and the
+		 * bounds of the variables.
+		 * 
+		 * @param values
+		 *            the values of the variables
+		 * @return {@code true} if the values are valid
+		 */
+		protected boolean isValid(boolean[] values) {
+			CompiledProblem compiled = problem.compile();
+			double[] lowerBounds = compiled.getLowerBounds();
+			double[] upperBounds = compiled.getUpperBounds();
+			for (int i = 0; i < values.length; i++) {
+				if ((values[i] && upperBounds[i] < 1) || (!values[i] && lowerBounds[i] > 0)) {
+					return false;
+				}
+			}
 
-			try {
-				long currentTime = System.currentTimeMillis();
-				int diff = (int) Math
-						.floor((double) (currentTime - startTime) / 1000.0);
-				int t = Math.max(this.timeout - diff, 0);
-				solver.setTimeout(t);
-
-				while (solver.isSatisfiable()) {
-					r.clear();
-					for (Object variable : problem.variables) {
-						int index = varToIndex.get(variable);
-						r.put(variable, solver.model(index) ? 1 : 0);
+			int[] starts = compiled.getRowStarts();
+			int[] indices = compiled.getRowIndices();
+			double[] coeffs = compiled.getRowValues();
+			double[] rhs = compiled.getRhs();
+			Operator[] operators = compiled.getOperators();
+			for (int k = 0; k < compiled.getRowsCount(); k++) {
+				double lhs = 0;
+				for (int j = starts[k]; j < starts[k + 1]; j++) {
+					if (values[indices[j]]) {
+						lhs += coeffs[j];
 					}
-					if (objective == null) {
-						break;
+				}
+				switch (operators[k]) {
+				case LE:
+					if (lhs > rhs[k]) {
+						return false;
+					}
+					break;
+				case GE:
+					if (lhs < rhs[k]) {
+						return false;
 					}
+					break;
+				default: // EQ
+					if (lhs != rhs[k]) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
 
-					Number value = objective.evaluate(r);
+		/**
+		 * Stores the last model of the solver as the best solution.
+		 */
+		protected void store() {
+			best = model;
+			cost = getCost(best);
+			if (costs != null) {
+				printOut("Found new solution: " + getValue(cost));
+			}
+			report();
+		}
 
-					printOut("Found new solution: " + value);
+		/**
+		 * Passes the best solution and the lower bound of the cost to the
+		 * listener (if any).
+		 */
+		protected void report() {
+			if (getListener() != null) {
+				improved(getResult(best), costs != null ? getValue(lower) : null);
+			}
+		}
 
-					VecInt vars = new VecInt();
-					IVec<BigInteger> coeffs = new Vec<BigInteger>();
+		/**
+		 * Returns the result for a solution.
+		 * 
+		 * @param values
+		 *            the values of the variables
+		 * @return the result
+		 */
+		protected Result getResult(boolean[] values) {
+			double[] result = new double[problem.getVariablesCount()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = values[i] ? 1 : 0;
+			}
+			return new ResultArray(problem, result);
+		}
 
-					for (Term term : objective) {
-						Object variable = term.getVariable();
-						Number coeff = term.getCoefficient();
-						int index = varToIndex.get(variable);
+		/**
+		 * Returns the cost of a solution.
+		 * 
+		 * @param values
+		 *            the values of the variables
+		 * @return the cost
+		 */
+		protected long getCost(boolean[] values) {
+			long sum = 0;
+			if (costs != null) {
+				for (int j = 0; j < costs.length; j++) {
+					if (values[objectiveVars.get(j) - 1]) {
+						sum += costs[j];
+					}
+				}
+			}
+			return sum;
+		}
+
+		/**
+		 * Returns the objective value for a cost.
+		 * 
+		 * @param cost
+		 *            the cost
+		 * @return the objective value
+		 */
+		protected long getValue(long cost) {
+			return problem.getOptType() == OptType.MAX ? -cost : cost;
+		}
+
+		/**
+		 * Returns the greatest achievable cost that is not greater than the
+		 * given cost. All costs differ from the lowest cost by a multiple of
+		 * the step.
+		 * 
+		 * @param cost
+		 *            the cost
+		 * @return the aligned cost
+		 */
+		protected long align(long cost) {
+			return cost - (cost - lowest) % step;
+		}
+
+		/**
+		 * Returns the search strategy.
+		 * 
+		 * @return the search strategy
+		 */
+		protected int getSearch() {
+			Object search = parameters.get(Solver.SEARCH);
+			if (search != null && search instanceof Number) {
+				return ((Number) search).intValue();
+			}
+			return LINEAR;
+		}
+
+		/**
+		 * Returns a new selector variable.
+		 * 
+		 * @return the selector variable
+		 */
+		protected int newSelector() {
+			int var = solver.nVars() + 1;
+			solver.newVar(var);
+			return var;
+		}
+
+		/**
+		 * Deactivates a selector variable (and all constraints that are only
+		 * active under its assumption) by a unit clause.
+		 * 
+		 * @param var
+		 *            the selector variable
+		 * @throws ContradictionException
+		 *             if the unit clause contradicts the constraints
+		 */
+		protected void retire(int var) throws ContradictionException {
+			solver.addClause(new VecInt(new int[] { -var }));
+		}
+
+		/**
+		 * Adds the constraint that the cost is at most the given bound. The
+		 * constraint is relaxed if the selector variable is false.
+		 * 
+		 * @param var
+		 *            the selector variable
+		 * @param bound
+		 *            the bound
+		 * @throws ContradictionException
+		 *             if the constraint contradicts the constraints
+		 */
+		protected void addUpperBound(int var, long bound) throws ContradictionException {
+			BigInteger m = BigInteger.valueOf(Math.max(highest - bound, 0));
+			addBound(var, m, false, BigInteger.valueOf(bound).add(m));
+		}
+
+		/**
+		 * Adds the constraint that the cost is at least the given bound. The
+		 * constraint is relaxed if the selector variable is false.
+		 * 
+		 * @param var
+		 *            the selector variable
+		 * @param bound
+		 *            the bound
+		 * @throws ContradictionException
+		 *             if the constraint contradicts the constraints
+		 */
+		protected void addLowerBound(int var, long bound) throws ContradictionException {
+			BigInteger m = BigInteger.valueOf(Math.max(bound - lowest, 0));
+			addBound(var, m.negate(), true, BigInteger.valueOf(bound).subtract(m));
+		}
 
-						BigInteger integer = toBigInt(coeff);
+		/**
+		 * Adds a constraint on the precomputed objective vectors with the
+		 * selector variable.
+		 * 
+		 * @param var
+		 *            the selector variable
+		 * @param coeff
+		 *            the coefficient of the selector variable
+		 * @param moreThan
+		 *            {@code true} for a lower bound, {@code false} for an
+		 *            upper bound
+		 * @param bound
+		 *            the right-hand side
+		 * @throws ContradictionException
+		 *             if the constraint contradicts the constraints
+		 */
+		protected void addBound(int var, BigInteger coeff, boolean moreThan, BigInteger bound)
+				throws ContradictionException {
+			VecInt vars = new VecInt(objectiveVars.size() + 1);
+			IVec<BigInteger> coeffs = new Vec<BigInteger>(objectiveCoeffs.size() + 1);
+			objectiveVars.copyTo(vars);
+			objectiveCoeffs.copyTo(coeffs);
+			vars.push(var);
+			coeffs.push(coeff);
+			solver.addPseudoBoolean(vars, coeffs, moreThan, bound);
+		}
 
-						vars.push(index);
-						coeffs.push(integer);
+		/**
+		 * Sets the starting values as preferred phases of the variables or
+		 * restores the default phase selection if no starting values are
+		 * given.
+		 * 
+		 * @param start
+		 *            the starting values or {@code null}
+		 */
+		protected void setPhases(double[] start) {
+			IOrder<?> order = solver.getOrder();
+			if (phases == null) {
+				phases = order.getPhaseSelectionStrategy();
+			}
+			if (start == null) {
+				order.setPhaseSelectionStrategy(phases);
+			} else {
+				int[] hints = new int[start.length + 1];
+				for (int i = 0; i < start.length; i++) {
+					if (!Double.isNaN(start[i])) {
+						hints[i + 1] = (start[i] > 0 ? LiteralsUtils.posLit(i + 1) : LiteralsUtils.negLit(i + 1));
 					}
+				}
+				order.setPhaseSelectionStrategy(new PhaseHints(phases, hints));
+			}
+		}
+
+		/**
+		 * Sets the objective function of the solver and precomputes the
+		 * vectors of the (minimized) costs.
+		 */
+		protected void setObjective() {
+			Linear objective = problem.getObjective();
+			if (objective != null) {
+				boolean isMax = problem.getOptType() == OptType.MAX;
+
+				VecInt vars = new VecInt(objective.size());
+				IVec<BigInteger> coeffs = new Vec<BigInteger>(objective.size());
+				objectiveVars = new VecInt(objective.size());
+				objectiveCoeffs = new Vec<BigInteger>(objective.size());
+				costs = new long[objective.size()];
+				lowest = 0;
+				highest = 0;
+				step = 0;
 
-					long rhs = value.longValue();
+				for (int j = 0; j < objective.size(); j++) {
+					int index = problem.getVariableIndex(objective.getVariable(j)) + 1;
 
-					boolean isMax = problem.getOptType() == OptType.MAX;
-					if (isMax) {
-						rhs++;
+					BigInteger integer = toBigInt(objective.getCoefficient(j));
+
+					vars.push(index);
+					coeffs.push(integer);
+
+					long c = isMax ? -integer.longValue() : integer.longValue();
+					objectiveVars.push(index);
+					objectiveCoeffs.push(BigInteger.valueOf(c));
+					costs[j] = c;
+					if (c > 0) {
+						highest += c;
 					} else {
-						rhs--;
+						lowest += c;
 					}
-					solver.addPseudoBoolean(vars, coeffs, isMax, toBigInt(rhs));
-
-					currentTime = System.currentTimeMillis();
-					diff = (int) Math
-							.floor((double) (currentTime - startTime) / 1000.0);
-					t = Math.max(this.timeout - diff, 0);
-					solver.setTimeout(t);
+					step = BigInteger.valueOf(step).gcd(BigInteger.valueOf(c)).longValue();
+				}
+				if (step == 0) {
+					step = 1;
 				}
-			} catch (ContradictionException ex) {
-				printErr("Contradictions(2): " + ex.toString());
-			} catch (TimeoutException ex) {
-				printErr("Timeout");
-			}
 
-			if (r.isEmpty()) {
-				printErr("No feasible solution found");
-				return null;
+				ObjectiveFunction function = new ObjectiveFunction(vars, coeffs);
+				solver.setObjectiveFunction(function);
 			} else {
-				final Result result;
-				if (objective == null) {
-					result = new ResultImpl();
-				} else {
-					result = new ResultImpl(objective);
-				}
+				objectiveVars = null;
+				objectiveCoeffs = null;
+				costs = null;
+				lowest = 0;
+				highest = 0;
+				step = 1;
+			}
+		}
 
-				for (Object variable : problem.variables) {
-					Number b = r.get(variable);
-					result.put(variable, b);
-				}
+		/**
+		 * Adds the {@code k}-th constraint to the solver.
+		 * 
+		 * @param k
+		 *            the index of the constraint
+		 * @throws ContradictionException
+		 *             if the constraint contradicts the existing constraints
+		 */
+		protected void addConstraint(int k) throws ContradictionException {
+			Constraint constraint = problem.getConstraints().get(k);
+			Linear linear = constraint.getLhs();
+			Operator operator = constraint.getOperator();
+			BigInteger rhs = toBigInt(constraint.getRhs());
+
+			VecInt vars = new VecInt();
+			IVec<BigInteger> coeffs = new Vec<BigInteger>();
+			for (int j = 0; j < linear.size(); j++) {
+				int index = problem.getVariableIndex(linear.getVariable(j)) + 1;
+				vars.push(index);
+				coeffs.push(toBigInt(linear.getCoefficient(j)));
+			}
 
-				return result;
+			if (operator == Operator.LE || operator == Operator.EQ) {
+				solver.addPseudoBoolean(vars, coeffs, false, rhs);
 			}
+			if (operator == Operator.GE || operator == Operator.EQ) {
+				solver.addPseudoBoolean(vars, coeffs, true, rhs);
+			}
+		}
+	}
+
+	/**
+	 * The {@code PhaseHints} prefers the given phases of the variables and
+	 * uses the phase selection strategy of the solver for all other variables.
+	 * 
+	 * @author lukasiewycz
+	 * 
+	 */
+	protected static class PhaseHints implements IPhaseSelectionStrategy {
+
+		private static final long serialVersionUID = 1L;
+
+		protected final IPhaseSelectionStrategy strategy;
+		protected final int[] hints;
 
-		} catch (ContradictionException ex) {
-			printErr("Contradictions(1): " + ex.toString());
+		/**
+		 * Constructs a {@code PhaseHints}.
+		 * 
+		 * @param strategy
+		 *            the strategy for the variables without hint
+		 * @param hints
+		 *            the preferred literals indexed by the variables ({@code 0}
+		 *            for no hint)
+		 */
+		public PhaseHints(IPhaseSelectionStrategy strategy, int[] hints) {
+			super();
+			this.strategy = strategy;
+			this.hints = hints;
 		}
-		return null;
+
+		public int select(int var) {
+			if (var < hints.length && hints[var] != 0) {
+				return hints[var];
+			}
+			return strategy.select(var);
+		}
+
+		public void assignLiteral(int p) {
+			strategy.assignLiteral(p);
+		}
+
+		public void init(int nlength) {
+			strategy.init(nlength);
+		}
+
+		public void init(int var, int p) {
+			strategy.init(var, p);
+		}
+
+		public void updateVar(int p) {
+			strategy.updateVar(p);
+		}
+
 	}
 
 	protected void printOut(String message) {
@@ -285,13 +978,8 @@ public class SolverSAT4J extends AbstractSolver {
 	}
 
 	protected void initWithParameters(PBSolverResolution solver) {
-		Object timeout = parameters.get(Solver.TIMEOUT);
 		Object verbose = parameters.get(Solver.VERBOSE);
 
-		if (timeout != null && timeout instanceof Number) {
-			Number number = (Number) timeout;
-			this.timeout = number.intValue();
-		}
 		if (verbose != null && verbose instanceof Number) {
 
 			Number number = (Number) verbose;
@@ -307,27 +995,28 @@ public class SolverSAT4J extends AbstractSolver {
 
 	}
 
-	protected void check(Object variable, Problem problem) {
-		VarType type = problem.getVarType(variable);
+	protected void check(int index, Problem problem) {
+		VarType type = problem.getVarTypeAt(index);
 		if (type != VarType.BOOL) {
 			throw new IllegalArgumentException(
 					"Variable "
-							+ variable
+							+ problem.getVariable(index)
 							+ " is not a binary variable. SAT4J can only solve 0-1 ILPs.");
 		}
 	}
 
 	protected BigInteger toBigInt(Number number) {
-		Long lvalue = number.longValue();
-		Double dvalue = number.doubleValue();
+		return toBigInt(number.doubleValue());
+	}
 
+	protected BigInteger toBigInt(double dvalue) {
 		if (dvalue != Math.round(dvalue)) {
 			throw new IllegalArgumentException(
 					"SAT4J can only solve 0-1 ILPs (all coefficients have to be integer values). Found coefficient: "
 							+ dvalue);
 		}
 
-		BigInteger big = BigInteger.valueOf(lvalue);
+		BigInteger big = BigInteger.valueOf((long) dvalue);
 		return big;
 	}
 
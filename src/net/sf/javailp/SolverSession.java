@@ -0,0 +1,69 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp;
+
+/**
+ * The {@code SolverSession} solves one {@link Problem} repeatedly. In contrast
+ * to {@link Solver#solve(Problem)}, a session may keep the model of the solver
+ * between the calls of {@link #solve()} and only apply the changes of the
+ * problem since the last call.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public interface SolverSession extends AutoCloseable {
+
+	/**
+	 * Solves the problem in its current state and returns the result or
+	 * {@code null} if the problem is not solvable.
+	 * 
+	 * @return the result
+	 */
+	public Result solve();
+
+	/**
+	 * Solves the problem in its current state starting from a previous result
+	 * (see {@link Solver#solve(Problem, Result)}).
+	 * 
+	 * @param start
+	 *            the starting point (may be {@code null})
+	 * @return the result
+	 */
+	public Result solve(Result start);
+
+	/**
+	 * Returns the problem.
+	 * 
+	 * @return the problem
+	 */
+	public Problem getProblem();
+
+	/**
+	 * Aborts the running solve (or the next solve if no solve is running).
+	 * The aborted solve returns the best solution found so far or
+	 * {@code null}. This method may be called from any thread.
+	 */
+	public void abort();
+
+	/**
+	 * Releases the model of the solver and its native objects. The change
+	 * journal of the problem is discarded if this was its last open session
+	 * (see {@link Problem#setJournaling(boolean)}). A subsequent call of
+	 * {@link #solve()} builds a new model. A session that is not closed is
+	 * released after it became unreachable (see {@link NativeResource}).
+	 */
+	public void close();
+
+}
@@ -15,6 +15,8 @@
 
 package net.sf.javailp.minisat;
 
+import net.sf.javailp.NativeResource;
+
 /**
  * <p>
  * The {@code MiniSat} is the JNI class for the MiniSat+ solver.
@@ -23,25 +25,99 @@ package net.sf.javailp.minisat;
  * The variables are integers starting from {@code 0}. A positive literal of the
  * variable {@code x} is {@code x+1}, the negative literal is {@code -(x+1)}.
  * </p>
+ * <p>
+ * The native solver is freed by {@link #close()} or, at the latest, after the
+ * instance became unreachable (see {@link NativeResource}). MiniSat+ cannot
+ * retract constraints, an instance is reused for another problem after
+ * {@link #clear()}.
+ * </p>
  * 
  * @see <a href="http://minisat.se/MiniSat+.html">http://minisat.se/MiniSat+.html</a>
  * 
  * @author lukasiewycz
  * 
  */
-public class MiniSat {
+public class MiniSat implements AutoCloseable {
+
+	/**
+	 * The comparator "&lt;".
+	 */
+	public static final int LT = -2;
+
+	/**
+	 * The comparator "&lt;=".
+	 */
+	public static final int LE = -1;
+
+	/**
+	 * The comparator "=".
+	 */
+	public static final int EQ = 0;
+
+	/**
+	 * The comparator "&gt;=".
+	 */
+	public static final int GE = 1;
+
+	/**
+	 * The comparator "&gt;".
+	 */
+	public static final int GT = 2;
 
 	static {
 		System.loadLibrary("minisat");
 	}
 
 	protected long pointer = 0;
+	protected final NativeResource resource;
+	protected volatile boolean interrupted = false;
 
 	/**
 	 * Construct a {@code MiniSat} instance.
 	 */
 	public MiniSat() {
 		pointer = make();
+		resource = new Instance(this, pointer);
+	}
+
+	/**
+	 * Frees the native solver. The instance must not be used afterwards.
+	 */
+	public synchronized void close() {
+		resource.release();
+		pointer = 0;
+	}
+
+	/**
+	 * Removes the objective and all constraints such that the instance can be
+	 * used for another problem. The native solver is rebuilt in place.
+	 */
+	public synchronized void clear() {
+		clear(pointer);
+		interrupted = false;
+	}
+
+	/**
+	 * Interrupts a running {@link #solve()}. The solve keeps the best solution
+	 * found so far (see {@link #hasModel()}). If no solve is running, the next
+	 * solve returns immediately until the instance is cleared. This method may
+	 * be called from any thread.
+	 */
+	public synchronized void interrupt() {
+		if (pointer != 0) {
+			interrupt(pointer);
+			interrupted = true;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the instance was interrupted since it was
+	 * created or cleared.
+	 * 
+	 * @return {@code true} if interrupted
+	 */
+	public boolean isInterrupted() {
+		return interrupted;
 	}
 
 	/**
@@ -74,18 +150,63 @@ public class MiniSat {
 
 		final int ineq;
 		if (comp.equals("<=")) {
-			ineq = -1;
+			ineq = LE;
 		} else if (comp.equals("<")) {
-			ineq = -2;
+			ineq = LT;
 		} else if (comp.equals(">=")) {
-			ineq = 1;
+			ineq = GE;
 		} else if (comp.equals(">")) {
-			ineq = 2;
+			ineq = GT;
 		} else {
-			ineq = 0;
+			ineq = EQ;
 		}
 
-		return addConstraint(pointer, coeffs, lits, ineq, rhs);
+		return addConstraint(coeffs, lits, ineq, rhs);
+	}
+
+	/**
+	 * Adds a linear constraint.
+	 * 
+	 * @param coeffs
+	 *            the coefficients
+	 * @param lits
+	 *            the literals
+	 * @param comp
+	 *            the comparator ({@link #LT}, {@link #LE}, {@link #EQ},
+	 *            {@link #GE}, {@link #GT})
+	 * @param rhs
+	 *            the right hand side value
+	 * @return {@code true} if this constraint did not cause a contradiction
+	 */
+	public boolean addConstraint(int[] coeffs, int[] lits, int comp, int rhs) {
+		return addConstraint(pointer, coeffs, lits, comp, rhs);
+	}
+
+	/**
+	 * Adds linear constraints with a single native call. The terms of
+	 * constraint {@code k} are stored from {@code starts[k]} (inclusive) to
+	 * {@code starts[k+1]} (exclusive) in {@code coeffs} and {@code lits}.
+	 * 
+	 * @param starts
+	 *            the starts of the constraints of length
+	 *            {@code comps.length+1}
+	 * @param coeffs
+	 *            the coefficients
+	 * @param lits
+	 *            the literals
+	 * @param comps
+	 *            the comparators ({@link #LT}, {@link #LE}, {@link #EQ},
+	 *            {@link #GE}, {@link #GT})
+	 * @param rhs
+	 *            the right hand side values
+	 * @return {@code true} if the constraints did not cause a contradiction
+	 */
+	public boolean addConstraints(int[] starts, int[] coeffs, int[] lits, int[] comps, int[] rhs) {
+		if (starts.length != comps.length + 1 || rhs.length != comps.length
+				|| coeffs.length < starts[comps.length] || lits.length < starts[comps.length]) {
+			throw new IllegalArgumentException("Inconsistent lengths of the constraint arrays.");
+		}
+		return addConstraints(pointer, starts, coeffs, lits, comps, rhs);
 	}
 
 	/**
@@ -179,6 +300,16 @@ public class MiniSat {
 		return okay(pointer);
 	}
 
+	/**
+	 * Returns {@code true} if the last {@link #solve()} found a solution. The
+	 * solution is optimal unless the solve was interrupted.
+	 * 
+	 * @return {@code true} if a solution was found
+	 */
+	public boolean hasModel() {
+		return hasModel(pointer);
+	}
+
 	/**
 	 * Allocates a new solver.
 	 * 
@@ -192,7 +323,7 @@ public class MiniSat {
 	 * @param solver
 	 *            the pointer to the solver
 	 */
-	protected native void free(long solver);
+	protected static native void free(long solver);
 
 	/**
 	 * Add variables to a solver (this method has no effect).
@@ -222,6 +353,26 @@ public class MiniSat {
 	protected native boolean addConstraint(long solver, int[] coeffs,
 			int[] vars, int ineq, int rhs);
 
+	/**
+	 * Add constraints.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @param starts
+	 *            the starts of the constraints
+	 * @param coeffs
+	 *            the coefficients
+	 * @param vars
+	 *            the literals
+	 * @param ineqs
+	 *            the comparators
+	 * @param rhs
+	 *            the right-hand-side values
+	 * @return {@code true} if no contradiction appeared
+	 */
+	protected static native boolean addConstraints(long solver, int[] starts, int[] coeffs, int[] vars,
+			int[] ineqs, int[] rhs);
+
 	/**
 	 * Set the phase and activity of a variable.
 	 * 
@@ -293,6 +444,31 @@ public class MiniSat {
 	 */
 	protected native boolean okay(long solver);
 
+	/**
+	 * Returns {@code true} if a solution was found.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 * @return {@code true} if a solution was found
+	 */
+	protected static native boolean hasModel(long solver);
+
+	/**
+	 * Interrupt the solver.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 */
+	protected static native void interrupt(long solver);
+
+	/**
+	 * Remove the objective and all constraints.
+	 * 
+	 * @param solver
+	 *            the pointer to the solver
+	 */
+	protected static native void clear(long solver);
+
 	/**
 	 * Set the inc value.
 	 * 
@@ -335,15 +511,38 @@ public class MiniSat {
 		return s;
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * The {@code Instance} frees a native solver.
+	 * 
+	 * @author lukasiewycz
 	 * 
-	 * @see java.lang.Object#finalize()
 	 */
-	@Override
-	protected void finalize() throws Throwable {
-		free(pointer);
-		super.finalize();
+	protected static class Instance extends NativeResource {
+
+		protected final long pointer;
+
+		/**
+		 * Constructs an {@code Instance}.
+		 * 
+		 * @param owner
+		 *            the owner
+		 * @param pointer
+		 *            the pointer to the solver
+		 */
+		public Instance(Object owner, long pointer) {
+			super(owner, "MiniSat+ solver");
+			this.pointer = pointer;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see net.sf.javailp.NativeResource#free()
+		 */
+		@Override
+		protected void free() {
+			MiniSat.free(pointer);
+		}
 	}
 
 }
@@ -14,13 +14,25 @@
  */
 package net.sf.javailp.test;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.Future;
 
 import junit.framework.Assert;
+import net.sf.javailp.BatchSolver;
+import net.sf.javailp.CompiledProblem;
 import net.sf.javailp.Linear;
 import net.sf.javailp.OptType;
 import net.sf.javailp.Problem;
 import net.sf.javailp.Result;
+import net.sf.javailp.SolveListener;
+import net.sf.javailp.SolveMetrics;
+import net.sf.javailp.SolveMetrics.Phase;
 import net.sf.javailp.Solver;
 import net.sf.javailp.SolverFactory;
 import net.sf.javailp.SolverFactoryCPLEX;
@@ -29,7 +41,10 @@ import net.sf.javailp.SolverFactoryGurobi;
 import net.sf.javailp.SolverFactoryLpSolve;
 import net.sf.javailp.SolverFactoryMiniSat;
 import net.sf.javailp.SolverFactoryMosek;
+import net.sf.javailp.SolverFactoryPortfolio;
 import net.sf.javailp.SolverFactorySAT4J;
+import net.sf.javailp.SolverMiniSat;
+import net.sf.javailp.SolverSAT4J;
 
 import org.junit.Test;
 
@@ -85,6 +100,232 @@ public class BooleanTest {
 		testMax(new SolverFactorySAT4J());
 	}
 
+	@Test
+	public void testSAT4JBinaryMin() {
+		testMin(getSAT4J(SolverSAT4J.BINARY));
+	}
+
+	@Test
+	public void testSAT4JBinaryMax() {
+		testMax(getSAT4J(SolverSAT4J.BINARY));
+	}
+
+	@Test
+	public void testSAT4JCoreMin() {
+		testMin(getSAT4J(SolverSAT4J.CORE));
+	}
+
+	@Test
+	public void testSAT4JCoreMax() {
+		testMax(getSAT4J(SolverSAT4J.CORE));
+	}
+
+	@Test
+	public void testPortfolioMin() {
+		testMin(getPortfolio());
+	}
+
+	@Test
+	public void testPortfolioMax() {
+		testMax(getPortfolio());
+	}
+
+	@Test
+	public void testPortfolioIncumbent() {
+		// the first solver stops at its first solution which is not proven
+		// optimal, the portfolio waits for the optimum of the second solver
+		SolverFactory first = getSAT4J(SolverSAT4J.LINEAR);
+		first.setParameter(Solver.LISTENER, new SolveListener() {
+			public boolean improved(Result result, Number bound, long time) {
+				return false;
+			}
+		});
+		testMin(new SolverFactoryPortfolio(first, getSAT4J(SolverSAT4J.LINEAR)));
+	}
+
+	@Test
+	public void testPortfolioDeadline() {
+		// the second solver cannot be aborted, the portfolio returns the
+		// solution of the first solver shortly after the deadline
+		SolverFactory first = getSAT4J(SolverSAT4J.LINEAR);
+		first.setParameter(Solver.LISTENER, new SolveListener() {
+			public boolean improved(Result result, Number bound, long time) {
+				return false;
+			}
+		});
+		final Map<Object, Object> parameters = new HashMap<Object, Object>();
+		SolverFactory second = new SolverFactory() {
+			public void setParameter(Object parameter, Object value) {
+				parameters.put(parameter, value);
+			}
+
+			public Map<Object, Object> getParameters() {
+				return parameters;
+			}
+
+			public Solver get() {
+				return new Solver() {
+					public void setParameter(Object parameter, Object value) {
+						parameters.put(parameter, value);
+					}
+
+					public Map<Object, Object> getParameters() {
+						return parameters;
+					}
+
+					public Result solve(Problem problem) {
+						try {
+							Thread.sleep(60000);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return null;
+					}
+				};
+			}
+		};
+
+		Problem problem = getProblem(8, 0, true);
+		problem.setOptimizationType(OptType.MIN);
+		Solver solver = new SolverFactoryPortfolio(first, second).get();
+		solver.setParameter(Solver.VERBOSE, 0);
+		solver.setParameter(Solver.TIMEOUT, Duration.ofSeconds(1));
+
+		long time = System.currentTimeMillis();
+		Result result = solver.solve(problem);
+		Assert.assertNotNull(result);
+		Assert.assertTrue(System.currentTimeMillis() - time < 10000);
+	}
+
+	@Test
+	public void testSAT4JDeadline() {
+		SolverFactory factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+		factory.setParameter(Solver.TIMEOUT, Duration.ofMinutes(1));
+
+		Problem problem = getProblem(8, 0, true);
+		problem.setOptimizationType(OptType.MIN);
+		Assert.assertEquals(219, factory.get().solve(problem).getObjective().intValue());
+
+		factory.setParameter(Solver.DEADLINE, Instant.now().minusSeconds(1));
+		Assert.assertNull(factory.get().solve(problem));
+	}
+
+	@Test
+	public void testSAT4JListener() {
+		SolverFactory factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem(8, 0, true);
+		problem.setOptimizationType(OptType.MIN);
+
+		final List<Integer> values = new ArrayList<Integer>();
+		factory.setParameter(Solver.LISTENER, new SolveListener() {
+			public boolean improved(Result result, Number bound, long time) {
+				values.add(result.getObjective().intValue());
+				return true;
+			}
+		});
+		Assert.assertEquals(219, factory.get().solve(problem).getObjective().intValue());
+		Assert.assertEquals(219, values.get(values.size() - 1).intValue());
+		for (int i = 1; i < values.size(); i++) {
+			Assert.assertTrue(values.get(i) < values.get(i - 1));
+		}
+
+		final List<Integer> first = new ArrayList<Integer>();
+		factory.setParameter(Solver.LISTENER, new SolveListener() {
+			public boolean improved(Result result, Number bound, long time) {
+				first.add(result.getObjective().intValue());
+				return false;
+			}
+		});
+		Result result = factory.get().solve(problem);
+		Assert.assertEquals(1, first.size());
+		Assert.assertEquals(first.get(0).intValue(), result.getObjective().intValue());
+		Assert.assertFalse(result.getMetrics().isOptimal());
+	}
+
+	@Test
+	public void testSAT4JStart() {
+		SolverFactory factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem(8, 0, true);
+		problem.setOptimizationType(OptType.MIN);
+		Result optimum = factory.get().solve(problem);
+
+		// the starting values deviate from the optimum within the tolerance
+		Map<Object, Number> start = new HashMap<Object, Number>();
+		for (int i = 0; i < problem.getVariablesCount(); i++) {
+			Object variable = problem.getVariable(i);
+			start.put(variable, optimum.getBoolean(variable) ? 1 - 1e-12 : 1e-12);
+		}
+
+		// the feasible start is the first solution
+		final List<Integer> first = new ArrayList<Integer>();
+		factory.setParameter(Solver.LISTENER, new SolveListener() {
+			public boolean improved(Result result, Number bound, long time) {
+				first.add(result.getObjective().intValue());
+				return false;
+			}
+		});
+		Result result = factory.get().solve(problem, start);
+		Assert.assertEquals(1, first.size());
+		Assert.assertEquals(219, result.getObjective().intValue());
+	}
+
+	@Test
+	public void testSAT4JMetrics() {
+		SolverFactory factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem(8, 0, true);
+		problem.setOptimizationType(OptType.MIN);
+		SolveMetrics metrics = factory.get().solve(problem).getMetrics();
+
+		Assert.assertNotNull(metrics);
+		Assert.assertEquals(problem.getConstraintsCount(), metrics.getRows());
+		Assert.assertEquals(problem.getVariablesCount(), metrics.getColumns());
+		Assert.assertTrue(metrics.getNonZeros() > 0);
+		Assert.assertTrue(metrics.getIterations() > 0);
+		for (Phase phase : Phase.values()) {
+			Assert.assertTrue(metrics.getTime(phase) >= 0);
+		}
+		Assert.assertTrue(metrics.getTime(Phase.OPTIMIZATION) > 0);
+		Assert.assertTrue(metrics.isOptimal());
+	}
+
+	@Test
+	public void testSAT4JAsync() throws Exception {
+		SolverFactory factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem(8, 0, true);
+		problem.setOptimizationType(OptType.MIN);
+		Future<Result> future = factory.solveAsync(problem);
+
+		Assert.assertEquals(219, future.get().getObjective().intValue());
+	}
+
+	@Test
+	public void testSAT4JBatch() {
+		SolverFactory factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		List<Problem> problems = new ArrayList<Problem>();
+		for (int i = 0; i < 4; i++) {
+			Problem problem = getProblem(8, 0, true);
+			problem.setOptimizationType(i % 2 == 0 ? OptType.MIN : OptType.MAX);
+			problems.add(problem);
+		}
+		List<Result> results = new BatchSolver(factory, 2).solve(problems);
+
+		Assert.assertEquals(4, results.size());
+		for (int i = 0; i < 4; i++) {
+			Assert.assertEquals(i % 2 == 0 ? 219 : 537, results.get(i).getObjective().intValue());
+		}
+	}
+
 	@Test
 	public void testMiniSatMin() {
 		testMin(new SolverFactoryMiniSat());
@@ -100,6 +341,84 @@ public class BooleanTest {
 		testSAT(new SolverFactoryMiniSat());
 	}
 
+	@Test
+	public void testMiniSatDeadline() {
+		SolverFactory factory = new SolverFactoryMiniSat();
+		factory.setParameter(Solver.VERBOSE, 0);
+		factory.setParameter(Solver.TIMEOUT, Duration.ofMinutes(1));
+
+		Problem problem = getProblem(8, 0, true);
+		problem.setOptimizationType(OptType.MIN);
+		Assert.assertEquals(219, factory.get().solve(problem).getObjective().intValue());
+
+		factory.setParameter(Solver.DEADLINE, Instant.now().minusSeconds(1));
+		Assert.assertNull(factory.get().solve(problem));
+	}
+
+	@Test
+	public void testMiniSatTimeout() {
+		SolverFactory factory = new SolverFactoryMiniSat();
+		factory.setParameter(Solver.VERBOSE, 0);
+		factory.setParameter(Solver.TIMEOUT, 1);
+
+		// the optimum is not found within the timeout, the best solution is
+		// returned
+		Problem problem = getProblem(40, 0, true);
+		problem.setOptimizationType(OptType.MIN);
+		long time = System.currentTimeMillis();
+		Result result = factory.get().solve(problem);
+		Assert.assertNotNull(result);
+		Assert.assertFalse(result.getMetrics().isOptimal());
+		Assert.assertTrue(System.currentTimeMillis() - time < 10000);
+	}
+
+	@Test
+	public void testMiniSatReuse() {
+		SolverFactoryMiniSat factory = new SolverFactoryMiniSat();
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem(8, 0, true);
+		Solver solver = factory.get();
+		problem.setOptimizationType(OptType.MIN);
+		Assert.assertEquals(219, solver.solve(problem).getObjective().intValue());
+		problem.setOptimizationType(OptType.MAX);
+		Assert.assertEquals(537, solver.solve(problem).getObjective().intValue());
+		problem.setOptimizationType(OptType.MIN);
+		Assert.assertEquals(219, factory.get().solve(problem).getObjective().intValue());
+		factory.close();
+
+		solver = new SolverMiniSat();
+		solver.setParameter(Solver.VERBOSE, 0);
+		Assert.assertEquals(219, solver.solve(problem).getObjective().intValue());
+		problem.setOptimizationType(OptType.MAX);
+		Assert.assertEquals(537, solver.solve(problem).getObjective().intValue());
+		solver.close();
+	}
+
+	@Test
+	public void testCompileDuplicates() {
+		Problem problem = new Problem();
+		Linear linear = new Linear();
+		linear.add(1, "x");
+		linear.add(2, "y");
+		linear.add(3, "x");
+		problem.add(linear, ">=", 4);
+		linear = new Linear();
+		linear.add(1, "y");
+		linear.add(-1, "y");
+		problem.add(linear, "=", 0);
+
+		CompiledProblem compiled = problem.compile();
+		Assert.assertEquals(3, compiled.getNonZerosCount());
+		Assert.assertEquals(3, compiled.getRowIndices().length);
+		Assert.assertEquals(2, compiled.getRowStarts()[1]);
+		Assert.assertEquals(3, compiled.getRowStarts()[2]);
+		Assert.assertEquals(4.0, compiled.getRowValues()[0]);
+		Assert.assertEquals(2.0, compiled.getRowValues()[1]);
+		Assert.assertEquals(0.0, compiled.getRowValues()[2]);
+		Assert.assertEquals(2, compiled.getColStarts()[2] - compiled.getColStarts()[1]);
+	}
+
 	@Test
 	public void testSAT4JSAT() {
 		testSAT(new SolverFactorySAT4J());
@@ -122,6 +441,17 @@ public class BooleanTest {
 	
 	
 
+	protected SolverFactory getSAT4J(int search) {
+		SolverFactory factory = new SolverFactorySAT4J();
+		factory.setParameter(Solver.SEARCH, search);
+		return factory;
+	}
+
+	protected SolverFactory getPortfolio() {
+		return new SolverFactoryPortfolio(getSAT4J(SolverSAT4J.LINEAR), getSAT4J(SolverSAT4J.BINARY),
+				getSAT4J(SolverSAT4J.CORE));
+	}
+
 	protected void testMin(SolverFactory factory) {
 
 		Problem problem = getProblem(8, 0, true);
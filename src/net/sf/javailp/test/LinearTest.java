@@ -0,0 +1,261 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Assert;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Term;
+
+import org.junit.Test;
+
+public class LinearTest {
+
+	@Test
+	public void testAddTerm() {
+		Linear linear = new Linear(1);
+		for (int i = 0; i < 10; i++) {
+			linear.addTerm(i + 1, "x" + i);
+		}
+		Assert.assertEquals(10, linear.size());
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals("x" + i, linear.getVariable(i));
+			Assert.assertEquals(i + 1, linear.getCoefficient(i), 0);
+		}
+		Term term = linear.get(9);
+		Assert.assertEquals("x9", term.getVariable());
+		Assert.assertEquals(10, term.getCoefficient());
+
+		try {
+			linear.getVariable(10);
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+			// the index is behind the last element
+		}
+
+		linear.clear();
+		Assert.assertEquals(0, linear.size());
+		linear.addTerm(2, "y");
+		check(linear, "y", 2);
+	}
+
+	@Test
+	public void testViews() {
+		Linear linear = getLinear("x", 1, "y", 2);
+		List<Object> variables = linear.getVariables();
+		List<Number> coefficients = linear.getCoefficients();
+
+		// the views reflect later changes
+		linear.addTerm(3, "z");
+		Assert.assertEquals(3, variables.size());
+		Assert.assertEquals("z", variables.get(2));
+		Assert.assertEquals(3, coefficients.get(2));
+
+		try {
+			variables.add("w");
+			Assert.fail();
+		} catch (UnsupportedOperationException e) {
+			// the views are unmodifiable
+		}
+		try {
+			coefficients.set(0, 5);
+			Assert.fail();
+		} catch (UnsupportedOperationException e) {
+			// the views are unmodifiable
+		}
+		check(linear, "x", 1, "y", 2, "z", 3);
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		Linear linear = getLinear("x", 1, "y", 2, "z", 3);
+		Iterator<Term> iterator = linear.iterator();
+
+		try {
+			iterator.remove();
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// next is not called yet
+		}
+
+		Assert.assertEquals("x", iterator.next().getVariable());
+		Assert.assertEquals("y", iterator.next().getVariable());
+		iterator.remove();
+		try {
+			iterator.remove();
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// the element is already removed
+		}
+
+		// the iteration continues behind the removed element
+		Assert.assertEquals("z", iterator.next().getVariable());
+		Assert.assertFalse(iterator.hasNext());
+		check(linear, "x", 1, "z", 3);
+	}
+
+	@Test
+	public void testAsDouble() {
+		// integral coefficients are reported as integers
+		Linear linear = new Linear();
+		linear.addTerm(2.0, "x");
+		linear.add(3L, "y");
+		Assert.assertEquals(Integer.valueOf(2), linear.getCoefficients().get(0));
+		Assert.assertEquals(Integer.valueOf(3), linear.get(1).getCoefficient());
+
+		linear.addTerm(5e10, "z");
+		Assert.assertEquals(Long.valueOf(50000000000L), linear.getCoefficients().get(2));
+
+		// a fractional coefficient turns all coefficients into doubles
+		linear.addTerm(0.5, "w");
+		Assert.assertEquals(Double.valueOf(2), linear.getCoefficients().get(0));
+		Assert.assertEquals(Double.valueOf(0.5), linear.getCoefficients().get(3));
+		Assert.assertEquals(Double.valueOf(2), new Linear(linear).getCoefficients().get(0));
+
+		// as does a floating point number with an integral value
+		linear.clear();
+		linear.add(2, "x");
+		Assert.assertEquals(Integer.valueOf(2), linear.getCoefficients().get(0));
+		linear.add(1.0, "y");
+		Assert.assertEquals(Double.valueOf(2), linear.getCoefficients().get(0));
+	}
+
+	@Test
+	public void testCanonicalize() {
+		Linear linear = getLinear("b", 1, "a", 2, "b", 3, "z", 0, "a", -2, "c", 1);
+		linear.canonicalize();
+
+		// the order of the first occurrences is preserved
+		check(linear, "b", 4, "c", 1);
+	}
+
+	@Test
+	public void testCanonicalizeCollision() {
+		// "Aa" and "BB" have the same hash code
+		Assert.assertEquals("Aa".hashCode(), "BB".hashCode());
+		Linear linear = getLinear("Aa", 1, "BB", 2, "Aa", 1);
+		linear.canonicalize();
+
+		check(linear, "Aa", 2, "BB", 2);
+	}
+
+	@Test
+	public void testCanonicalizeProblem() {
+		Problem problem = new Problem();
+		problem.setVarType("c", Integer.class);
+		problem.setVarType("a", Integer.class);
+		problem.setVarType("b", Integer.class);
+
+		Linear linear = getLinear("a", 1, "b", 0, "c", 2, "a", 1);
+		linear.canonicalize(problem, false);
+		check(linear, "a", 2, "c", 2);
+
+		// sorted by the variable indices of the problem
+		linear = getLinear("a", 1, "b", 1, "c", 2, "a", 1);
+		linear.canonicalize(problem, true);
+		check(linear, "c", 2, "a", 2, "b", 1);
+
+		try {
+			getLinear("a", 1, "d", 1).canonicalize(problem, false);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// the variable d is unknown
+		}
+	}
+
+	@Test
+	public void testCanonicalizeKeys() {
+		KeyedLinear linear = new KeyedLinear("x", 1, "y", 2, "x", 3, "z", 4);
+		linear.canonicalize(new int[] { 2, 1, 2, 1 }, false, true);
+		// equal keys of different variables are kept apart, equal keys are
+		// ordered by their positions
+		check(linear, "y", 2, "z", 4, "x", 4);
+
+		// equal keys imply equal variables
+		linear = new KeyedLinear("x", 1, "y", 2, "x", 3, "z", -2);
+		linear.canonicalize(new int[] { 2, 1, 2, 1 }, true, false);
+		check(linear, "x", 4);
+	}
+
+	@Test
+	public void testSetCanonicalize() {
+		Problem problem = new Problem();
+		problem.setCanonicalize(true, true);
+		problem.setVarType("y", Integer.class);
+
+		// the left-hand side of an added constraint is changed in place
+		Linear lhs = getLinear("x", 1, "y", 1, "x", 1, "z", 0);
+		Constraint constraint = new Constraint(lhs, "<=", 1);
+		problem.add(constraint);
+		Assert.assertSame(lhs, problem.getConstraints().get(0).getLhs());
+		check(lhs, "y", 1, "x", 2);
+
+		// other expressions are copied
+		Linear other = getLinear("x", 1, "y", 1, "x", -1);
+		problem.add(other, ">=", 0);
+		check(other, "x", 1, "y", 1, "x", -1);
+		check(problem.getConstraints().get(1).getLhs(), "y", 1);
+
+		Linear objective = getLinear("z", 1, "x", 1, "z", 1);
+		problem.setObjective(objective);
+		check(objective, "z", 1, "x", 1, "z", 1);
+		check(problem.getObjective(), "x", 1, "z", 2);
+
+		// disabled canonicalization keeps the expressions
+		problem.setCanonicalize(false, false);
+		lhs = getLinear("x", 1, "x", 1);
+		problem.add(new Constraint(lhs, "<=", 1));
+		check(lhs, "x", 1, "x", 1);
+	}
+
+	protected Linear getLinear(Object... elements) {
+		Linear linear = new Linear();
+		for (int i = 0; i < elements.length; i += 2) {
+			linear.add((Number) elements[i + 1], elements[i]);
+		}
+		return linear;
+	}
+
+	protected void check(Linear linear, Object... elements) {
+		Assert.assertEquals(elements.length / 2, linear.size());
+		for (int i = 0; i < linear.size(); i++) {
+			Assert.assertEquals(elements[2 * i], linear.getVariable(i));
+			Assert.assertEquals(((Number) elements[2 * i + 1]).doubleValue(), linear.getCoefficient(i), 0);
+		}
+	}
+
+	/**
+	 * The {@code KeyedLinear} exposes the canonicalization with given keys.
+	 */
+	protected static class KeyedLinear extends Linear {
+
+		public KeyedLinear(Object... elements) {
+			super();
+			for (int i = 0; i < elements.length; i += 2) {
+				add((Number) elements[i + 1], elements[i]);
+			}
+		}
+
+		@Override
+		protected void canonicalize(int[] keys, boolean unique, boolean sort) {
+			super.canonicalize(keys, unique, sort);
+		}
+	}
+
+}
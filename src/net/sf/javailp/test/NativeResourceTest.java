@@ -0,0 +1,66 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import junit.framework.Assert;
+import net.sf.javailp.NativeResource;
+
+import org.junit.Test;
+
+public class NativeResourceTest {
+
+	@Test
+	public void testRelease() {
+		Counter counter = new Counter(new Object());
+		Assert.assertEquals(1, NativeResource.getLiveCount(Counter.KIND));
+		Assert.assertEquals(Integer.valueOf(1), NativeResource.getLiveCounts().get(Counter.KIND));
+
+		counter.release();
+		counter.release();
+		Assert.assertTrue(counter.isReleased());
+		Assert.assertEquals(1, counter.freed);
+		Assert.assertEquals(0, NativeResource.getLiveCount(Counter.KIND));
+	}
+
+	@Test
+	public void testUnreachable() throws InterruptedException {
+		new Counter(new Object());
+		Assert.assertEquals(1, NativeResource.getLiveCount(Counter.KIND));
+
+		// the safety net releases the resource of the unreachable owner
+		for (int i = 0; i < 100 && NativeResource.getLiveCount(Counter.KIND) > 0; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		Assert.assertEquals(0, NativeResource.getLiveCount(Counter.KIND));
+	}
+
+	protected static class Counter extends NativeResource {
+
+		protected static final String KIND = "test counter";
+
+		protected int freed = 0;
+
+		public Counter(Object owner) {
+			super(owner, KIND);
+		}
+
+		@Override
+		protected void free() {
+			freed++;
+		}
+	}
+
+}
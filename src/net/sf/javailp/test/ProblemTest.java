@@ -0,0 +1,117 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.List;
+
+import junit.framework.Assert;
+import net.sf.javailp.Change;
+import net.sf.javailp.ChangeType;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.Operator;
+import net.sf.javailp.Problem;
+
+import org.junit.Test;
+
+public class ProblemTest {
+
+	@Test
+	public void testAddRows() {
+		Problem problem = getProblem();
+		long version = problem.getVersion();
+
+		problem.addRows(new int[] { 0, 2, 3 }, new Object[] { "x", "y", "z" }, new double[] { 1, 2, 3 },
+				new Operator[] { Operator.LE, Operator.GE }, new double[] { 4, 5 });
+
+		Assert.assertEquals(3, problem.getConstraintsCount());
+		Assert.assertEquals(3, problem.getVariablesCount());
+		Constraint row = problem.getConstraints().get(1);
+		Assert.assertEquals(2, row.size());
+		Assert.assertEquals("y", row.getLhs().getVariable(1));
+		Assert.assertEquals(2.0, row.getLhs().getCoefficient(1));
+		Assert.assertEquals(Operator.LE, row.getOperator());
+		Assert.assertEquals(4.0, row.getRhs().doubleValue());
+		Assert.assertEquals("z", problem.getConstraints().get(2).getLhs().getVariable(0));
+		checkAdded(problem.getChanges(version), 1, 2);
+	}
+
+	@Test
+	public void testAddRowsIndices() {
+		Problem problem = getProblem();
+		long version = problem.getVersion();
+
+		problem.addRows(new int[] { 0, 1, 3 }, new int[] { 0, 0, 1 }, new double[] { 1, 2, 3 }, new Operator[] {
+				Operator.EQ, Operator.LE }, new double[] { 1, 2 });
+
+		Assert.assertEquals(3, problem.getConstraintsCount());
+		Assert.assertEquals(2, problem.getVariablesCount());
+		Constraint row = problem.getConstraints().get(2);
+		Assert.assertEquals("x", row.getLhs().getVariable(0));
+		Assert.assertEquals("y", row.getLhs().getVariable(1));
+		Assert.assertEquals(3.0, row.getLhs().getCoefficient(1));
+		Assert.assertEquals(Operator.LE, row.getOperator());
+		checkAdded(problem.getChanges(version), 1, 2);
+	}
+
+	@Test
+	public void testAddRowsInvalid() {
+		Problem problem = getProblem();
+		long version = problem.getVersion();
+
+		try {
+			problem.addRows(new int[] { 0, 1, 2 }, new int[] { 0, 5 }, new double[] { 1, 1 }, new Operator[] {
+					Operator.LE, Operator.LE }, new double[] { 1, 1 });
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// unknown variable index
+		}
+		try {
+			problem.addRows(new int[] { 0, 1, 2 }, new Object[] { "x", "y" }, new double[] { 1, 1 },
+					new Operator[] { Operator.LE, null }, new double[] { 1, 1 });
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// missing operator
+		}
+
+		// nothing is added
+		Assert.assertEquals(1, problem.getConstraintsCount());
+		Assert.assertEquals(version, problem.getVersion());
+		Assert.assertTrue(problem.getChanges(version).isEmpty());
+	}
+
+	protected void checkAdded(List<Change> changes, int index, int count) {
+		int n = 0;
+		for (Change change : changes) {
+			if (change.getType() == ChangeType.CONSTRAINT_ADDED) {
+				Assert.assertEquals(index, change.getIndex());
+				Assert.assertEquals(count, change.getCount());
+				n++;
+			}
+		}
+		Assert.assertEquals(1, n);
+	}
+
+	protected Problem getProblem() {
+		Problem problem = new Problem();
+		problem.setJournaling(true);
+		Linear linear = new Linear();
+		linear.add(1, "x");
+		linear.add(1, "y");
+		problem.add(linear, "<=", 1);
+		return problem;
+	}
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.Map;
+
+import junit.framework.Assert;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.ResultArray;
+
+import org.junit.Test;
+
+public class ResultTest {
+
+	@Test
+	public void testDense() {
+		testResult(false);
+	}
+
+	@Test
+	public void testSparse() {
+		testResult(true);
+	}
+
+	protected void testResult(boolean sparse) {
+		Problem problem = getProblem();
+		ResultArray result = new ResultArray(problem, new double[] { 1, 0, 0, 2.5 }, sparse);
+		Assert.assertEquals(sparse, result.isSparse());
+
+		Assert.assertEquals(1, result.get("a"));
+		Assert.assertEquals(0, result.get("b"));
+		Assert.assertEquals(2.5, result.get("d"));
+		Assert.assertTrue(result.getBoolean("a"));
+		Assert.assertFalse(result.getBoolean("c"));
+		Assert.assertEquals(1 + 3 * 2.5, result.getObjective().doubleValue());
+
+		result.put("c", 1);
+		Assert.assertEquals(1, result.get("c"));
+		Assert.assertEquals(1 + 2 + 3 * 2.5, result.getObjective().doubleValue());
+
+		// keys that are not variables and variables added later
+		result.put("row", 7);
+		problem.setVarType("e", Integer.class);
+		Assert.assertTrue(result.containsVar("row"));
+		Assert.assertFalse(result.containsVar("e"));
+		Assert.assertNull(result.get("e"));
+		Assert.assertEquals(7, result.get("row"));
+
+		Assert.assertNull(result.getDualValue("a"));
+		result.putDualValue("a", -1.0);
+		Assert.assertEquals(-1.0, result.getDualValue("a"));
+
+		Map<Object, Number> values = result.getPrimalValues();
+		Assert.assertEquals(5, values.size());
+		Assert.assertEquals(7, values.get("row"));
+		Assert.assertEquals(1, result.getDualValues().size());
+		Assert.assertEquals(1.0, result.toArray(5)[2]);
+		Assert.assertTrue(Double.isNaN(result.toArray(5)[4]));
+	}
+
+	@Test
+	public void testRows() {
+		Problem problem = getProblem();
+		Linear linear = new Linear();
+		linear.add(1, "a");
+		problem.add(new Constraint("limit", linear, "<=", 1));
+		String name = problem.getConstraints().get(0).getName();
+
+		ResultArray result = new ResultArray(problem, new double[] { 1, 0, 0, 2.5 });
+		result.setRowValues(new double[] { 8.5, 1 }, new double[] { 0.5, 0 });
+		Assert.assertEquals(8.5, result.get(name));
+		Assert.assertEquals(1.0, result.get("limit"));
+		Assert.assertEquals(0.5, result.getDualValue(name));
+		Assert.assertTrue(result.containsVar("limit"));
+		Assert.assertFalse(result.containsVar("other"));
+
+		// explicit values take precedence
+		result.put("limit", 2);
+		Assert.assertEquals(2, result.get("limit"));
+
+		Map<Object, Number> values = result.getPrimalValues();
+		Assert.assertEquals(6, values.size());
+		Assert.assertEquals(6, values.entrySet().size());
+		int n = 0;
+		for (Map.Entry<Object, Number> entry : values.entrySet()) {
+			Assert.assertEquals(values.get(entry.getKey()), entry.getValue());
+			n++;
+		}
+		Assert.assertEquals(6, n);
+		Assert.assertEquals(2, result.getDualValues().size());
+
+		result.setRowValues(new double[] { 3, 4 }, null);
+		Assert.assertEquals(3.0, result.get(name));
+		Assert.assertNull(result.getDualValue(name));
+	}
+
+	protected Problem getProblem() {
+		Problem problem = new Problem();
+		Linear linear = new Linear();
+		linear.add(1, "a");
+		linear.add(1, "b");
+		linear.add(2, "c");
+		linear.add(3, "d");
+		problem.setObjective(linear, OptType.MAX);
+		problem.add(linear, "<=", 10);
+		problem.setVarType("a", Integer.class);
+		problem.setVarType("b", Boolean.class);
+		problem.setVarType("c", Integer.class);
+		problem.setVarType("d", Double.class);
+		return problem;
+	}
+
+}
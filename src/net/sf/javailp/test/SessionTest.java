@@ -0,0 +1,317 @@
+/**
+ * Java ILP is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Java ILP is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Java ILP. If not, see http://www.gnu.org/licenses/.
+ */
+package net.sf.javailp.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+import net.sf.javailp.AbstractSolverSession;
+import net.sf.javailp.Change;
+import net.sf.javailp.ChangeType;
+import net.sf.javailp.Constraint;
+import net.sf.javailp.Linear;
+import net.sf.javailp.OptType;
+import net.sf.javailp.Problem;
+import net.sf.javailp.Result;
+import net.sf.javailp.Solver;
+import net.sf.javailp.SolverFactory;
+import net.sf.javailp.SolverFactoryCPLEX;
+import net.sf.javailp.SolverFactoryGLPK;
+import net.sf.javailp.SolverFactoryLpSolve;
+import net.sf.javailp.SolverFactoryMosek;
+import net.sf.javailp.SolverFactorySAT4J;
+import net.sf.javailp.SolverSession;
+
+import org.junit.Test;
+
+public class SessionTest {
+
+	@Test
+	public void testSAT4J() {
+		testSession(new SolverFactorySAT4J());
+	}
+
+	@Test
+	public void testCPLEX() {
+		testSession(new SolverFactoryCPLEX());
+	}
+
+	@Test
+	public void testLpSolve() {
+		testSession(new SolverFactoryLpSolve());
+	}
+
+	@Test
+	public void testMosek() {
+		testSession(new SolverFactoryMosek());
+	}
+
+	@Test
+	public void testGLPK() {
+		testSession(new SolverFactoryGLPK());
+	}
+
+	protected void testSession(SolverFactory factory) {
+		factory.setParameter(Solver.VERBOSE, 0);
+
+		Problem problem = getProblem();
+		SolverSession session = factory.getSession(problem);
+
+		check(factory, session);
+
+		problem.setVarLowerBound(0, 1);
+		problem.setVarUpperBound(1, 0);
+		check(factory, session);
+
+		Linear linear = new Linear();
+		linear.add(1, 2);
+		linear.add(1, 3);
+		problem.add(linear, "<=", 1);
+		check(factory, session);
+
+		problem.setRhs(0, 4);
+		problem.setOptimizationType(OptType.MIN);
+		check(factory, session);
+
+		problem.removeConstraint(1);
+		check(factory, session);
+
+		// several changes per solve
+		problem.add(linear, "<=", 1);
+		problem.setRhs(1, 0);
+		problem.removeConstraint(0);
+		check(factory, session);
+
+		Linear objective = new Linear(problem.getObjective());
+		objective.add(5, 0);
+		problem.setObjective(objective);
+		problem.setVarType(10, Boolean.class);
+		Linear more = new Linear();
+		more.add(1, 10);
+		more.add(1, 0);
+		problem.add(more, "<=", 1);
+		problem.setRhs(0, 1);
+		check(factory, session);
+
+		// an added row with a repeated variable
+		Linear twice = new Linear();
+		twice.add(1, 2);
+		twice.add(-1, 3);
+		twice.add(1, 2);
+		problem.add(twice, ">=", 2);
+		check(factory, session);
+
+		session.close();
+	}
+
+	@Test
+	public void testReplay() {
+		Problem problem = getProblem();
+		MirrorSession session = new MirrorSession(problem);
+		session.solve();
+		Assert.assertEquals(1, session.builds);
+
+		// a variable is added after the objective was changed
+		Linear objective = new Linear(problem.getObjective());
+		objective.add(5, 0);
+		problem.setObjective(objective);
+		Linear linear = new Linear();
+		linear.add(1, 10);
+		linear.add(1, 0);
+		problem.add(linear, "<=", 1);
+		problem.setRhs(1, 0);
+		session.solve();
+		Assert.assertEquals(1, session.builds);
+		session.check();
+
+		// a removed constraint shifts the added and changed constraints
+		problem.add(linear, ">=", 0);
+		problem.setRhs(1, 1);
+		problem.removeConstraint(0);
+		session.solve();
+		Assert.assertEquals(2, session.builds);
+		session.check();
+
+		problem.removeConstraint(0);
+		problem.add(linear, "=", 1);
+		problem.setRhs(0, 1);
+		session.solve();
+		Assert.assertEquals(2, session.builds);
+		session.check();
+
+		session.close();
+	}
+
+	@Test
+	public void testJournal() {
+		Problem problem = getProblem();
+		Assert.assertFalse(problem.isJournaling());
+
+		MirrorSession first = new MirrorSession(problem);
+		MirrorSession second = new MirrorSession(problem);
+		Assert.assertTrue(problem.isJournaling());
+		first.solve();
+		problem.setRhs(0, 4);
+
+		// the journal is kept for the open session
+		first.close();
+		first.close();
+		Assert.assertTrue(problem.isJournaling());
+		Assert.assertNotNull(problem.getChanges(problem.getVersion() - 1));
+
+		// the journal is discarded with the last session
+		second.close();
+		Assert.assertFalse(problem.isJournaling());
+		Assert.assertNull(problem.getChanges(problem.getVersion() - 1));
+
+		// a closed session records the changes again when it is solved
+		first.solve();
+		Assert.assertTrue(problem.isJournaling());
+		problem.setRhs(0, 3);
+		first.solve();
+		Assert.assertEquals(2, first.builds);
+		first.check();
+		first.close();
+		Assert.assertFalse(problem.isJournaling());
+
+		// an explicitly enabled journal is kept
+		problem.setJournaling(true);
+		new MirrorSession(problem).close();
+		Assert.assertTrue(problem.isJournaling());
+	}
+
+	protected void check(SolverFactory factory, SolverSession session) {
+		Result expected = factory.get().solve(session.getProblem());
+		Result result = session.solve();
+
+		if (expected == null) {
+			Assert.assertEquals(result, null);
+		} else {
+			Assert.assertEquals(expected.getObjective(), result.getObjective());
+
+			Result warm = factory.get().solve(session.getProblem(), expected);
+			Assert.assertEquals(expected.getObjective(), warm.getObjective());
+		}
+	}
+
+	protected Problem getProblem() {
+
+		Problem problem = new Problem();
+
+		Linear linear = new Linear();
+		Linear objective = new Linear();
+
+		for (int i = 0; i < 10; i++) {
+			linear.add(1, i);
+			objective.add(i + 1, i);
+			problem.setVarType(i, Boolean.class);
+		}
+
+		problem.add(linear, "<=", 5);
+		problem.setObjective(objective, OptType.MAX);
+
+		return problem;
+	}
+
+	/**
+	 * The {@code MirrorSession} keeps a copy of the constraints and the
+	 * objective like a native model and fails like a native solver if a
+	 * change refers to an unknown row or column.
+	 */
+	protected static class MirrorSession extends AbstractSolverSession {
+
+		protected int builds = 0;
+		protected int columns = 0;
+		protected final List<Constraint> rows = new ArrayList<Constraint>();
+		protected double[] objective = new double[0];
+
+		public MirrorSession(Problem problem) {
+			super(problem);
+		}
+
+		@Override
+		protected boolean isIncremental(ChangeType type) {
+			return true;
+		}
+
+		@Override
+		protected void build() {
+			builds++;
+			columns = problem.getVariablesCount();
+			rows.clear();
+			rows.addAll(problem.getConstraints());
+			setObjective();
+		}
+
+		@Override
+		protected void update(Change change) {
+			int index = change.getIndex();
+			int count = change.getCount();
+
+			switch (change.getType()) {
+			case VARIABLE_ADDED:
+				Assert.assertEquals(columns, index);
+				columns += count;
+				break;
+			case CONSTRAINT_ADDED:
+				Assert.assertEquals(rows.size(), index);
+				rows.addAll(problem.getConstraints().subList(index, index + count));
+				break;
+			case CONSTRAINT_REMOVED:
+				rows.remove(index);
+				break;
+			case CONSTRAINT_RHS:
+				rows.set(index, problem.getConstraints().get(index));
+				break;
+			case OBJECTIVE:
+				setObjective();
+				break;
+			default:
+			}
+		}
+
+		protected void setObjective() {
+			// the objective is set for all columns of the problem
+			Assert.assertEquals(problem.getVariablesCount(), columns);
+			objective = new double[columns];
+			Linear linear = problem.getObjective();
+			for (int i = 0; i < linear.size(); i++) {
+				objective[problem.getVariableIndex(linear.getVariable(i))] += linear.getCoefficient(i);
+			}
+		}
+
+		protected void check() {
+			Assert.assertEquals(problem.getVariablesCount(), columns);
+			Assert.assertEquals(problem.getConstraints(), rows);
+			double[] expected = objective.clone();
+			setObjective();
+			Assert.assertTrue(Arrays.equals(expected, objective));
+		}
+
+		@Override
+		protected Result optimize(double[] start) {
+			return null;
+		}
+
+		@Override
+		protected void dispose() {
+			// nothing to release
+		}
+
+	}
+
+}
@@ -25,6 +25,7 @@ import net.sf.javailp.SolverFactory;
 import net.sf.javailp.SolverFactoryCPLEX;
 import net.sf.javailp.SolverFactoryGLPK;
 import net.sf.javailp.SolverFactoryGurobi;
+import net.sf.javailp.SolverSession;
 
 public class Test {
 
@@ -76,9 +77,9 @@ public class Test {
 		problem.setVarType("x", Integer.class);
 		problem.setVarType("y", Integer.class);
 
-		Solver solver = factory.get(); // you should use this solver only once
-		// for one problem
-		Result result = solver.solve(problem);
+		SolverSession session = factory.getSession(problem); // keeps the
+		// model of the solver for subsequent solves of this problem
+		Result result = session.solve();
 
 		System.out.println(result);
 
@@ -87,11 +88,12 @@ public class Test {
 		 */
 		problem.setVarUpperBound("x", 16);
 
-		solver = factory.get();
-		result = solver.solve(problem);
+		result = session.solve();
 
 		System.out.println(result);
 
+		session.close();
+
 	}
 
 	public static void testEuler() {